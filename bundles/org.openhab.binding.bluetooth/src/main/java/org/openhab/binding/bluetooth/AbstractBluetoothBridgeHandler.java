@@ -13,12 +13,16 @@
 package org.openhab.binding.bluetooth;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -50,8 +54,9 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BluetoothDevice>
     private final Set<BluetoothDiscoveryListener> discoveryListeners = new CopyOnWriteArraySet<>();
 
     // Map of Bluetooth devices known to this bridge.
-    // This contains the devices from the most recent scan
-    private final Map<BluetoothAddress, BD> devices = new ConcurrentHashMap<>();
+    // This contains the devices from the most recent scan, bounded by the maxDevices configuration.
+    // The map is access-ordered, so the least recently seen device comes first. All access is guarded by the map.
+    private final Map<BluetoothAddress, BD> devices = new LinkedHashMap<>(16, 0.75f, true);
 
     // Actual discovery status.
     protected volatile boolean activeScanEnabled = false;
@@ -91,10 +96,8 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BluetoothDevice>
         }
         this.inactiveRemovalJob = null;
 
-        synchronized (devices) {
-            for (BD device : devices.values()) {
-                removeDevice(device);
-            }
+        for (BD device : getDevices()) {
+            removeDevice(device);
         }
     }
 
@@ -104,37 +107,79 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BluetoothDevice>
 
     private void removeInactiveDevices() {
         // clean up orphaned entries
-        synchronized (devices) {
-            for (BD device : devices.values()) {
-                if (shouldRemove(device)) {
-                    logger.debug("Removing device '{}' due to inactivity", device.getAddress());
-                    removeDevice(device);
-                }
+        for (BD device : getDevices()) {
+            if (shouldRemove(device)) {
+                logger.debug("Removing device '{}' due to inactivity", device.getAddress());
+                removeDevice(device);
             }
         }
     }
 
     protected void removeDevice(BluetoothDevice device) {
-        device.dispose();
+        // only the caller that actually removed the entry disposes the device and notifies the listeners
+        boolean removed;
         synchronized (devices) {
-            devices.remove(device.getAddress());
+            removed = devices.remove(device.getAddress(), device);
+        }
+        if (removed) {
+            device.dispose();
+            discoveryListeners.forEach(listener -> listener.deviceRemoved(device));
         }
-        discoveryListeners.forEach(listener -> listener.deviceRemoved(device));
     }
 
     private boolean shouldRemove(BluetoothDevice device) {
+        if (!isEvictable(device)) {
+            return false;
+        }
+
+        // we remove devices we haven't seen in a while
+        return ZonedDateTime.now().minusSeconds(config.inactiveDeviceCleanupThreshold)
+                .isAfter(device.getLastSeenTime());
+    }
+
+    private boolean isEvictable(BluetoothDevice device) {
         // we can't remove devices with listeners since that means they have a handler.
         if (device.hasListeners()) {
             return false;
         }
         // devices that are connected won't receive any scan notifications so we can't remove them for being idle
-        if (device.getConnectionState() == ConnectionState.CONNECTED) {
+        return device.getConnectionState() != ConnectionState.CONNECTED;
+    }
+
+    private boolean canEvict(BluetoothDevice device) {
+        if (!isEvictable(device)) {
+            return false;
+        }
+        // a connection may be in progress, e.g. to discover the services of the device
+        ConnectionState state = device.getConnectionState();
+        if (state == ConnectionState.CONNECTING || state == ConnectionState.DISCONNECTING) {
             return false;
         }
+        return !hasHandlerForDevice(device.getAddress());
+    }
 
-        // we remove devices we haven't seen in a while
-        return ZonedDateTime.now().minusSeconds(config.inactiveDeviceCleanupThreshold)
-                .isAfter(device.getLastSeenTime());
+    /**
+     * Removes the least recently seen devices that are not in use until the device table fits into its configured
+     * capacity again. In crowded places we may hear hundreds of devices with random addresses, which would otherwise
+     * pile up until the next inactive device cleanup. Must be called while holding the lock of the device table.
+     *
+     * @param keep the address of the device that must not be evicted
+     * @return the removed devices, which still have to be disposed
+     */
+    private List<BD> evictDevices(BluetoothAddress keep) {
+        List<BD> evicted = new ArrayList<>();
+        int maxDevices = config.maxDevices;
+        Iterator<BD> iterator = devices.values().iterator();
+        // devices in use are skipped, the others are visited from the least recently seen one
+        while (maxDevices > 0 && devices.size() > maxDevices && iterator.hasNext()) {
+            BD device = iterator.next();
+            if (!device.getAddress().equals(keep) && canEvict(device)) {
+                logger.debug("Removing device '{}' as the device table is full", device.getAddress());
+                iterator.remove();
+                evicted.add(device);
+            }
+        }
+        return evicted;
     }
 
     @Override
@@ -156,9 +201,7 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BluetoothDevice>
 
     protected void refreshDiscoveredDevices() {
         logger.debug("Refreshing Bluetooth device list...");
-        synchronized (devices) {
-            devices.values().forEach(this::deviceDiscovered);
-        }
+        getDevices().forEach(this::deviceDiscovered);
     }
 
     @Override
@@ -170,14 +213,52 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BluetoothDevice>
 
     @Override
     public BD getDevice(BluetoothAddress address) {
+        return getDevice(address, this::createDevice);
+    }
+
+    /**
+     * Returns the device with the given address, creating it with the given factory if it is not known yet.
+     *
+     * @param address the {@link BluetoothAddress} of the device
+     * @param deviceFactory the factory used to create the device if it is not known yet
+     * @return the device
+     */
+    protected BD getDevice(BluetoothAddress address, Function<BluetoothAddress, BD> deviceFactory) {
+        BD device;
+        List<BD> evicted;
         synchronized (devices) {
-            if (devices.containsKey(address)) {
-                return devices.get(address);
+            // the lookup moves the device to the end of the access order
+            device = devices.get(address);
+            if (device != null) {
+                return device;
             }
-            BD device = createDevice(address);
+            device = deviceFactory.apply(address);
             device.updateLastSeenTime();
             devices.put(address, device);
-            return device;
+            evicted = evictDevices(address);
+        }
+        for (BD removed : evicted) {
+            removed.dispose();
+            discoveryListeners.forEach(listener -> listener.deviceRemoved(removed));
+        }
+        return device;
+    }
+
+    /**
+     * Checks whether a device with the given address is currently known to this bridge.
+     *
+     * @param address the {@link BluetoothAddress} of the device
+     * @return true if the device is known
+     */
+    protected boolean hasDevice(BluetoothAddress address) {
+        synchronized (devices) {
+            return devices.containsKey(address);
+        }
+    }
+
+    private List<BD> getDevices() {
+        synchronized (devices) {
+            return new ArrayList<>(devices.values());
         }
     }
 
@@ -27,6 +27,7 @@ import org.eclipse.smarthome.core.thing.binding.BridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.openhab.binding.bluetooth.internal.RssiFilter;
 import org.openhab.binding.bluetooth.notification.BluetoothConnectionStatusNotification;
 import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 
@@ -39,6 +40,11 @@ import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 @NonNullByDefault
 public class BeaconBluetoothHandler extends BaseThingHandler implements BluetoothDeviceListener {
 
+    // weight of a new advertisement in the smoothed RSSI value
+    private static final double RSSI_SMOOTHING_FACTOR = 0.3;
+    // minimum time between two RSSI channel updates caused by advertisements
+    private static final long RSSI_MIN_UPDATE_INTERVAL_MS = 5000;
+
     @NonNullByDefault({} /* non-null if initialized */)
     protected BluetoothAdapter adapter;
 
@@ -50,6 +56,8 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
 
     protected final ReentrantLock deviceLock;
 
+    private final RssiFilter rssiFilter = new RssiFilter(RSSI_SMOOTHING_FACTOR, RSSI_MIN_UPDATE_INTERVAL_MS);
+
     public BeaconBluetoothHandler(Thing thing) {
         super(thing);
         deviceLock = new ReentrantLock();
@@ -125,6 +133,7 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
             updateState(BluetoothBindingConstants.CHANNEL_TYPE_RSSI, new DecimalType(rssi));
             updateStatusBasedOnRssi(true);
         } else {
+            rssiFilter.reset();
             updateState(BluetoothBindingConstants.CHANNEL_TYPE_RSSI, UnDefType.NULL);
             updateStatusBasedOnRssi(false);
         }
@@ -147,9 +156,19 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
     @Override
     public void onScanRecordReceived(BluetoothScanNotification scanNotification) {
         int rssi = scanNotification.getRssi();
-        if (rssi != Integer.MIN_VALUE) {
+        if (rssi == Integer.MIN_VALUE) {
+            return;
+        }
+        if (rssi == 0) {
             updateRSSI(rssi);
+            return;
+        }
+        // advertisements may arrive several times per second, so only publish the smoothed value now and then
+        Integer smoothedRssi = rssiFilter.filter(rssi, System.nanoTime());
+        if (smoothedRssi != null) {
+            updateState(BluetoothBindingConstants.CHANNEL_TYPE_RSSI, new DecimalType(smoothedRssi));
         }
+        updateStatusBasedOnRssi(true);
     }
 
     @Override
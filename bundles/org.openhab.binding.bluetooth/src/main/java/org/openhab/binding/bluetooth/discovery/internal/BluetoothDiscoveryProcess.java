@@ -59,6 +59,9 @@ public class BluetoothDiscoveryProcess implements Supplier<DiscoveryResult>, Blu
 
     private static final int DISCOVERY_TTL = 300;
 
+    // upper bound for the whole connection based discovery of a single device
+    private static final long CONNECTION_DISCOVERY_TIMEOUT_SECONDS = 30;
+
     private final Logger logger = LoggerFactory.getLogger(BluetoothDiscoveryProcess.class);
 
     private final Lock serviceDiscoveryLock = new ReentrantLock();
@@ -70,8 +73,12 @@ public class BluetoothDiscoveryProcess implements Supplier<DiscoveryResult>, Blu
     private final Collection<BluetoothDiscoveryParticipant> participants;
     private final Set<BluetoothAdapter> adapters;
 
+    private final List<BluetoothDiscoveryParticipant> connectionParticipants = new ArrayList<>();
+
     private volatile boolean servicesDiscovered = false;
 
+    private long connectionDeadline;
+
     /**
      * Contains characteristic which reading is ongoing or null if no ongoing readings.
      */
@@ -86,8 +93,24 @@ public class BluetoothDiscoveryProcess implements Supplier<DiscoveryResult>, Blu
 
     @Override
     public DiscoveryResult get() {
-        // first see if any of the participants that don't require a connection recognize this device
-        List<BluetoothDiscoveryParticipant> connectionParticipants = new ArrayList<>();
+        DiscoveryResult result = findResultWithoutConnection();
+        if (result == null && requiresConnection()) {
+            result = findResultWithConnection();
+        }
+        if (result == null) {
+            result = createDefaultResult(device);
+        }
+        return result;
+    }
+
+    /**
+     * Asks the participants that don't require a connection for a result. The participants that do require one are
+     * remembered for {@link #findResultWithConnection()}.
+     *
+     * @return the result of the first participant that recognized the device or null
+     */
+    public @Nullable DiscoveryResult findResultWithoutConnection() {
+        connectionParticipants.clear();
         for (BluetoothDiscoveryParticipant participant : participants) {
             if (participant.requiresConnection(device)) {
                 connectionParticipants.add(participant);
@@ -102,32 +125,52 @@ public class BluetoothDiscoveryProcess implements Supplier<DiscoveryResult>, Blu
                 logger.warn("Participant '{}' threw an exception", participant.getClass().getName(), e);
             }
         }
+        return null;
+    }
 
-        // Since we couldn't find a result, lets try the connection based participants
-        DiscoveryResult result = null;
-        if (!connectionParticipants.isEmpty()) {
-            BluetoothAddress address = device.getAddress();
-            if (isAddressAvailable(address)) {
-                result = findConnectionResult(connectionParticipants);
-                // make sure to disconnect before letting go of the device
-                if (device.getConnectionState() == ConnectionState.CONNECTED) {
-                    try {
-                        if (!device.disconnect()) {
-                            logger.debug("Failed to disconnect from device {}", address);
-                        }
-                    } catch (RuntimeException ex) {
-                        logger.warn("Error occurred during bluetooth discovery for device {} on adapter {}", address,
-                                device.getAdapter().getAddress(), ex);
-                    }
+    /**
+     * @return true if there are participants that need to connect to the device and nobody else uses it
+     */
+    public boolean requiresConnection() {
+        return !connectionParticipants.isEmpty() && isAddressAvailable(device.getAddress());
+    }
+
+    /**
+     * Connects to the device and asks the participants that require a connection for a result.
+     * This blocks until a result was found or the discovery timed out, so it should run on a thread
+     * that is dedicated to the connections of the device's adapter.
+     *
+     * @return the result of the first participant that recognized the device or null
+     */
+    public @Nullable DiscoveryResult findResultWithConnection() {
+        BluetoothAddress address = device.getAddress();
+        if (!isAddressAvailable(address)) {
+            // a handler may have been created while we were waiting for a connection slot
+            return null;
+        }
+        connectionDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CONNECTION_DISCOVERY_TIMEOUT_SECONDS);
+        DiscoveryResult result = findConnectionResult(connectionParticipants);
+        // make sure to disconnect before letting go of the device
+        if (device.getConnectionState() == ConnectionState.CONNECTED) {
+            try {
+                if (!device.disconnect()) {
+                    logger.debug("Failed to disconnect from device {}", address);
                 }
+            } catch (RuntimeException ex) {
+                logger.warn("Error occurred during bluetooth discovery for device {} on adapter {}", address,
+                        device.getAdapter().getAddress(), ex);
             }
         }
-        if (result == null) {
-            result = createDefaultResult(device);
-        }
         return result;
     }
 
+    /**
+     * @return the default result for a device that no participant recognized
+     */
+    public DiscoveryResult createDefaultResult() {
+        return createDefaultResult(device);
+    }
+
     private boolean isAddressAvailable(BluetoothAddress address) {
         // if a device with this address has a handler on any of the adapters, we abandon discovery
         return adapters.stream().noneMatch(adapter -> adapter.hasHandlerForDevice(address));
@@ -262,10 +305,17 @@ public class BluetoothDiscoveryProcess implements Supplier<DiscoveryResult>, Blu
         }
     }
 
+    /**
+     * Limits a timeout so that waiting does not exceed the deadline of the whole connection based discovery.
+     */
+    private long boundedTimeout(long timeout, TimeUnit unit) {
+        return Math.min(unit.toNanos(timeout), connectionDeadline - System.nanoTime());
+    }
+
     private boolean awaitConnection(long timeout, TimeUnit unit) throws InterruptedException {
         serviceDiscoveryLock.lock();
         try {
-            long nanosTimeout = unit.toNanos(timeout);
+            long nanosTimeout = boundedTimeout(timeout, unit);
             while (device.getConnectionState() != ConnectionState.CONNECTED) {
                 if (nanosTimeout <= 0L) {
                     return false;
@@ -281,7 +331,7 @@ public class BluetoothDiscoveryProcess implements Supplier<DiscoveryResult>, Blu
     private boolean awaitInfoResponse(long timeout, TimeUnit unit) throws InterruptedException {
         serviceDiscoveryLock.lock();
         try {
-            long nanosTimeout = unit.toNanos(timeout);
+            long nanosTimeout = boundedTimeout(timeout, unit);
             while (ongoingGattCharacteristic != null) {
                 if (nanosTimeout <= 0L) {
                     return false;
@@ -297,7 +347,7 @@ public class BluetoothDiscoveryProcess implements Supplier<DiscoveryResult>, Blu
     private boolean awaitServiceDiscovery(long timeout, TimeUnit unit) throws InterruptedException {
         serviceDiscoveryLock.lock();
         try {
-            long nanosTimeout = unit.toNanos(timeout);
+            long nanosTimeout = boundedTimeout(timeout, unit);
             while (!servicesDiscovered) {
                 if (nanosTimeout <= 0L) {
                     return false;
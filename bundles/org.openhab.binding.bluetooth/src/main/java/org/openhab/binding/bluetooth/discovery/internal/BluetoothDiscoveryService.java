@@ -12,19 +12,27 @@
  */
 package org.openhab.binding.bluetooth.discovery.internal;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.discovery.AbstractDiscoveryService;
 import org.eclipse.smarthome.config.discovery.DiscoveryResult;
 import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.bluetooth.BluetoothAdapter;
@@ -57,10 +65,28 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService implemen
 
     private static final int SEARCH_TIME = 15;
 
+    // number of devices an adapter connects to at the same time for connection based discovery
+    private static final int CONNECTION_SLOTS_PER_ADAPTER = 2;
+
+    // number of devices for which the information read during connection based discovery is remembered
+    private static final int DEVICE_INFO_CACHE_SIZE = 256;
+
     private final Set<BluetoothAdapter> adapters = new CopyOnWriteArraySet<>();
     private final Set<BluetoothDiscoveryParticipant> participants = new CopyOnWriteArraySet<>();
     private final Map<BluetoothAddress, DiscoveryCache> discoveryCaches = new ConcurrentHashMap<>();
 
+    // Connection based discoveries are queued per adapter, so that slow devices only block their own adapter's slots
+    private final Map<BluetoothAdapter, ThreadPoolExecutor> connectionExecutors = new ConcurrentHashMap<>();
+
+    // Device information read from connected devices, kept after the devices themselves have been removed
+    private final Map<BluetoothAddress, BluetoothDeviceSnapshot> deviceInfoCache = Collections
+            .synchronizedMap(new DeviceInfoCache());
+
+    private final AtomicLong discoveryCount = new AtomicLong();
+    private final AtomicLong connectionDiscoveryCount = new AtomicLong();
+    private final AtomicLong failedConnectionDiscoveryCount = new AtomicLong();
+    private final AtomicLong connectionDiscoveryNanos = new AtomicLong();
+
     private final Set<ThingTypeUID> supportedThingTypes = new CopyOnWriteArraySet<>();
 
     public BluetoothDiscoveryService() {
@@ -85,6 +111,8 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService implemen
     @Deactivate
     public void deactivate() {
         logger.debug("Deactivating Bluetooth discovery service");
+        connectionExecutors.values().forEach(ThreadPoolExecutor::shutdownNow);
+        connectionExecutors.clear();
     }
 
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
@@ -96,6 +124,10 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService implemen
     protected void removeBluetoothAdapter(BluetoothAdapter adapter) {
         this.adapters.remove(adapter);
         adapter.removeDiscoveryListener(this);
+        ThreadPoolExecutor executor = connectionExecutors.remove(adapter);
+        if (executor != null) {
+            executor.shutdownNow();
+        }
     }
 
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
@@ -127,6 +159,47 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService implemen
             adapter.scanStop();
         }
         removeOlderResults(getTimestampOfLastScan());
+        logStatistics();
+    }
+
+    private void logStatistics() {
+        if (logger.isDebugEnabled()) {
+            long connectionDiscoveries = connectionDiscoveryCount.get();
+            long averageMillis = connectionDiscoveries == 0 ? 0
+                    : TimeUnit.NANOSECONDS.toMillis(connectionDiscoveryNanos.get() / connectionDiscoveries);
+            logger.debug("Bluetooth discovery processed {} devices, {} by connecting ({} without result, avg {} ms)",
+                    discoveryCount.get(), connectionDiscoveries, failedConnectionDiscoveryCount.get(), averageMillis);
+        }
+    }
+
+    private Executor getConnectionExecutor(BluetoothAdapter adapter) {
+        return connectionExecutors.computeIfAbsent(adapter, key -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(CONNECTION_SLOTS_PER_ADAPTER,
+                    CONNECTION_SLOTS_PER_ADAPTER, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    new NamedThreadFactory("bluetooth-discovery-" + key.getUID().getId(), true));
+            // don't keep threads around for adapters that are idle
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    private DiscoveryResult discoverWithConnection(BluetoothDiscoveryProcess process, BluetoothDeviceSnapshot device) {
+        long start = System.nanoTime();
+        DiscoveryResult result = process.findResultWithConnection();
+        long duration = System.nanoTime() - start;
+
+        connectionDiscoveryCount.incrementAndGet();
+        connectionDiscoveryNanos.addAndGet(duration);
+        // remember what we have read, so that we don't need to read it again should the device come back
+        deviceInfoCache.put(device.getAddress(), device);
+        logger.debug("Connection based discovery of device {} took {} ms", device.getAddress(),
+                TimeUnit.NANOSECONDS.toMillis(duration));
+
+        if (result == null) {
+            failedConnectionDiscoveryCount.incrementAndGet();
+            result = process.createDefaultResult();
+        }
+        return result;
     }
 
     @Override
@@ -204,7 +277,12 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService implemen
 
             BluetoothDeviceSnapshot snapshot = new BluetoothDeviceSnapshot(device);
             BluetoothDeviceSnapshot latestSnapshot = this.latestSnapshot;
-            if (latestSnapshot != null) {
+            if (latestSnapshot == null) {
+                BluetoothDeviceSnapshot cachedSnapshot = deviceInfoCache.get(device.getAddress());
+                if (cachedSnapshot != null) {
+                    snapshot.merge(cachedSnapshot);
+                }
+            } else {
                 snapshot.merge(latestSnapshot);
 
                 if (snapshot.equals(latestSnapshot)) {
@@ -270,8 +348,38 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService implemen
         }
 
         private CompletableFuture<DiscoveryResult> startDiscoveryProcess(BluetoothDeviceSnapshot device) {
-            return CompletableFuture.supplyAsync(new BluetoothDiscoveryProcess(device, participants, adapters),
-                    scheduler);
+            BluetoothDiscoveryProcess process = new BluetoothDiscoveryProcess(device, participants, adapters);
+            return CompletableFuture.supplyAsync(() -> {
+                discoveryCount.incrementAndGet();
+                return process.findResultWithoutConnection();
+            }, scheduler).thenCompose(result -> {
+                if (result != null) {
+                    return CompletableFuture.completedFuture(result);
+                }
+                if (!process.requiresConnection()) {
+                    return CompletableFuture.completedFuture(process.createDefaultResult());
+                }
+                // connecting may block for a while, so we wait for a free connection slot of the adapter
+                return CompletableFuture.supplyAsync(() -> discoverWithConnection(process, device),
+                        getConnectionExecutor(device.getAdapter()));
+            });
+        }
+    }
+
+    /**
+     * A map of device information that evicts the least recently used entries.
+     */
+    private static class DeviceInfoCache extends LinkedHashMap<BluetoothAddress, BluetoothDeviceSnapshot> {
+
+        private static final long serialVersionUID = 1L;
+
+        public DeviceInfoCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BluetoothAddress, BluetoothDeviceSnapshot> eldest) {
+            return size() > DEVICE_INFO_CACHE_SIZE;
         }
     }
 
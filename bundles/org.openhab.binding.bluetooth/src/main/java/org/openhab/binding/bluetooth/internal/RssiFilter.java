@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link RssiFilter} coalesces the RSSI values of consecutive advertisements of a single device.
+ * Values are smoothed with an exponential moving average and only published once the minimum update interval
+ * has elapsed, so that a chatty beacon does not cause a channel update for every advertisement it sends.
+ *
+ * @author Connor Petty - Initial contribution
+ */
+@NonNullByDefault
+public class RssiFilter {
+
+    private final double alpha;
+    private final long minIntervalNanos;
+
+    private double smoothedRssi;
+    private boolean hasValue = false;
+    private long lastPublished;
+    private int lastPublishedRssi;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param alpha the weight of a new sample in the moving average, between 0 (exclusive) and 1 (no smoothing)
+     * @param minIntervalMillis the minimum time between two published values, 0 to publish every change
+     */
+    public RssiFilter(double alpha, long minIntervalMillis) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be within (0, 1]");
+        }
+        this.alpha = alpha;
+        this.minIntervalNanos = Math.max(0, minIntervalMillis) * 1_000_000L;
+    }
+
+    /**
+     * Adds a received RSSI value to the filter.
+     *
+     * @param rssi the RSSI value of the received advertisement
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return the smoothed value to publish or null if the channel should not be updated
+     */
+    public synchronized @Nullable Integer filter(int rssi, long nowNanos) {
+        if (!hasValue) {
+            hasValue = true;
+            smoothedRssi = rssi;
+            return publish((int) Math.round(smoothedRssi), nowNanos);
+        }
+        smoothedRssi += alpha * (rssi - smoothedRssi);
+        int value = (int) Math.round(smoothedRssi);
+        if (value == lastPublishedRssi || nowNanos - lastPublished < minIntervalNanos) {
+            return null;
+        }
+        return publish(value, nowNanos);
+    }
+
+    /**
+     * Forgets the current average, e.g. after the device went out of range.
+     */
+    public synchronized void reset() {
+        hasValue = false;
+    }
+
+    private Integer publish(int value, long nowNanos) {
+        lastPublished = nowNanos;
+        lastPublishedRssi = value;
+        return value;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.bluetooth.BluetoothDevice.ConnectionState;
+
+/**
+ * Tests the bounded device table of the {@link AbstractBluetoothBridgeHandler}.
+ *
+ * @author Connor Petty - Initial contribution
+ */
+@NonNullByDefault
+public class AbstractBluetoothBridgeHandlerTest {
+
+    private final List<Thing> things = new ArrayList<>();
+    private @NonNullByDefault({}) TestBridgeHandler handler;
+
+    private static class TestBridgeHandler extends AbstractBluetoothBridgeHandler<MockBluetoothDevice> {
+        private final BluetoothAddress address = TestUtils.randomAddress();
+
+        TestBridgeHandler(Bridge bridge) {
+            super(bridge);
+        }
+
+        @Override
+        public BluetoothAddress getAddress() {
+            return address;
+        }
+
+        @Override
+        protected MockBluetoothDevice createDevice(BluetoothAddress address) {
+            return new MockBluetoothDevice(this, address);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new Configuration();
+        configuration.put("maxDevices", BigDecimal.valueOf(2));
+        Bridge bridge = mock(Bridge.class);
+        when(bridge.getConfiguration()).thenReturn(configuration);
+        when(bridge.getThings()).thenReturn(things);
+
+        handler = new TestBridgeHandler(bridge);
+        handler.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        handler.dispose();
+    }
+
+    @Test
+    public void testLeastRecentlySeenDeviceIsEvicted() {
+        BluetoothAddress address1 = TestUtils.randomAddress();
+        BluetoothAddress address2 = TestUtils.randomAddress();
+        BluetoothAddress address3 = TestUtils.randomAddress();
+
+        handler.getDevice(address1);
+        handler.getDevice(address2);
+        // seen again, so the second device is the least recently seen one
+        handler.getDevice(address1);
+        handler.getDevice(address3);
+
+        assertTrue(handler.hasDevice(address1));
+        assertFalse(handler.hasDevice(address2));
+        assertTrue(handler.hasDevice(address3));
+    }
+
+    @Test
+    public void testConnectingDeviceIsNotEvicted() {
+        BluetoothAddress address1 = TestUtils.randomAddress();
+        BluetoothAddress address2 = TestUtils.randomAddress();
+        BluetoothAddress address3 = TestUtils.randomAddress();
+
+        handler.getDevice(address1).connectionState = ConnectionState.CONNECTING;
+        handler.getDevice(address2);
+        handler.getDevice(address3);
+
+        assertTrue(handler.hasDevice(address1));
+        assertFalse(handler.hasDevice(address2));
+        assertTrue(handler.hasDevice(address3));
+    }
+
+    @Test
+    public void testDeviceWithHandlerIsNotEvicted() {
+        BluetoothAddress address1 = TestUtils.randomAddress();
+        BluetoothAddress address2 = TestUtils.randomAddress();
+        BluetoothAddress address3 = TestUtils.randomAddress();
+
+        Configuration configuration = new Configuration();
+        configuration.put(BluetoothBindingConstants.CONFIGURATION_ADDRESS, address1.toString());
+        Thing thing = mock(Thing.class);
+        when(thing.getConfiguration()).thenReturn(configuration);
+        when(thing.getHandler()).thenReturn(mock(ThingHandler.class));
+        things.add(thing);
+
+        handler.getDevice(address1);
+        handler.getDevice(address2);
+        handler.getDevice(address3);
+
+        assertTrue(handler.hasDevice(address1));
+        assertFalse(handler.hasDevice(address2));
+        assertTrue(handler.hasDevice(address3));
+    }
+}
@@ -397,6 +397,42 @@ public class BluetoothDiscoveryServiceTest {
                 ArgumentMatchers.argThat(arg -> arg.getThingTypeUID().equals(participant2.typeUID)));
     }
 
+    @Test
+    public void cachedDeviceInfoTest() {
+        Mockito.doReturn(true).when(participant1).requiresConnection(ArgumentMatchers.any());
+        BluetoothAddress address = TestUtils.randomAddress();
+
+        MockBluetoothAdapter mockAdapter1 = new MockBluetoothAdapter();
+        MockBluetoothDevice mockDevice1 = new MockBluetoothDevice(mockAdapter1, address);
+        String deviceName = RandomStringUtils.randomAlphanumeric(10);
+        mockDevice1.setDeviceName(deviceName);
+
+        BluetoothDevice device1 = Mockito.spy(mockDevice1);
+
+        discoveryService.deviceDiscovered(device1);
+
+        Mockito.verify(mockDiscoveryListener, Mockito.timeout(TIMEOUT).times(1)).thingDiscovered(
+                ArgumentMatchers.same(discoveryService),
+                ArgumentMatchers.argThat(arg -> arg.getThingUID().getId().equals(deviceName)));
+        Mockito.verify(device1, Mockito.times(1)).readCharacteristic(
+                ArgumentMatchers.argThat(ch -> ch.getGattCharacteristic() == GattCharacteristic.DEVICE_NAME));
+
+        // the adapter forgets about the device and later hears it again
+        discoveryService.deviceRemoved(device1);
+
+        MockBluetoothDevice mockDevice2 = new MockBluetoothDevice(mockAdapter1, address);
+        mockDevice2.setDeviceName(deviceName);
+        BluetoothDevice device2 = Mockito.spy(mockDevice2);
+
+        discoveryService.deviceDiscovered(device2);
+
+        Mockito.verify(mockDiscoveryListener, Mockito.timeout(TIMEOUT).times(2)).thingDiscovered(
+                ArgumentMatchers.same(discoveryService),
+                ArgumentMatchers.argThat(arg -> arg.getThingUID().getId().equals(deviceName)));
+        Mockito.verify(device2, Mockito.never()).readCharacteristic(
+                ArgumentMatchers.argThat(ch -> ch.getGattCharacteristic() == GattCharacteristic.DEVICE_NAME));
+    }
+
     @Test
     public void recursiveFutureTest() throws InterruptedException {
         /*
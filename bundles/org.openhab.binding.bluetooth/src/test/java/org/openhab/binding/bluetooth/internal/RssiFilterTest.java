@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link RssiFilter}.
+ *
+ * @author Connor Petty - Initial contribution
+ */
+public class RssiFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testFirstValueIsPublished() {
+        RssiFilter filter = new RssiFilter(0.5, 5000);
+        assertEquals(Integer.valueOf(-60), filter.filter(-60, 0));
+    }
+
+    @Test
+    public void testUpdatesAreRateLimited() {
+        RssiFilter filter = new RssiFilter(0.5, 5000);
+        filter.filter(-60, 0);
+        assertNull(filter.filter(-80, SECOND));
+        assertNull(filter.filter(-80, 2 * SECOND));
+        // -60 -> -70 -> -75 -> -77.5
+        assertEquals(Integer.valueOf(-77), filter.filter(-80, 5 * SECOND));
+    }
+
+    @Test
+    public void testUnchangedValueIsNotPublished() {
+        RssiFilter filter = new RssiFilter(1, 0);
+        filter.filter(-60, 0);
+        assertNull(filter.filter(-60, 10 * SECOND));
+        assertEquals(Integer.valueOf(-61), filter.filter(-61, 10 * SECOND));
+    }
+
+    @Test
+    public void testResetPublishesNextValue() {
+        RssiFilter filter = new RssiFilter(0.5, 5000);
+        filter.filter(-60, 0);
+        filter.reset();
+        assertEquals(Integer.valueOf(-90), filter.filter(-90, SECOND));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAlpha() {
+        new RssiFilter(0, 0);
+    }
+}
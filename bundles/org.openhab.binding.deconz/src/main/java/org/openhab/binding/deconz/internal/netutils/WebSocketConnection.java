@@ -25,18 +25,24 @@ import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
 import org.eclipse.jetty.websocket.client.WebSocketClient;
 import org.openhab.binding.deconz.internal.dto.DeconzBaseMessage;
-import org.openhab.binding.deconz.internal.dto.LightMessage;
-import org.openhab.binding.deconz.internal.dto.SensorMessage;
+import org.openhab.binding.deconz.internal.types.DeconzMessageDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 
 /**
  * Establishes and keeps a websocket connection to the deCONZ software.
  *
  * The connection is closed by deCONZ now and then and needs to be re-established.
  *
+ * Each message is parsed only once. Events for resources without a registered listener are dropped before they are
+ * decoded into a {@link DeconzBaseMessage}. The given Gson instance needs a {@link DeconzMessageDeserializer}.
+ *
  * @author David Graeff - Initial contribution
  */
 @WebSocket
@@ -49,6 +55,7 @@ public class WebSocketConnection {
     private final Map<String, WebSocketMessageListener> sensorListener = new ConcurrentHashMap<>();
     private final Map<String, WebSocketMessageListener> lightListener = new ConcurrentHashMap<>();
     private final Gson gson;
+    private final JsonParser jsonParser = new JsonParser();
     private boolean connected = false;
 
     public WebSocketConnection(WebSocketConnectionListener listener, WebSocketClient client, Gson gson) {
@@ -97,7 +104,7 @@ public class WebSocketConnection {
     }
 
     public void unregisterLightListener(String lightID) {
-        sensorListener.remove(lightID);
+        lightListener.remove(lightID);
     }
 
     @OnWebSocketConnect
@@ -107,30 +114,45 @@ public class WebSocketConnection {
         connectionListener.connectionEstablished();
     }
 
-    @SuppressWarnings("null")
     @OnWebSocketMessage
     public void onMessage(String message) {
         logger.trace("Raw data received by websocket: {}", message);
-        DeconzBaseMessage changedMessage = gson.fromJson(message, DeconzBaseMessage.class);
-        switch (changedMessage.r) {
-            case "sensors":
-                WebSocketMessageListener listener = sensorListener.get(changedMessage.id);
-                if (listener != null) {
-                    listener.messageReceived(changedMessage.id, gson.fromJson(message, SensorMessage.class));
-                } else {
-                    logger.trace("Couldn't find sensor listener for id {}", changedMessage.id);
-                }
+        JsonObject json;
+        try {
+            JsonElement element = jsonParser.parse(message);
+            if (!element.isJsonObject()) {
+                logger.debug("Received message is not a JSON object: {}", message);
+                return;
+            }
+            json = element.getAsJsonObject();
+        } catch (JsonParseException e) {
+            logger.debug("Failed to parse message '{}': {}", message, e.getMessage());
+            return;
+        }
+
+        String resource = DeconzMessageDeserializer.getString(json, "r");
+        String id = DeconzMessageDeserializer.getString(json, "id");
+        WebSocketMessageListener listener;
+        switch (resource) {
+            case DeconzMessageDeserializer.RESOURCE_SENSORS:
+                listener = sensorListener.get(id);
                 break;
-            case "lights":
-                listener = lightListener.get(changedMessage.id);
-                if (listener != null) {
-                    listener.messageReceived(changedMessage.id, gson.fromJson(message, LightMessage.class));
-                } else {
-                    logger.trace("Couldn't find light listener for id {}", changedMessage.id);
-                }
+            case DeconzMessageDeserializer.RESOURCE_LIGHTS:
+                listener = lightListener.get(id);
                 break;
             default:
-                logger.debug("Unknown message type: {}", changedMessage.r);
+                logger.debug("Unknown message type: {}", resource);
+                return;
+        }
+
+        if (listener == null) {
+            logger.trace("Couldn't find {} listener for id {}", resource, id);
+            return;
+        }
+        try {
+            listener.messageReceived(id, gson.fromJson(json, DeconzBaseMessage.class));
+        } catch (JsonParseException e) {
+            logger.debug("Failed to decode message '{}': {}", message, e.getMessage());
         }
     }
 
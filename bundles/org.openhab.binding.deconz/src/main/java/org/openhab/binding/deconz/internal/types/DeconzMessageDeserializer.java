@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.deconz.internal.types;
+
+import java.lang.reflect.Type;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.deconz.internal.dto.DeconzBaseMessage;
+import org.openhab.binding.deconz.internal.dto.LightMessage;
+import org.openhab.binding.deconz.internal.dto.SensorMessage;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+/**
+ * Custom deserializer for websocket {@link DeconzBaseMessage}s. Decodes a message into a {@link SensorMessage} or
+ * {@link LightMessage}, depending on the resource field "r", in a single pass.
+ *
+ * @author David Graeff - Initial contribution
+ */
+@NonNullByDefault
+public class DeconzMessageDeserializer implements JsonDeserializer<DeconzBaseMessage> {
+    public static final String RESOURCE_SENSORS = "sensors";
+    public static final String RESOURCE_LIGHTS = "lights";
+
+    @Override
+    public DeconzBaseMessage deserialize(@Nullable JsonElement json, @Nullable Type typeOfT,
+            @Nullable JsonDeserializationContext context) throws JsonParseException {
+        if (json == null || !json.isJsonObject() || context == null) {
+            throw new JsonParseException("Expected a JSON object");
+        }
+        JsonObject object = json.getAsJsonObject();
+        String resource = getString(object, "r");
+        if (RESOURCE_SENSORS.equals(resource)) {
+            return context.deserialize(object, SensorMessage.class);
+        } else if (RESOURCE_LIGHTS.equals(resource)) {
+            return context.deserialize(object, LightMessage.class);
+        }
+
+        // Unknown resource: only the websocket event fields are of interest
+        DeconzBaseMessage message = new DeconzBaseMessage();
+        message.e = getString(object, "e");
+        message.r = resource;
+        message.t = getString(object, "t");
+        message.id = getString(object, "id");
+        return message;
+    }
+
+    /**
+     * Returns the string value of the given member or an empty string
+     */
+    public static String getString(JsonObject object, String member) {
+        JsonElement element = object.get(member);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : "";
+    }
+}
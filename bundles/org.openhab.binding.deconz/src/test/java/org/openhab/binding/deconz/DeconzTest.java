@@ -12,8 +12,7 @@
  */
 package org.openhab.binding.deconz;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.io.IOException;
@@ -23,6 +22,7 @@ import java.time.ZonedDateTime;
 
 import org.apache.commons.io.IOUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
 import org.eclipse.smarthome.config.discovery.DiscoveryListener;
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.thing.Bridge;
@@ -35,7 +35,14 @@ import org.mockito.Mockito;
 import org.openhab.binding.deconz.internal.Util;
 import org.openhab.binding.deconz.internal.discovery.ThingDiscoveryService;
 import org.openhab.binding.deconz.internal.dto.BridgeFullState;
+import org.openhab.binding.deconz.internal.dto.DeconzBaseMessage;
+import org.openhab.binding.deconz.internal.dto.LightMessage;
+import org.openhab.binding.deconz.internal.dto.SensorMessage;
 import org.openhab.binding.deconz.internal.handler.DeconzBridgeHandler;
+import org.openhab.binding.deconz.internal.netutils.WebSocketConnection;
+import org.openhab.binding.deconz.internal.netutils.WebSocketConnectionListener;
+import org.openhab.binding.deconz.internal.netutils.WebSocketMessageListener;
+import org.openhab.binding.deconz.internal.types.DeconzMessageDeserializer;
 import org.openhab.binding.deconz.internal.types.LightType;
 import org.openhab.binding.deconz.internal.types.LightTypeDeserializer;
 import org.openhab.binding.deconz.internal.types.ThermostatMode;
@@ -62,6 +69,18 @@ public class DeconzTest {
     @Mock
     private @NonNullByDefault({}) Bridge bridge;
 
+    @Mock
+    private @NonNullByDefault({}) WebSocketClient webSocketClient;
+
+    @Mock
+    private @NonNullByDefault({}) WebSocketConnectionListener connectionListener;
+
+    @Mock
+    private @NonNullByDefault({}) WebSocketMessageListener sensorListener;
+
+    @Mock
+    private @NonNullByDefault({}) WebSocketMessageListener lightListener;
+
     @Before
     public void initialize() {
         initMocks(this);
@@ -72,6 +91,7 @@ public class DeconzTest {
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.registerTypeAdapter(LightType.class, new LightTypeDeserializer());
         gsonBuilder.registerTypeAdapter(ThermostatMode.class, new ThermostatModeGsonTypeAdapter());
+        gsonBuilder.registerTypeAdapter(DeconzBaseMessage.class, new DeconzMessageDeserializer());
         gson = gsonBuilder.create();
     }
 
@@ -104,4 +124,31 @@ public class DeconzTest {
         Assert.assertEquals(
                 new DateTimeType(ZonedDateTime.parse("2020-08-22T11:09:47Z")).toZone(ZoneId.systemDefault()), dateTime);
     }
+
+    @Test
+    public void websocketDispatchTest() {
+        WebSocketConnection connection = new WebSocketConnection(connectionListener, webSocketClient, gson);
+        connection.registerSensorListener("3", sensorListener);
+        connection.registerLightListener("1", lightListener);
+
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"3\",\"r\":\"sensors\",\"state\":{\"presence\":true},"
+                + "\"t\":\"event\"}");
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"4\",\"r\":\"sensors\",\"state\":{\"presence\":true},"
+                + "\"t\":\"event\"}");
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"1\",\"r\":\"lights\",\"state\":{\"on\":true},"
+                + "\"t\":\"event\"}");
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"1\",\"r\":\"groups\",\"t\":\"event\"}");
+        connection.onMessage("no json");
+
+        verify(sensorListener, times(1)).messageReceived(eq("3"), argThat(message -> message instanceof SensorMessage
+                && Boolean.TRUE.equals(((SensorMessage) message).state.presence)));
+        verify(lightListener, times(1)).messageReceived(eq("1"), argThat(message -> message instanceof LightMessage
+                && Boolean.TRUE.equals(((LightMessage) message).state.on)));
+
+        // Unregistered lights are not decoded anymore
+        connection.unregisterLightListener("1");
+        connection.onMessage("{\"e\":\"changed\",\"id\":\"1\",\"r\":\"lights\",\"state\":{\"on\":false},"
+                + "\"t\":\"event\"}");
+        verifyNoMoreInteractions(sensorListener, lightListener);
+    }
 }
@@ -30,6 +30,12 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class CosemObjectFactory {
+    /**
+     * Maximum number of entries in the OBIS Identifier string lookup table. A meter only sends a limited set of OBIS
+     * Identifiers, the limit protects against corrupted data filling the table.
+     */
+    private static final int MAX_OBIS_ID_STRING_LOOKUP_TABLE_SIZE = 256;
+
     private final Logger logger = LoggerFactory.getLogger(CosemObjectFactory.class);
 
     /**
@@ -52,6 +58,13 @@ public class CosemObjectFactory {
      */
     private final List<CosemObjectType> obisWildcardCosemTypeList = new ArrayList<>();
 
+    /**
+     * Lookup cache for OBIS Identifier strings as received in the telegram. Contains the parsed OBIS Identifier and,
+     * when the type doesn't depend on the values, the CosemObjectType. This avoids parsing the OBIS Identifier and
+     * searching the lookup tables for every Cosem Object in every telegram.
+     */
+    private final Map<String, ResolvedOBISIdentifier> obisIdStringLookupTable = new HashMap<>();
+
     /**
      * Creates a new CosemObjectFactory
      */
@@ -87,53 +100,71 @@ public class CosemObjectFactory {
      * parsed correctly or no corresponding Cosem Object was found
      *
      * @param obisIdString String containing the OBIS message identifier
-     * @param cosemStringValues String containing Cosem values
+     * @param cosemStringValues List of the Cosem values
      * @return CosemObject or null if parsing failed
      */
-    public @Nullable CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
+    public @Nullable CosemObject getCosemObject(String obisIdString, List<String> cosemStringValues) {
+        ResolvedOBISIdentifier resolved = obisIdStringLookupTable.get(obisIdString);
         OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
-        OBISIdentifier reducedObisIdGroupE;
 
-        try {
-            obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
-            reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
-        } catch (final ParseException pe) {
-            logger.debug("Received invalid OBIS identifier: {}", obisIdString);
-            return null;
+        if (resolved == null) {
+            try {
+                obisId = new OBISIdentifier(obisIdString);
+            } catch (final ParseException pe) {
+                logger.debug("Received invalid OBIS identifier: {}", obisIdString);
+                return null;
+            }
+        } else {
+            obisId = resolved.obisId;
+            CosemObjectType resolvedCosemObjectType = resolved.cosemObjectType;
+
+            if (resolvedCosemObjectType != null) {
+                logger.trace("Found obisIdString {} in the OBIS id string lookup table", obisIdString);
+                return getCosemObjectInternal(resolvedCosemObjectType, obisId, cosemStringValues);
+            }
         }
+        OBISIdentifier reducedObisId = obisId.getReducedOBISIdentifier();
 
         logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
 
         CosemObject cosemObject = null;
-
-        if (obisLookupTableFixed.containsKey(reducedObisId)) {
-            cosemObject = getCosemObjectInternal(obisLookupTableFixed.get(reducedObisId), obisId, cosemStringValues);
+        CosemObjectType cosemObjectType = null;
+        CosemObjectType fixedCosemObjectType = obisLookupTableFixed.get(reducedObisId);
+        List<CosemObjectType> multipleFixedCosemObjectTypes = obisLookupTableMultipleFixed.get(reducedObisId);
+        CosemObjectType dynamicCosemObjectType = obisLookupTableDynamic.get(reducedObisId);
+
+        if (fixedCosemObjectType != null) {
+            cosemObjectType = fixedCosemObjectType;
+            cosemObject = getCosemObjectInternal(fixedCosemObjectType, obisId, cosemStringValues);
             logger.trace("Found obisId {} in the fixed lookup table", reducedObisId);
-        } else if (obisLookupTableMultipleFixed.containsKey(reducedObisId)) {
-            for (CosemObjectType cosemObjectType : obisLookupTableMultipleFixed.get(reducedObisId)) {
-                cosemObject = getCosemObjectInternal(cosemObjectType, obisId, cosemStringValues);
+        } else if (multipleFixedCosemObjectTypes != null) {
+            for (CosemObjectType multipleFixedCosemObjectType : multipleFixedCosemObjectTypes) {
+                cosemObject = getCosemObjectInternal(multipleFixedCosemObjectType, obisId, cosemStringValues);
                 if (cosemObject != null) {
                     logger.trace("Found obisId {} in the fixed lookup table", reducedObisId);
                     break;
                 }
             }
-        } else if (obisLookupTableDynamic.containsKey(reducedObisId)) {
+        } else if (dynamicCosemObjectType != null) {
             logger.trace("Found obisId {} in the dynamic lookup table", reducedObisId);
-            cosemObject = getCosemObjectInternal(obisLookupTableDynamic.get(reducedObisId), obisId, cosemStringValues);
-        } else if (obisLookupTableFixed.containsKey(reducedObisIdGroupE)) {
-            cosemObject = getCosemObjectInternal(obisLookupTableFixed.get(reducedObisIdGroupE), obisId,
-                    cosemStringValues);
+            cosemObjectType = dynamicCosemObjectType;
+            cosemObject = getCosemObjectInternal(dynamicCosemObjectType, obisId, cosemStringValues);
         } else {
-            for (CosemObjectType obisMsgType : obisWildcardCosemTypeList) {
-                if (obisMsgType.obisId.equalsWildCard(reducedObisId)) {
-                    cosemObject = getCosemObjectInternal(obisMsgType, obisId, cosemStringValues);
-                    if (cosemObject != null) {
-                        logger.trace("Searched reducedObisId {} in the wild card type list, result: {}", reducedObisId,
-                                cosemObject);
-                        obisLookupTableDynamic.put(reducedObisId, obisMsgType);
-                        break;
+            CosemObjectType groupECosemObjectType = obisLookupTableFixed.get(obisId.getReducedOBISIdentifierGroupE());
+
+            if (groupECosemObjectType != null) {
+                cosemObjectType = groupECosemObjectType;
+                cosemObject = getCosemObjectInternal(groupECosemObjectType, obisId, cosemStringValues);
+            } else {
+                for (CosemObjectType obisMsgType : obisWildcardCosemTypeList) {
+                    if (obisMsgType.obisId.equalsWildCard(reducedObisId)) {
+                        cosemObject = getCosemObjectInternal(obisMsgType, obisId, cosemStringValues);
+                        if (cosemObject != null) {
+                            logger.trace("Searched reducedObisId {} in the wild card type list, result: {}",
+                                    reducedObisId, cosemObject);
+                            obisLookupTableDynamic.put(reducedObisId, obisMsgType);
+                            break;
+                        }
                     }
                 }
             }
@@ -142,7 +173,9 @@ public class CosemObjectFactory {
         if (cosemObject == null) {
             logger.debug("Received unknown Cosem Object(OBIS id: {})", obisId);
         }
-
+        if (obisIdStringLookupTable.size() < MAX_OBIS_ID_STRING_LOOKUP_TABLE_SIZE) {
+            obisIdStringLookupTable.put(obisIdString, new ResolvedOBISIdentifier(obisId, cosemObjectType));
+        }
         return cosemObject;
     }
 
@@ -151,12 +184,12 @@ public class CosemObjectFactory {
      *
      * @param cosemObjectType the type of the CosemObject
      * @param obisIdentifier the actual OBISIdentifier how this cosemObjectType is identified
-     * @param cosemStringValues the values of the CosemObject
+     * @param cosemStringValues the List of values of the CosemObject
      *
      * @return a CosemObject or null if parsing failed
      */
     private @Nullable CosemObject getCosemObjectInternal(CosemObjectType cosemObjectType, OBISIdentifier obisIdentifier,
-            String cosemStringValues) {
+            List<String> cosemStringValues) {
         CosemObject obj = new CosemObject(cosemObjectType, obisIdentifier);
 
         try {
@@ -170,4 +203,17 @@ public class CosemObjectFactory {
         }
         return null;
     }
+
+    /**
+     * OBIS Identifier parsed from an OBIS Identifier string with the CosemObjectType it resolves to, if known.
+     */
+    private static class ResolvedOBISIdentifier {
+        private final OBISIdentifier obisId;
+        private final @Nullable CosemObjectType cosemObjectType;
+
+        public ResolvedOBISIdentifier(OBISIdentifier obisId, @Nullable CosemObjectType cosemObjectType) {
+            this.obisId = obisId;
+            this.cosemObjectType = cosemObjectType;
+        }
+    }
 }
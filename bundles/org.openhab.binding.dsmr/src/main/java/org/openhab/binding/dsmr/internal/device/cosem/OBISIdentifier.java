@@ -14,8 +14,6 @@ package org.openhab.binding.dsmr.internal.device.cosem;
 
 import java.text.ParseException;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -28,16 +26,6 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class OBISIdentifier {
-    /**
-     * String representing a-b:c.d.e.f OBIS ID
-     */
-    private static final String OBISID_REGEX = "((\\d+)\\-)?((\\d+):)?((\\d+)\\.)(\\d+)(\\.(\\d+))?(.(\\d+))?";
-
-    /**
-     * OBIS ID pattern
-     */
-    private static final Pattern OBIS_ID_PATTERN = Pattern.compile(OBISID_REGEX);
-
     /* the six individual group values of the OBIS ID */
     private int groupA;
     private @Nullable Integer groupB;
@@ -86,41 +74,92 @@ public class OBISIdentifier {
     }
 
     /**
-     * Creates a new {@link OBISIdentifier} of the specified String
+     * Creates a new {@link OBISIdentifier} of the specified String (A-B:C.D.E.F, where A, B, E and F are optional).
+     *
+     * The String is scanned directly instead of using a regular expression, because this constructor is called for
+     * every Cosem Object in every received telegram.
      *
      * @param obisIDString the OBIS String ID
      * @throws ParseException if obisIDString is not a valid OBIS Identifier
      */
     public OBISIdentifier(String obisIDString) throws ParseException {
-        Matcher m = OBIS_ID_PATTERN.matcher(obisIDString);
-
-        if (m.matches()) {
-            // Optional value A
-            if (m.group(2) != null) {
-                this.groupA = Integer.parseInt(m.group(2));
-            }
-
-            // Optional value B
-            if (m.group(4) != null) {
-                this.groupB = Integer.valueOf(m.group(4));
-            }
+        final int length = obisIDString.length();
+        int index = 0;
+        int end = scanDigits(obisIDString, index);
+        int value = parseGroup(obisIDString, index, end);
+
+        index = end;
+        // Optional value A
+        if (index < length && obisIDString.charAt(index) == '-') {
+            this.groupA = value;
+            end = scanDigits(obisIDString, ++index);
+            value = parseGroup(obisIDString, index, end);
+            index = end;
+        }
+        // Optional value B
+        if (index < length && obisIDString.charAt(index) == ':') {
+            this.groupB = value;
+            end = scanDigits(obisIDString, ++index);
+            value = parseGroup(obisIDString, index, end);
+            index = end;
+        }
+        // Required value C & D
+        this.groupC = value;
+        if (index >= length || obisIDString.charAt(index) != '.') {
+            throw new ParseException("Invalid OBIS identifier:" + obisIDString, index);
+        }
+        end = scanDigits(obisIDString, ++index);
+        this.groupD = parseGroup(obisIDString, index, end);
+        index = end;
+
+        // Optional value E
+        if (index < length && obisIDString.charAt(index) == '.' && scanDigits(obisIDString, index + 1) > index + 1) {
+            end = scanDigits(obisIDString, ++index);
+            this.groupE = parseGroup(obisIDString, index, end);
+            index = end;
+        }
+        // Optional value F, separated by any character (normally '*' or '.')
+        if (index < length && !isLineTerminator(obisIDString.charAt(index))) {
+            end = scanDigits(obisIDString, ++index);
+            this.groupF = parseGroup(obisIDString, index, end);
+            index = end;
+        }
+        if (index != length) {
+            throw new ParseException("Invalid OBIS identifier:" + obisIDString, index);
+        }
+    }
 
-            // Required value C & D
-            this.groupC = Integer.parseInt(m.group(6));
-            this.groupD = Integer.parseInt(m.group(7));
+    /**
+     * Returns the index of the first character from the start index that is not a digit.
+     */
+    private static int scanDigits(String obisIDString, int start) {
+        int index = start;
 
-            // Optional value E
-            if (m.group(9) != null) {
-                this.groupE = Integer.valueOf(m.group(9));
-            }
+        while (index < obisIDString.length() && obisIDString.charAt(index) >= '0'
+                && obisIDString.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
 
-            // Optional value F
-            if (m.group(11) != null) {
-                this.groupF = Integer.valueOf(m.group(11));
-            }
-        } else {
-            throw new ParseException("Invalid OBIS identifier:" + obisIDString, 0);
+    /**
+     * Parses the digits between start and end as group value.
+     *
+     * @throws ParseException if there are no digits or the value doesn't fit in an int
+     */
+    private static int parseGroup(String obisIDString, int start, int end) throws ParseException {
+        if (start == end) {
+            throw new ParseException("Invalid OBIS identifier:" + obisIDString, start);
         }
+        try {
+            return Integer.parseInt(obisIDString.substring(start, end));
+        } catch (NumberFormatException e) {
+            throw new ParseException("Invalid OBIS identifier:" + obisIDString, start);
+        }
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
     public boolean isConflict() {
@@ -62,7 +62,7 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * Pattern for the CRC-code
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final Pattern CRC_PATTERN = Pattern.compile("[0-9A-Z]{4}");
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -78,6 +78,16 @@ public class P1TelegramParser implements TelegramParser {
      */
     private final StringBuilder obisValue = new StringBuilder();
 
+    /**
+     * The individual values of the current cosem object, split while parsing.
+     */
+    private final List<String> obisValues = new ArrayList<>();
+
+    /**
+     * Start index in the obisValue buffer of the value currently parsed or -1 if no value is parsed.
+     */
+    private int obisValueStart = -1;
+
     /**
      * In lenient mode store raw data and log when a complete message is received.
      */
@@ -245,7 +255,7 @@ public class P1TelegramParser implements TelegramParser {
                         logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
                         // Only perform CRC check if telegram is still ok
                         if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
+                            if (CRC_PATTERN.matcher(crcValue).matches()) {
                                 int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
@@ -329,9 +339,16 @@ public class P1TelegramParser implements TelegramParser {
                 break;
             case DATA_OBIS_VALUE:
                 obisValue.append(c);
+                if (c == '(') {
+                    obisValueStart = obisValue.length();
+                }
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE_END:
+                if (c == ')' && obisValueStart >= 0) {
+                    obisValues.add(obisValue.substring(obisValueStart));
+                    obisValueStart = -1;
+                }
                 obisValue.append(c);
                 crc.processByte((byte) c);
                 break;
@@ -352,8 +369,7 @@ public class P1TelegramParser implements TelegramParser {
      * Clears all internal state
      */
     private void clearInternalData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        clearObisData();
         rawData.setLength(0);
         crcValue.setLength(0);
         crc.initialize();
@@ -369,6 +385,8 @@ public class P1TelegramParser implements TelegramParser {
     private void clearObisData() {
         obisId.setLength(0);
         obisValue.setLength(0);
+        obisValues.clear();
+        obisValueStart = -1;
     }
 
     /**
@@ -378,12 +396,11 @@ public class P1TelegramParser implements TelegramParser {
         String obisIdString = obisId.toString();
 
         if (!obisIdString.isEmpty()) {
-            final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
+            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValues);
 
             if (cosemObject == null) {
                 if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValueString));
+                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValue.toString()));
                 }
             } else {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
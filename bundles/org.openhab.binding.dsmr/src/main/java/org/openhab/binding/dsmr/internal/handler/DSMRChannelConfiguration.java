@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.handler;
+
+import java.math.BigDecimal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * This class describes the configuration of a meter channel.
+ *
+ * @author Hilbrand Bouwkamp - Initial contribution
+ */
+@NonNullByDefault
+public class DSMRChannelConfiguration {
+    /**
+     * Update policy: always, onchange, deadband or average.
+     */
+    public String updatePolicy = "always";
+
+    /**
+     * Minimum time in seconds between 2 state updates, or the window length when the update policy is average.
+     */
+    public int minInterval;
+
+    /**
+     * Minimal change of the value before a new state is updated when the update policy is deadband.
+     */
+    public @Nullable BigDecimal deadband;
+
+    @Override
+    public String toString() {
+        return "DSMRChannelConfiguration(updatePolicy:" + updatePolicy + ",minInterval=" + minInterval + ",deadband="
+                + deadband + ")";
+    }
+}
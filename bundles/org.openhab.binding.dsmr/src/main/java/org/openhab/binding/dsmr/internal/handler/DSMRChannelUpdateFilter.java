@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.handler;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.TimeUnit;
+
+import javax.measure.Quantity;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * Decides per channel if a new meter value should be passed on to the framework. Depending on the update policy
+ * unchanged values or values changing less than the deadband are suppressed, or values are averaged over a time
+ * window. Independent of the policy the minimal interval between 2 updates is respected.
+ *
+ * @author Hilbrand Bouwkamp - Initial contribution
+ */
+@NonNullByDefault
+class DSMRChannelUpdateFilter {
+
+    /**
+     * Supported update policies.
+     */
+    enum UpdatePolicy {
+        /** Every received value is updated */
+        ALWAYS,
+        /** Only changed values are updated */
+        ONCHANGE,
+        /** Only values that differ more than the deadband from the last updated value are updated */
+        DEADBAND,
+        /** The average of the values received within the minimal interval is updated */
+        AVERAGE
+    }
+
+    private final UpdatePolicy updatePolicy;
+    private final long minIntervalMillis;
+    private final BigDecimal deadband;
+
+    private @Nullable State lastState;
+    private long lastUpdateMillis;
+
+    private BigDecimal averageSum = BigDecimal.ZERO;
+    private int averageCount;
+    private long averageStartMillis;
+
+    /**
+     * Creates a new filter for the given channel configuration.
+     *
+     * @param configuration the channel configuration
+     */
+    DSMRChannelUpdateFilter(DSMRChannelConfiguration configuration) {
+        UpdatePolicy policy;
+
+        try {
+            policy = UpdatePolicy.valueOf(configuration.updatePolicy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            policy = UpdatePolicy.ALWAYS;
+        }
+        BigDecimal configDeadband = configuration.deadband;
+
+        updatePolicy = policy;
+        minIntervalMillis = TimeUnit.SECONDS.toMillis(Math.max(0, configuration.minInterval));
+        deadband = configDeadband == null ? BigDecimal.ZERO : configDeadband.abs();
+    }
+
+    /**
+     * Returns the state to update given the newly received state, or null if no update should be done.
+     *
+     * @param newState the received state
+     * @param nowMillis the current time in milliseconds
+     * @return the state to update or null if the state should not be updated
+     */
+    @Nullable
+    State filter(State newState, long nowMillis) {
+        final State localLastState = lastState;
+        final BigDecimal newValue = toBigDecimal(newState);
+
+        if (updatePolicy == UpdatePolicy.AVERAGE && newValue != null) {
+            return average(newState, newValue, nowMillis);
+        }
+        if (localLastState != null) {
+            if (updatePolicy == UpdatePolicy.ONCHANGE && newState.equals(localLastState)) {
+                return null;
+            }
+            if (updatePolicy == UpdatePolicy.DEADBAND && !exceedsDeadband(localLastState, newState, newValue)) {
+                return null;
+            }
+            if (nowMillis - lastUpdateMillis < minIntervalMillis) {
+                return null;
+            }
+        }
+        lastState = newState;
+        lastUpdateMillis = nowMillis;
+        return newState;
+    }
+
+    private boolean exceedsDeadband(State localLastState, State newState, @Nullable BigDecimal newValue) {
+        final BigDecimal lastValue = toBigDecimal(localLastState);
+
+        if (newValue == null || lastValue == null) {
+            return !newState.equals(localLastState);
+        }
+        return newValue.subtract(lastValue).abs().compareTo(deadband) >= 0;
+    }
+
+    private @Nullable State average(State newState, BigDecimal newValue, long nowMillis) {
+        if (averageCount == 0) {
+            averageStartMillis = nowMillis;
+        }
+        averageSum = averageSum.add(newValue);
+        averageCount++;
+        if (nowMillis - averageStartMillis < minIntervalMillis) {
+            return null;
+        }
+        final BigDecimal average = averageSum.divide(BigDecimal.valueOf(averageCount), MathContext.DECIMAL64);
+
+        averageSum = BigDecimal.ZERO;
+        averageCount = 0;
+        final State averageState = newState instanceof QuantityType ? toQuantity((QuantityType<?>) newState, average)
+                : new DecimalType(average);
+
+        lastState = averageState;
+        lastUpdateMillis = nowMillis;
+        return averageState;
+    }
+
+    private static <Q extends Quantity<Q>> QuantityType<Q> toQuantity(QuantityType<Q> template, BigDecimal value) {
+        return new QuantityType<>(value, template.getUnit());
+    }
+
+    private static @Nullable BigDecimal toBigDecimal(State state) {
+        if (state instanceof QuantityType) {
+            return ((QuantityType<?>) state).toBigDecimal();
+        } else if (state instanceof DecimalType) {
+            return ((DecimalType) state).toBigDecimal();
+        } else {
+            return null;
+        }
+    }
+}
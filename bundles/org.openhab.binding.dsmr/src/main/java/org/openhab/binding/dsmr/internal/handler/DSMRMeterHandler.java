@@ -14,12 +14,15 @@ package org.openhab.binding.dsmr.internal.handler;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
@@ -61,6 +64,16 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
      */
     private List<CosemObject> lastReceivedValues = Collections.emptyList();
 
+    /**
+     * Update filters per channel id, created from the channel configuration when the channel is first updated.
+     */
+    private final Map<String, DSMRChannelUpdateFilter> updateFilters = new ConcurrentHashMap<>();
+
+    /**
+     * Last received state per channel id, before the update filter is applied. Used to answer REFRESH commands.
+     */
+    private final Map<String, State> lastReceivedStates = new ConcurrentHashMap<>();
+
     /**
      * Reference to the meter watchdog.
      */
@@ -76,12 +89,18 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     }
 
     /**
-     * DSMR Meter don't support handling commands
+     * DSMR Meter don't support handling commands. A REFRESH updates the channel with the last received value,
+     * bypassing the update filter of the channel.
      */
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command == RefreshType.REFRESH) {
             updateState();
+            final State lastState = lastReceivedStates.get(channelUID.getId());
+
+            if (lastState != null) {
+                updateState(channelUID, lastState);
+            }
         }
     }
 
@@ -108,6 +127,8 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
         DSMRMeterConfiguration meterConfig = getConfigAs(DSMRMeterConfiguration.class);
         DSMRMeterDescriptor meterDescriptor = new DSMRMeterDescriptor(meterType, meterConfig.channel);
         meter = new DSMRMeter(meterDescriptor);
+        updateFilters.clear();
+        lastReceivedStates.clear();
         meterWatchdog = scheduler.scheduleWithFixedDelay(this::updateState, meterConfig.refresh, meterConfig.refresh,
                 TimeUnit.SECONDS);
         updateStatus(ThingStatus.UNKNOWN);
@@ -137,9 +158,16 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
                         /* CosemObject has a specific sub channel */
                         channel += "_" + entry.getKey();
                     }
-                    State newState = entry.getValue();
-                    logger.debug("Updating state for channel {} to value {}", channel, newState);
-                    updateState(channel, newState);
+                    lastReceivedStates.put(channel, entry.getValue());
+                    State newState = getUpdateFilter(channel).filter(entry.getValue(), System.currentTimeMillis());
+
+                    if (newState == null) {
+                        logger.trace("Update policy suppressed state for channel {} with value {}", channel,
+                                entry.getValue());
+                    } else {
+                        logger.debug("Updating state for channel {} to value {}", channel, newState);
+                        updateState(channel, newState);
+                    }
                 }
             }
             if (getThing().getStatus() != ThingStatus.ONLINE) {
@@ -149,6 +177,21 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
         }
     }
 
+    /**
+     * Returns the update filter for the given channel.
+     *
+     * @param channelId the id of the channel
+     * @return the update filter for the channel
+     */
+    private DSMRChannelUpdateFilter getUpdateFilter(String channelId) {
+        return updateFilters.computeIfAbsent(channelId, id -> {
+            final Channel channel = getThing().getChannel(id);
+
+            return new DSMRChannelUpdateFilter(channel == null ? new DSMRChannelConfiguration()
+                    : channel.getConfiguration().as(DSMRChannelConfiguration.class));
+        });
+    }
+
     /**
      * Callback for received meter values. When this method is called but the telegram has no values for this meter this
      * meter is set to offline because something is wrong, possible the meter has been removed.
@@ -206,6 +249,8 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
      */
     private void setDeviceOffline(ThingStatusDetail status, @Nullable String details) {
         updateStatus(ThingStatus.OFFLINE, status, details);
+        updateFilters.clear();
+        lastReceivedStates.clear();
         getThing().getChannels().forEach(c -> updateState(c.getUID(), UnDefType.NULL));
     }
 }
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.cosem;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link OBISIdentifier}.
+ *
+ * @author Hilbrand Bouwkamp - Initial contribution
+ */
+public class OBISIdentifierTest {
+
+    @Test
+    public void testFullIdentifier() throws ParseException {
+        assertEquals(new OBISIdentifier(1, 0, 1, 8, 1, null), new OBISIdentifier("1-0:1.8.1"));
+        assertEquals(new OBISIdentifier(1, 0, 32, 7, 0, 255), new OBISIdentifier("1-0:32.7.0*255"));
+        assertEquals(new OBISIdentifier(0, 1, 24, 2, 1, 5), new OBISIdentifier("0-1:24.2.1.5"));
+    }
+
+    @Test
+    public void testOptionalGroups() throws ParseException {
+        assertEquals(new OBISIdentifier(0, null, 1, 8, 1, null), new OBISIdentifier("1.8.1"));
+        assertEquals(new OBISIdentifier(0, 3, 1, 8, null, null), new OBISIdentifier("3:1.8"));
+        assertEquals(new OBISIdentifier(1, null, 96, 1, null, null), new OBISIdentifier("1-96.1"));
+        assertEquals(new OBISIdentifier(0, null, 96, 1, null, 2), new OBISIdentifier("96.1*2"));
+    }
+
+    @Test
+    public void testInvalidIdentifiers() {
+        for (String invalid : new String[] { "", "1", "1-0:1", "1-0:1.", "1-0:1.8.", "1-0:1.8.1*", "1-0:1.8.1.2.3",
+                "a-0:1.8.1", "1-0:1.8.1 ", "1-0:1.8.99999999999" }) {
+            try {
+                new OBISIdentifier(invalid);
+                fail("Expected ParseException for '" + invalid + "'");
+            } catch (ParseException e) {
+                // expected
+            }
+        }
+    }
+}
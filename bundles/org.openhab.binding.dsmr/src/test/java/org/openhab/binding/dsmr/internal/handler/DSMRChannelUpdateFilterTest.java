@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.junit.Test;
+
+/**
+ * Test class for {@link DSMRChannelUpdateFilter}.
+ *
+ * @author Hilbrand Bouwkamp - Initial contribution
+ */
+public class DSMRChannelUpdateFilterTest {
+
+    @Test
+    public void testAlways() {
+        DSMRChannelUpdateFilter filter = createFilter("always", 0, null);
+
+        assertEquals(new DecimalType(1), filter.filter(new DecimalType(1), 0));
+        assertEquals(new DecimalType(1), filter.filter(new DecimalType(1), 1000));
+    }
+
+    @Test
+    public void testOnChange() {
+        DSMRChannelUpdateFilter filter = createFilter("onchange", 0, null);
+
+        assertEquals(new StringType("a"), filter.filter(new StringType("a"), 0));
+        assertNull(filter.filter(new StringType("a"), 1000));
+        assertEquals(new StringType("b"), filter.filter(new StringType("b"), 2000));
+    }
+
+    @Test
+    public void testDeadband() {
+        DSMRChannelUpdateFilter filter = createFilter("deadband", 0, new BigDecimal("0.5"));
+
+        assertEquals(new DecimalType(10), filter.filter(new DecimalType(10), 0));
+        assertNull(filter.filter(new DecimalType(10.3), 1000));
+        assertNull(filter.filter(new DecimalType(9.6), 2000));
+        assertEquals(new DecimalType(10.5), filter.filter(new DecimalType(10.5), 3000));
+    }
+
+    @Test
+    public void testMinInterval() {
+        DSMRChannelUpdateFilter filter = createFilter("always", 10, null);
+
+        assertNotNull(filter.filter(new DecimalType(1), 0));
+        assertNull(filter.filter(new DecimalType(2), 5000));
+        assertEquals(new DecimalType(3), filter.filter(new DecimalType(3), 10000));
+    }
+
+    @Test
+    public void testAverage() {
+        DSMRChannelUpdateFilter filter = createFilter("average", 10, null);
+
+        assertNull(filter.filter(new DecimalType(1), 0));
+        assertNull(filter.filter(new DecimalType(2), 5000));
+        assertEquals(0, BigDecimal.valueOf(2)
+                .compareTo(((DecimalType) filter.filter(new DecimalType(3), 10000)).toBigDecimal()));
+        assertNull(filter.filter(new DecimalType(6), 11000));
+    }
+
+    private DSMRChannelUpdateFilter createFilter(String updatePolicy, int minInterval, BigDecimal deadband) {
+        DSMRChannelConfiguration configuration = new DSMRChannelConfiguration();
+
+        configuration.updatePolicy = updatePolicy;
+        configuration.minInterval = minInterval;
+        configuration.deadband = deadband;
+        return new DSMRChannelUpdateFilter(configuration);
+    }
+}
@@ -14,7 +14,16 @@ package org.openhab.binding.enocean.internal.eep;
 
 import static org.openhab.binding.enocean.internal.messages.ESP3Packet.*;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.eclipse.smarthome.core.util.HexUtils;
 import org.openhab.binding.enocean.internal.eep.Base.UTEResponse;
@@ -39,27 +48,69 @@ public class EEPFactory {
 
     private static final Logger logger = LoggerFactory.getLogger(EEPFactory.class);
 
-    public static EEP createEEP(EEPType eepType) {
-        try {
+    // Factories are created once for every EEP type, as buildEEP is called for every received telegram
+    private static final Map<EEPType, Supplier<EEP>> eepFactories = new EnumMap<>(EEPType.class);
+    private static final Map<EEPType, Function<ERP1Message, EEP>> eepMessageFactories = new EnumMap<>(
+            EEPType.class);
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (EEPType eepType : EEPType.values()) {
             Class<? extends EEP> cl = eepType.getEEPClass();
-            if (cl == null) {
-                throw new IllegalArgumentException("Message " + eepType + " not implemented");
+            if (cl == null || Modifier.isAbstract(cl.getModifiers())) {
+                continue;
+            }
+
+            Supplier<EEP> factory = createFactory(lookup, cl, Supplier.class, "get");
+            if (factory != null) {
+                eepFactories.put(eepType, factory);
+            }
+            Function<ERP1Message, EEP> messageFactory = createFactory(lookup, cl, Function.class, "apply",
+                    ERP1Message.class);
+            if (messageFactory != null) {
+                eepMessageFactories.put(eepType, messageFactory);
             }
-            return cl.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new IllegalArgumentException(e);
         }
     }
 
+    /**
+     * Binds a constructor of an EEP class to a functional interface, so that no reflection is involved when an EEP
+     * is instantiated.
+     *
+     * @return the factory or null if the class has no public constructor with the given parameter types
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T createFactory(MethodHandles.Lookup lookup, Class<? extends EEP> cl, Class<?> factoryType,
+            String factoryMethod, Class<?>... parameterTypes) {
+        try {
+            MethodHandle constructor = lookup.findConstructor(cl, MethodType.methodType(void.class, parameterTypes));
+            CallSite site = LambdaMetafactory.metafactory(lookup, factoryMethod, MethodType.methodType(factoryType),
+                    constructor.type().erase(), constructor, constructor.type());
+            return (T) site.getTarget().invoke();
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (Throwable e) {
+            logger.warn("Cannot create factory for EEP class {}: {}", cl.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    public static EEP createEEP(EEPType eepType) {
+        Supplier<EEP> factory = eepFactories.get(eepType);
+        if (factory == null) {
+            throw new IllegalArgumentException("Message " + eepType + " not implemented");
+        }
+        return factory.get();
+    }
+
     public static EEP buildEEP(EEPType eepType, ERP1Message packet) {
+        Function<ERP1Message, EEP> factory = eepMessageFactories.get(eepType);
         try {
-            Class<? extends EEP> cl = eepType.getEEPClass();
-            if (cl == null) {
+            if (factory == null) {
                 throw new IllegalArgumentException("Message " + eepType + " not implemented");
             }
-            return cl.getConstructor(ERP1Message.class).newInstance(packet);
-        } catch (IllegalAccessException | InstantiationException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException e) {
+            return factory.apply(packet);
+        } catch (RuntimeException e) {
             logger.error("Cannot instantiate EEP {}-{}-{}: {}",
                     HexUtils.bytesToHex(new byte[] { eepType.getRORG().getValue() }),
                     HexUtils.bytesToHex(new byte[] { (byte) eepType.getFunc() }),
@@ -15,11 +15,12 @@ package org.openhab.binding.enocean.internal.transceiver;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.TooManyListenersException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -49,6 +50,7 @@ import org.slf4j.LoggerFactory;
 public abstract class EnOceanTransceiver implements SerialPortEventListener {
 
     public static final int ENOCEAN_MAX_DATA = 65790;
+    private static final int READ_BUFFER_SIZE = 4096;
 
     // Thread management
     protected Future<?> readingTask = null;
@@ -137,7 +139,8 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
     RequestQueue requestQueue;
     Request currentRequest = null;
 
-    protected Map<Long, HashSet<PacketListener>> listeners;
+    // Listeners by the 32 bit sender id they listen to
+    protected Map<Integer, Set<PacketListener>> listeners;
     protected PacketListener teachInListener;
 
     protected InputStream inputStream;
@@ -150,7 +153,7 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
             SerialPortManager serialPortManager) {
         requestQueue = new RequestQueue(scheduler);
 
-        listeners = new HashMap<>();
+        listeners = new ConcurrentHashMap<>();
         teachInListener = null;
 
         this.errorListener = errorListener;
@@ -245,18 +248,28 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
         logger.info("Transceiver shutdown");
     }
 
+    /**
+     * Reads all bytes that are available (up to the size of the reusable read buffer) at once and passes them to the
+     * packet framing of the ESP version.
+     */
     private void receivePackets() {
-        byte[] buffer = new byte[1];
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
 
         while (readingTask != null && !readingTask.isCancelled()) {
-            int bytesRead = read(buffer, 1);
+            int bytesRead = read(buffer, buffer.length);
             if (bytesRead > 0) {
-                processMessage(buffer[0]);
+                processMessage(buffer, bytesRead);
             }
         }
     }
 
-    protected abstract void processMessage(byte firstByte);
+    /**
+     * Frames packets out of the received bytes. Incomplete packets are kept until the next call.
+     *
+     * @param buffer received bytes, only valid during this call
+     * @param length number of received bytes in the buffer
+     */
+    protected abstract void processMessage(byte[] buffer, int length);
 
     protected int read(byte[] buffer, int length) {
         try {
@@ -291,8 +304,12 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
                     }
                 }
 
-                long s = Long.parseLong(HexUtils.bytesToHex(senderId), 16);
-                HashSet<PacketListener> pl = listeners.get(s);
+                if (senderId.length != 4) {
+                    return;
+                }
+                int s = ((senderId[0] & 0xFF) << 24) | ((senderId[1] & 0xFF) << 16) | ((senderId[2] & 0xFF) << 8)
+                        | (senderId[3] & 0xFF);
+                Set<PacketListener> pl = listeners.get(s);
                 if (pl != null) {
                     pl.forEach(l -> l.packetReceived(msg));
                 }
@@ -339,19 +356,16 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
     protected abstract byte[] serializePacket(BasePacket packet) throws EnOceanException;
 
     public void addPacketListener(PacketListener listener, long senderIdToListenTo) {
-        if (listeners.computeIfAbsent(senderIdToListenTo, k -> new HashSet<>()).add(listener)) {
+        if (listeners.computeIfAbsent((int) senderIdToListenTo, k -> new CopyOnWriteArraySet<>()).add(listener)) {
             logger.debug("Listener added: {}", senderIdToListenTo);
         }
     }
 
     public void removePacketListener(PacketListener listener, long senderIdToListenTo) {
-        HashSet<PacketListener> pl = listeners.get(senderIdToListenTo);
-        if (pl != null) {
+        listeners.computeIfPresent((int) senderIdToListenTo, (k, pl) -> {
             pl.remove(listener);
-            if (pl.isEmpty()) {
-                listeners.remove(senderIdToListenTo);
-            }
-        }
+            return pl.isEmpty() ? null : pl;
+        });
     }
 
     public void startDiscovery(PacketListener teachInListener) {
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.enocean.internal.eep;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.openhab.binding.enocean.internal.eep.A5_02.A5_02_01;
+import org.openhab.binding.enocean.internal.eep.F6_02.F6_02_01;
+import org.openhab.binding.enocean.internal.messages.ERP1Message;
+import org.openhab.binding.enocean.internal.messages.ERP1Message.RORG;
+
+/**
+ * Checks that the factories prebuilt by {@link EEPFactory} create the EEP classes listed by {@link EEPType}.
+ *
+ * @author Daniel Weber - Initial contribution
+ */
+public class EEPFactoryTest {
+
+    private static final byte[] SENDER_ID = { (byte) 0x05, (byte) 0x12, (byte) 0xAB, (byte) 0xCD };
+    private static final byte STATUS = 0x30;
+
+    @Test
+    public void testCreateEEPForEverySendingType() {
+        for (EEPType eepType : EEPType.values()) {
+            Class<? extends EEP> cl = eepType.getEEPClass();
+            if (cl == null || !hasConstructor(cl)) {
+                continue;
+            }
+
+            assertEquals(eepType.toString(), cl, EEPFactory.createEEP(eepType).getClass());
+        }
+    }
+
+    @Test
+    public void testBuildEEPFromRPSMessage() {
+        ERP1Message msg = new ERP1Message(7, 0, concat(new byte[] { RORG.RPS.getValue(), 0x30 }, SENDER_ID));
+
+        EEP eep = EEPFactory.buildEEP(EEPType.RockerSwitch2RockerStyle1, msg);
+
+        assertTrue(eep instanceof F6_02_01);
+        assertArrayEquals(SENDER_ID, eep.getSenderId());
+    }
+
+    @Test
+    public void testBuildEEPFrom4BSMessage() {
+        ERP1Message msg = new ERP1Message(10, 0,
+                concat(new byte[] { RORG._4BS.getValue(), 0x00, 0x00, (byte) 0x80, 0x08 }, SENDER_ID));
+
+        EEP eep = EEPFactory.buildEEP(EEPType.TemperatureSensor_A5_02_01, msg);
+
+        assertTrue(eep instanceof A5_02_01);
+        assertArrayEquals(SENDER_ID, eep.getSenderId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildEEPForUnimplementedType() {
+        ERP1Message msg = new ERP1Message(7, 0, concat(new byte[] { RORG.RPS.getValue(), 0x30 }, SENDER_ID));
+
+        EEPFactory.buildEEP(EEPType.Undef, msg);
+    }
+
+    private static boolean hasConstructor(Class<? extends EEP> cl, Class<?>... parameterTypes) {
+        try {
+            cl.getConstructor(parameterTypes);
+            return !Modifier.isAbstract(cl.getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static byte[] concat(byte[] data, byte[] senderId) {
+        byte[] result = Arrays.copyOf(data, data.length + senderId.length + 1);
+        System.arraycopy(senderId, 0, result, data.length, senderId.length);
+        result[result.length - 1] = STATUS;
+        return result;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.enocean.internal.transceiver;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.io.transport.serial.SerialPortManager;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.binding.enocean.internal.EnOceanException;
+import org.openhab.binding.enocean.internal.messages.BasePacket;
+import org.openhab.binding.enocean.internal.messages.ERP1Message;
+import org.openhab.binding.enocean.internal.messages.ERP1Message.RORG;
+import org.openhab.binding.enocean.internal.messages.ESP2Packet;
+import org.openhab.binding.enocean.internal.messages.ESP3Packet;
+
+/**
+ * Replays ESP2 and ESP3 byte streams split at every possible offset through the packet framing of the transceivers
+ * and checks the packets that reach the listeners.
+ *
+ * @author Daniel Weber - Initial contribution
+ */
+public class EnOceanTransceiverTest {
+
+    private static final long SENDER_A = 0x0512ABCDL;
+    // above 0x7FFFFFFF, i.e. negative as int key
+    private static final long SENDER_B = 0xFFA1B2C3L;
+    private static final byte[] ID_A = { (byte) 0x05, (byte) 0x12, (byte) 0xAB, (byte) 0xCD };
+    private static final byte[] ID_B = { (byte) 0xFF, (byte) 0xA1, (byte) 0xB2, (byte) 0xC3 };
+
+    private static final byte DATA_A = 0x30;
+    private static final byte DATA_B = 0x70;
+    private static final byte STATUS = 0x30;
+
+    // data after the valid length of a chunk, which must not be framed
+    private static final byte TRAILING_GARBAGE = ESP3Packet.ESP3_SYNC_BYTE;
+
+    @Test
+    public void testESP3StreamSplitAtEveryOffset() throws EnOceanException {
+        byte[] stream = concat(new byte[] { 0x00, 0x12 }, esp3Rps(ID_A, DATA_A), esp3Rps(ID_B, DATA_B));
+
+        for (int split = 0; split <= stream.length; split++) {
+            replay(createESP3Transceiver(), stream, split);
+        }
+    }
+
+    @Test
+    public void testESP2StreamSplitAtEveryOffset() {
+        byte[] stream = concat(new byte[] { 0x00, 0x12 }, esp2Rps(ID_A, DATA_A), esp2Rps(ID_B, DATA_B));
+
+        for (int split = 0; split <= stream.length; split++) {
+            replay(createESP2Transceiver(), stream, split);
+        }
+    }
+
+    @Test
+    public void testESP3StreamByteByByte() throws EnOceanException {
+        byte[] stream = concat(esp3Rps(ID_A, DATA_A), esp3Rps(ID_B, DATA_B));
+        EnOceanTransceiver transceiver = createESP3Transceiver();
+        PacketListener listenerA = addListener(transceiver, SENDER_A);
+        PacketListener listenerB = addListener(transceiver, SENDER_B);
+
+        for (byte b : stream) {
+            transceiver.processMessage(new byte[] { b, TRAILING_GARBAGE }, 1);
+        }
+
+        assertReceived(listenerA, ID_A, DATA_A, "byte by byte");
+        assertReceived(listenerB, ID_B, DATA_B, "byte by byte");
+    }
+
+    @Test
+    public void testRemovedListenerIsNotInformed() throws EnOceanException {
+        byte[] stream = esp3Rps(ID_B, DATA_B);
+        EnOceanTransceiver transceiver = createESP3Transceiver();
+        PacketListener listener = addListener(transceiver, SENDER_B);
+        transceiver.removePacketListener(listener, SENDER_B);
+
+        transceiver.processMessage(stream, stream.length);
+
+        verify(listener, never()).packetReceived(any());
+    }
+
+    private void replay(EnOceanTransceiver transceiver, byte[] stream, int split) {
+        PacketListener listenerA = addListener(transceiver, SENDER_A);
+        PacketListener listenerB = addListener(transceiver, SENDER_B);
+
+        // chunks are passed in a larger buffer, only the given length must be used
+        byte[] buffer = new byte[stream.length + 8];
+        Arrays.fill(buffer, TRAILING_GARBAGE);
+        System.arraycopy(stream, 0, buffer, 0, split);
+        transceiver.processMessage(buffer, split);
+        Arrays.fill(buffer, TRAILING_GARBAGE);
+        System.arraycopy(stream, split, buffer, 0, stream.length - split);
+        transceiver.processMessage(buffer, stream.length - split);
+
+        String message = "split at " + split;
+        assertReceived(listenerA, ID_A, DATA_A, message);
+        assertReceived(listenerB, ID_B, DATA_B, message);
+    }
+
+    private void assertReceived(PacketListener listener, byte[] senderId, byte data, String message) {
+        ArgumentCaptor<BasePacket> packet = ArgumentCaptor.forClass(BasePacket.class);
+        verify(listener, times(1).description(message)).packetReceived(packet.capture());
+
+        ERP1Message msg = (ERP1Message) packet.getValue();
+        assertEquals(message, RORG.RPS, msg.getRORG());
+        assertArrayEquals(message, senderId, msg.getSenderId());
+        assertEquals(message, data, msg.getPayload()[1]);
+        assertFalse(message, msg.getIsTeachIn());
+    }
+
+    private PacketListener addListener(EnOceanTransceiver transceiver, long senderId) {
+        PacketListener listener = mock(PacketListener.class);
+        when(listener.getSenderIdToListenTo()).thenReturn(senderId);
+        transceiver.addPacketListener(listener, senderId);
+        return listener;
+    }
+
+    private EnOceanTransceiver createESP3Transceiver() {
+        return startReceiving(new EnOceanESP3Transceiver("/dev/null", mock(TransceiverErrorListener.class),
+                mock(ScheduledExecutorService.class), mock(SerialPortManager.class)));
+    }
+
+    private EnOceanTransceiver createESP2Transceiver() {
+        return startReceiving(new EnOceanESP2Transceiver("/dev/null", mock(TransceiverErrorListener.class),
+                mock(ScheduledExecutorService.class), mock(SerialPortManager.class)));
+    }
+
+    private EnOceanTransceiver startReceiving(EnOceanTransceiver transceiver) {
+        // the framing only runs while the reading task is active
+        transceiver.readingTask = mock(Future.class);
+        return transceiver;
+    }
+
+    private static byte[] esp3Rps(byte[] senderId, byte data) throws EnOceanException {
+        byte[] payload = concat(new byte[] { RORG.RPS.getValue(), data }, senderId, new byte[] { STATUS },
+                // optional data: subtelegram number, destination id, dBm, security level
+                new byte[] { 0x01, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x40, 0x00 });
+        return new ESP3Packet(new ERP1Message(7, 7, payload)).serialize();
+    }
+
+    private static byte[] esp2Rps(byte[] senderId, byte data) {
+        // header: receive radio telegram (0) with 11 bytes following
+        byte[] telegram = concat(new byte[] { 0x0B, 0x05, data, 0x00, 0x00, 0x00 }, senderId, new byte[] { STATUS });
+        int checkSum = 0;
+        for (byte b : telegram) {
+            checkSum += b & 0xFF;
+        }
+        return concat(new byte[] { ESP2Packet.ENOCEAN_ESP2_FIRSTSYNC_BYTE, ESP2Packet.ENOCEAN_ESP2_SECONDSYNC_BYTE },
+                telegram, new byte[] { (byte) checkSum });
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+}
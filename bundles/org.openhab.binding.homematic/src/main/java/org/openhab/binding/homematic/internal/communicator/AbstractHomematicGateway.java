@@ -20,11 +20,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -70,6 +72,7 @@ import org.openhab.binding.homematic.internal.misc.MiscUtils;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
 import org.openhab.binding.homematic.internal.model.HmDatapointConfig;
+import org.openhab.binding.homematic.internal.model.HmDatapointEvent;
 import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
 import org.openhab.binding.homematic.internal.model.HmDevice;
 import org.openhab.binding.homematic.internal.model.HmGatewayInfo;
@@ -100,10 +103,10 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final HomematicGatewayAdapter gatewayAdapter;
     private final DelayedExecuter sendDelayedExecutor = new DelayedExecuter();
     private final DelayedExecuter receiveDelayedExecutor = new DelayedExecuter();
-    private final Set<HmDatapointInfo> echoEvents = Collections.synchronizedSet(new HashSet<>());
+    private final Set<HmDatapointInfo> echoEvents = ConcurrentHashMap.newKeySet();
     private ScheduledFuture<?> connectionTrackerFuture;
     private ConnectionTrackerThread connectionTrackerThread;
-    private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<>());
+    private final Map<String, HmDevice> devices = new ConcurrentHashMap<>();
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<>();
     private boolean cancelLoadAllMetadata;
@@ -710,25 +713,50 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     }
 
     private void handleVirtualDatapointEvent(HmDatapoint dp, boolean publishToGateway) {
+        List<HmDatapoint> virtualDatapoints = new ArrayList<>();
+        handleVirtualDatapointEvent(dp, virtualDatapoints);
+        if (publishToGateway) {
+            for (HmDatapoint virtualDatapoint : virtualDatapoints) {
+                gatewayAdapter.onStateUpdated(virtualDatapoint);
+            }
+        }
+    }
+
+    /**
+     * Handles the event for all virtual datapoints and collects the updated virtual datapoints.
+     */
+    private void handleVirtualDatapointEvent(HmDatapoint dp, List<HmDatapoint> updatedDatapoints) {
         for (VirtualDatapointHandler vdph : virtualDatapointHandlers) {
             if (vdph.canHandleEvent(dp)) {
                 vdph.handleEvent(this, dp);
-                if (publishToGateway) {
-                    gatewayAdapter.onStateUpdated(vdph.getVirtualDatapoint(dp.getChannel()));
-                }
+                updatedDatapoints.add(vdph.getVirtualDatapoint(dp.getChannel()));
             }
         }
     }
 
     @Override
     public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
-        String className = newValue == null ? "Unknown" : newValue.getClass().getSimpleName();
-        logger.debug("Received new ({}) value '{}' for '{}' from gateway with id '{}'", className, newValue, dpInfo,
-                id);
+        eventsReceived(Collections.singletonList(new HmDatapointEvent(dpInfo, newValue)));
+    }
 
-        if (echoEvents.remove(dpInfo)) {
-            logger.debug("Echo event detected, ignoring '{}'", dpInfo);
-        } else {
+    @Override
+    public void eventsReceived(List<HmDatapointEvent> events) {
+        if (events.size() > 1) {
+            logger.debug("Received {} events within one call from gateway with id '{}'", events.size(), id);
+        }
+
+        Map<HmDevice, List<HmDatapoint>> updatedDatapoints = new LinkedHashMap<>();
+        for (HmDatapointEvent event : events) {
+            final HmDatapointInfo dpInfo = event.getDpInfo();
+            final Object newValue = event.getValue();
+            String className = newValue == null ? "Unknown" : newValue.getClass().getSimpleName();
+            logger.debug("Received new ({}) value '{}' for '{}' from gateway with id '{}'", className, newValue, dpInfo,
+                    id);
+
+            if (echoEvents.remove(dpInfo)) {
+                logger.debug("Echo event detected, ignoring '{}'", dpInfo);
+                continue;
+            }
             try {
                 if (connectionTrackerThread != null && dpInfo.isPong() && id.equals(newValue)) {
                     connectionTrackerThread.pongReceived();
@@ -736,20 +764,38 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                 if (initialized) {
                     final HmDatapoint dp = getDatapoint(dpInfo);
                     HmDatapointConfig config = gatewayAdapter.getDatapointConfig(dp);
-                    receiveDelayedExecutor.start(dpInfo, config.getReceiveDelay(), () -> {
-                        dp.setValue(newValue);
-
-                        gatewayAdapter.onStateUpdated(dp);
-                        handleVirtualDatapointEvent(dp, true);
-                        if (dp.isPressDatapoint() && MiscUtils.isTrueValue(dp.getValue())) {
-                            disableDatapoint(dp, DEFAULT_DISABLE_DELAY);
-                        }
-                    });
+                    if (config.getReceiveDelay() > 0.0) {
+                        receiveDelayedExecutor.start(dpInfo, config.getReceiveDelay(), () -> {
+                            List<HmDatapoint> delayedDatapoints = new ArrayList<>();
+                            applyEvent(dp, newValue, delayedDatapoints);
+                            gatewayAdapter.onStatesUpdated(dp.getChannel().getDevice(), delayedDatapoints);
+                        });
+                    } else {
+                        applyEvent(dp, newValue, updatedDatapoints
+                                .computeIfAbsent(dp.getChannel().getDevice(), device -> new ArrayList<>()));
+                    }
                 }
             } catch (HomematicClientException | IOException ex) {
                 // ignore
             }
         }
+
+        for (Entry<HmDevice, List<HmDatapoint>> entry : updatedDatapoints.entrySet()) {
+            gatewayAdapter.onStatesUpdated(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Applies the received value to the datapoint and collects the datapoint and all affected virtual datapoints.
+     */
+    private void applyEvent(HmDatapoint dp, Object newValue, List<HmDatapoint> updatedDatapoints) {
+        dp.setValue(newValue);
+
+        updatedDatapoints.add(dp);
+        handleVirtualDatapointEvent(dp, updatedDatapoints);
+        if (dp.isPressDatapoint() && MiscUtils.isTrueValue(dp.getValue())) {
+            disableDatapoint(dp, DEFAULT_DISABLE_DELAY);
+        }
     }
 
     @Override
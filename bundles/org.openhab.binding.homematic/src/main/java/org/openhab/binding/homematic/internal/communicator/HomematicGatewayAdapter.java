@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.homematic.internal.communicator;
 
+import java.util.List;
+
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
 import org.openhab.binding.homematic.internal.model.HmDatapointConfig;
 import org.openhab.binding.homematic.internal.model.HmDevice;
@@ -28,6 +30,11 @@ public interface HomematicGatewayAdapter {
      */
     public void onStateUpdated(HmDatapoint dp);
 
+    /**
+     * Called when several datapoints of the same device have been updated at once.
+     */
+    public void onStatesUpdated(HmDevice device, List<HmDatapoint> dps);
+
     /**
      * Called when a new device has been detected on the gateway.
      */
@@ -14,6 +14,7 @@ package org.openhab.binding.homematic.internal.communicator.server;
 
 import java.util.List;
 
+import org.openhab.binding.homematic.internal.model.HmDatapointEvent;
 import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
 
 /**
@@ -28,6 +29,11 @@ public interface RpcEventListener {
      */
     public void eventReceived(HmDatapointInfo dpInfo, Object newValue);
 
+    /**
+     * Called when a batch of events is received from a Homeamtic gateway within one system.multicall.
+     */
+    public void eventsReceived(List<HmDatapointEvent> events);
+
     /**
      * Called when new devices has been detected on the Homeamtic gateway.
      */
@@ -24,6 +24,7 @@ import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 import org.openhab.binding.homematic.internal.communicator.parser.DeleteDevicesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.EventParser;
 import org.openhab.binding.homematic.internal.communicator.parser.NewDevicesParser;
+import org.openhab.binding.homematic.internal.model.HmDatapointEvent;
 import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,15 +61,7 @@ public abstract class RpcResponseHandler<T> {
             msg.addArg(getListMethods());
             return msg.createMessage();
         } else if (RPC_METHODNAME_SYSTEM_MULTICALL.equals(methodName)) {
-            for (Object o : (Object[]) responseData[0]) {
-                Map<?, ?> call = (Map<?, ?>) o;
-                if (call != null) {
-                    String method = ObjectUtils.toString(call.get("methodName"));
-                    Object[] data = (Object[]) call.get("params");
-                    handleMethodCall(method, data);
-                }
-            }
-            return getEmptyEventListResult();
+            return handleMulticall((Object[]) responseData[0]);
         } else if (RPC_METHODNAME_SET_CONFIG_READY.equals(methodName)) {
             return getEmptyEventListResult();
         } else {
@@ -89,6 +82,44 @@ public abstract class RpcResponseHandler<T> {
         return events;
     }
 
+    /**
+     * Collects all events of a multicall and populates them as one batch to the listener. Other methods within the
+     * multicall are handled in order, pending events are populated before.
+     */
+    private T handleMulticall(Object[] calls) throws IOException {
+        List<HmDatapointEvent> events = new ArrayList<>(calls.length);
+        for (Object o : calls) {
+            Map<?, ?> call = (Map<?, ?>) o;
+            if (call != null) {
+                String method = ObjectUtils.toString(call.get("methodName"));
+                Object[] data = (Object[]) call.get("params");
+                if (RPC_METHODNAME_EVENT.equals(method)) {
+                    EventParser eventParser = new EventParser();
+                    HmDatapointInfo dpInfo = eventParser.parse(data);
+                    events.add(new HmDatapointEvent(dpInfo, eventParser.getValue()));
+                } else {
+                    flushEvents(events);
+                    handleMethodCall(method, data);
+                }
+            }
+        }
+        flushEvents(events);
+        return getEmptyEventListResult();
+    }
+
+    /**
+     * Populates the collected events to the listener and clears the list.
+     */
+    private void flushEvents(List<HmDatapointEvent> events) {
+        if (events.size() == 1) {
+            HmDatapointEvent event = events.get(0);
+            listener.eventReceived(event.getDpInfo(), event.getValue());
+        } else if (!events.isEmpty()) {
+            listener.eventsReceived(new ArrayList<>(events));
+        }
+        events.clear();
+    }
+
     /**
      * Populates the extracted event to the listener.
      */
@@ -18,6 +18,7 @@ import static org.openhab.binding.homematic.internal.HomematicBindingConstants.C
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -287,6 +288,23 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
         }
     }
 
+    @Override
+    public void onStatesUpdated(HmDevice device, List<HmDatapoint> dps) {
+        if (dps.isEmpty()) {
+            return;
+        }
+        Thing hmThing = getThing().getThing(UidUtils.generateThingUID(device, getThing()));
+        if (hmThing != null) {
+            final ThingStatus status = hmThing.getStatus();
+            if (status == ThingStatus.ONLINE || status == ThingStatus.OFFLINE) {
+                HomematicThingHandler thingHandler = (HomematicThingHandler) hmThing.getHandler();
+                if (thingHandler != null) {
+                    thingHandler.updateDatapointStates(device, dps);
+                }
+            }
+        }
+    }
+
     @Override
     public HmDatapointConfig getDatapointConfig(HmDatapoint dp) {
         Thing hmThing = getThing().getThing(UidUtils.generateThingUID(dp.getChannel().getDevice(), getThing()));
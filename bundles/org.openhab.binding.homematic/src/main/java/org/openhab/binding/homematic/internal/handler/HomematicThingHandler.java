@@ -18,6 +18,7 @@ import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -337,28 +338,51 @@ public class HomematicThingHandler extends BaseThingHandler {
      * Sets the configuration or evaluates the channel for this datapoint and updates the state of the channel.
      */
     protected void updateDatapointState(HmDatapoint dp) {
+        updateDatapointStates(dp.getChannel().getDevice(), Collections.singletonList(dp));
+    }
+
+    /**
+     * Sets the configuration or evaluates the channels for all datapoints of the device and updates the state of the
+     * channels. The thing status and the configuration are updated only once for all datapoints.
+     */
+    protected void updateDatapointStates(HmDevice device, List<HmDatapoint> dps) {
         try {
-            updateStatus(dp.getChannel().getDevice());
-
-            if (dp.getParamsetType() == HmParamsetType.MASTER) {
-                // update configuration
-                Configuration config = editConfiguration();
-                config.put(MetadataUtils.getParameterName(dp), dp.isEnumType() ? dp.getOptionValue() : dp.getValue());
-                updateConfiguration(config);
-            } else if (!HomematicTypeGeneratorImpl.isIgnoredDatapoint(dp)) {
-                // update channel
-                ChannelUID channelUID = UidUtils.generateChannelUID(dp, thing.getUID());
-                Channel channel = thing.getChannel(channelUID.getId());
-                if (channel != null) {
-                    updateChannelState(dp, channel);
-                } else {
-                    logger.warn("Channel not found for datapoint '{}'", new HmDatapointInfo(dp));
-                }
-            }
+            updateStatus(device);
         } catch (GatewayNotAvailableException ex) {
-            // ignore
+            return;
         } catch (Exception ex) {
             logger.error("{}", ex.getMessage(), ex);
+            return;
+        }
+
+        Configuration config = null;
+        for (HmDatapoint dp : dps) {
+            try {
+                if (dp.getParamsetType() == HmParamsetType.MASTER) {
+                    // update configuration
+                    if (config == null) {
+                        config = editConfiguration();
+                    }
+                    config.put(MetadataUtils.getParameterName(dp),
+                            dp.isEnumType() ? dp.getOptionValue() : dp.getValue());
+                } else if (!HomematicTypeGeneratorImpl.isIgnoredDatapoint(dp)) {
+                    // update channel
+                    ChannelUID channelUID = UidUtils.generateChannelUID(dp, thing.getUID());
+                    Channel channel = thing.getChannel(channelUID.getId());
+                    if (channel != null) {
+                        updateChannelState(dp, channel);
+                    } else {
+                        logger.warn("Channel not found for datapoint '{}'", new HmDatapointInfo(dp));
+                    }
+                }
+            } catch (GatewayNotAvailableException ex) {
+                // ignore
+            } catch (Exception ex) {
+                logger.error("{}", ex.getMessage(), ex);
+            }
+        }
+        if (config != null) {
+            updateConfiguration(config);
         }
     }
 
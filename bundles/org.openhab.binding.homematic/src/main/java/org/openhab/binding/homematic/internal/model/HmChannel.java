@@ -13,10 +13,9 @@
 package org.openhab.binding.homematic.internal.model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
@@ -41,7 +40,7 @@ public class HmChannel {
     private HmDevice device;
     private boolean initialized;
     private Integer lastFunction;
-    private Map<HmDatapointInfo, HmDatapoint> datapoints = new HashMap<>();
+    private final Map<HmDatapointInfo, HmDatapoint> datapoints = new ConcurrentHashMap<>();
 
     public HmChannel(String type, Integer number) {
         this.type = type;
@@ -110,9 +109,7 @@ public class HmChannel {
      * Returns all datapoints.
      */
     public List<HmDatapoint> getDatapoints() {
-        synchronized (datapoints) {
-            return new ArrayList<>(datapoints.values());
-        }
+        return new ArrayList<>(datapoints.values());
     }
 
     /**
@@ -120,32 +117,21 @@ public class HmChannel {
      */
     public void addDatapoint(HmDatapoint dp) {
         dp.setChannel(this);
-        synchronized (datapoints) {
-            datapoints.put(new HmDatapointInfo(dp), dp);
-        }
+        datapoints.put(new HmDatapointInfo(dp), dp);
     }
 
     /**
      * Removes all datapoints with VALUES param set type from the channel.
      */
     public void removeValueDatapoints() {
-        synchronized (datapoints) {
-            Iterator<Map.Entry<HmDatapointInfo, HmDatapoint>> iterator = datapoints.entrySet().iterator();
-            while (iterator.hasNext()) {
-                if (iterator.next().getKey().getParamsetType() == HmParamsetType.VALUES) {
-                    iterator.remove();
-                }
-            }
-        }
+        datapoints.keySet().removeIf(dpInfo -> dpInfo.getParamsetType() == HmParamsetType.VALUES);
     }
 
     /**
      * Returns the HmDatapoint with the given HmDatapointInfo.
      */
     public HmDatapoint getDatapoint(HmDatapointInfo dpInfo) {
-        synchronized (datapoints) {
-            return datapoints.get(dpInfo);
-        }
+        return datapoints.get(dpInfo);
     }
 
     /**
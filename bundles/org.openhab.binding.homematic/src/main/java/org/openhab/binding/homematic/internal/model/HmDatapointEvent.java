@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.model;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.apache.commons.lang.builder.ToStringStyle;
+
+/**
+ * Object that holds a single datapoint value event received from a Homematic gateway.
+ *
+ * @author Gerhard Riegler - Initial contribution
+ */
+public class HmDatapointEvent {
+    private final HmDatapointInfo dpInfo;
+    private final Object value;
+
+    public HmDatapointEvent(HmDatapointInfo dpInfo, Object value) {
+        this.dpInfo = dpInfo;
+        this.value = value;
+    }
+
+    /**
+     * Returns the info of the datapoint the event belongs to.
+     */
+    public HmDatapointInfo getDpInfo() {
+        return dpInfo;
+    }
+
+    /**
+     * Returns the new value of the datapoint.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("dpInfo", dpInfo)
+                .append("value", value).toString();
+    }
+}
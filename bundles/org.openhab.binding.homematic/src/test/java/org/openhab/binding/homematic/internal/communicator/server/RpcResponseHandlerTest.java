@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.openhab.binding.homematic.internal.communicator.message.XmlRpcRequest;
+import org.openhab.binding.homematic.internal.model.HmDatapointEvent;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+
+/**
+ * Tests for the multicall handling of the {@link RpcResponseHandler}.
+ *
+ * @author Gerhard Riegler - Initial contribution
+ */
+public class RpcResponseHandlerTest extends JavaTest {
+
+    private final List<HmDatapointInfo> singleEvents = new ArrayList<>();
+    private final List<List<HmDatapointEvent>> batches = new ArrayList<>();
+    private final List<String> newDevices = new ArrayList<>();
+
+    private RpcResponseHandler<String> handler;
+
+    @Before
+    public void setup() {
+        RpcEventListener listener = new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                singleEvents.add(dpInfo);
+            }
+
+            @Override
+            public void eventsReceived(List<HmDatapointEvent> events) {
+                batches.add(events);
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+                newDevices.addAll(adresses);
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        };
+
+        handler = new RpcResponseHandler<String>(listener) {
+            @Override
+            protected String getEmptyStringResult() {
+                return "";
+            }
+
+            @Override
+            protected String getEmptyEventListResult() {
+                return "";
+            }
+
+            @Override
+            protected String getEmptyArrayResult() {
+                return "";
+            }
+
+            @Override
+            protected RpcRequest<String> createRpcRequest() {
+                return new XmlRpcRequest(null, XmlRpcRequest.TYPE.RESPONSE);
+            }
+        };
+    }
+
+    @Test
+    public void multicallEventsArePopulatedAsOneBatch() throws IOException {
+        Object[] calls = new Object[] { event("ABC0000001:1", "STATE", true), event("ABC0000001:1", "LEVEL", 0.5),
+                event("ABC0000002:0", "UNREACH", false) };
+
+        handler.handleMethodCall(RPC_METHODNAME_SYSTEM_MULTICALL, new Object[] { calls });
+
+        assertThat(singleEvents.size(), is(0));
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0).size(), is(3));
+        assertThat(batches.get(0).get(1).getDpInfo().getName(), is("LEVEL"));
+        assertThat(batches.get(0).get(1).getValue(), is(0.5));
+    }
+
+    @Test
+    public void singleMulticallEventIsPopulatedAsEvent() throws IOException {
+        Object[] calls = new Object[] { event("ABC0000001:1", "STATE", true) };
+
+        handler.handleMethodCall(RPC_METHODNAME_SYSTEM_MULTICALL, new Object[] { calls });
+
+        assertThat(singleEvents.size(), is(1));
+        assertThat(batches.size(), is(0));
+    }
+
+    @Test
+    public void multicallEventsAreFlushedBeforeOtherMethods() throws IOException {
+        Map<String, Object> newDevice = new HashMap<>();
+        newDevice.put("methodName", RPC_METHODNAME_NEW_DEVICES);
+        newDevice.put("params", new Object[] { "interface", new Object[0] });
+        Object[] calls = new Object[] { event("ABC0000001:1", "STATE", true), event("ABC0000001:1", "LEVEL", 0.5),
+                newDevice, event("ABC0000002:1", "STATE", false), event("ABC0000002:1", "LEVEL", 1.0) };
+
+        handler.handleMethodCall(RPC_METHODNAME_SYSTEM_MULTICALL, new Object[] { calls });
+
+        assertThat(batches.size(), is(2));
+        assertThat(batches.get(0).get(0).getDpInfo().getAddress(), is("ABC0000001"));
+        assertThat(batches.get(1).get(0).getDpInfo().getAddress(), is("ABC0000002"));
+    }
+
+    private Map<String, Object> event(String address, String name, Object value) {
+        Map<String, Object> call = new HashMap<>();
+        call.put("methodName", RPC_METHODNAME_EVENT);
+        call.put("params", new Object[] { "interface", address, name, value });
+        return call;
+    }
+}
@@ -415,8 +415,11 @@ public class InsteonBinding {
     }
 
     public void logDeviceStatistics() {
-        String msg = String.format("devices: %3d configured, %3d polling, msgs received: %5d", devices.size(),
-                Poller.instance().getSizeOfQueue(), messagesReceived);
+        Poller poller = Poller.instance();
+        String msg = String.format(
+                "devices: %3d configured, %3d polling, msgs received: %5d, polls sent: %5d, polls avoided: %5d",
+                devices.size(), poller.getSizeOfQueue(), messagesReceived, poller.getPollsSent(),
+                poller.getPollsAvoided());
         logger.debug("{}", msg);
         messagesReceived = 0;
         for (InsteonDevice dev : devices.values()) {
@@ -427,6 +430,13 @@ public class InsteonBinding {
                 logger.debug("device {} has not responded to polls for {} sec", dev.toString(),
                         dev.getPollOverDueTime() / 3600);
             }
+            String commandLatency = dev.getCommandLatency().getAndReset();
+            String pollLatency = dev.getPollLatency().getAndReset();
+            if (commandLatency != null || pollLatency != null) {
+                logger.debug("device {} request latency: commands {}, polls {}", dev.getAddress(),
+                        commandLatency != null ? commandLatency : "none sent",
+                        pollLatency != null ? pollLatency : "none sent");
+            }
         }
     }
 
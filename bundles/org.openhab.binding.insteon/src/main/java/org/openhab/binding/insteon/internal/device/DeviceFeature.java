@@ -89,6 +89,8 @@ public class DeviceFeature {
     private Map<Class<? extends Command>, @Nullable CommandHandler> commandHandlers = new HashMap<>();
     private List<DeviceFeatureListener> listeners = new ArrayList<>();
     private List<DeviceFeature> connectedFeatures = new ArrayList<>();
+    private volatile int publishCount = 0;
+    private volatile long lastAllLinkUpdate = 0L;
 
     /**
      * Constructor
@@ -214,6 +216,33 @@ public class DeviceFeature {
         connectedFeatures.add(f);
     }
 
+    public int getPublishCount() {
+        return publishCount;
+    }
+
+    /**
+     * Returns when the state of this feature was last published because of an all-link broadcast or cleanup message,
+     * i.e. when the device last reported it on its own
+     *
+     * @return time in milliseconds, 0 if never
+     */
+    public long getLastAllLinkUpdate() {
+        return lastAllLinkUpdate;
+    }
+
+    public void setLastAllLinkUpdate(long time) {
+        lastAllLinkUpdate = time;
+    }
+
+    /**
+     * Checks if this feature is queried when its device is polled
+     *
+     * @return true if the feature has listeners and a poll handler that makes poll messages
+     */
+    public boolean isPolled() {
+        return pollHandler != null && !(pollHandler instanceof PollHandler.NoPollHandler) && hasListeners();
+    }
+
     public boolean hasListeners() {
         if (!listeners.isEmpty()) {
             return true;
@@ -313,6 +342,7 @@ public class DeviceFeature {
     public void publish(State newState, StateChangeType changeType, String dataKey, String dataValue) {
         logger.debug("{}:{} publishing: {}", this.getDevice().getAddress(), getName(), newState);
         synchronized (listeners) {
+            publishCount++;
             for (DeviceFeatureListener listener : listeners) {
                 listener.stateChanged(newState, changeType, dataKey, dataValue);
             }
@@ -328,6 +358,7 @@ public class DeviceFeature {
     public void publish(State newState, StateChangeType changeType) {
         logger.debug("{}:{} publishing: {}", this.getDevice().getAddress(), getName(), newState);
         synchronized (listeners) {
+            publishCount++;
             for (DeviceFeatureListener listener : listeners) {
                 listener.stateChanged(newState, changeType);
             }
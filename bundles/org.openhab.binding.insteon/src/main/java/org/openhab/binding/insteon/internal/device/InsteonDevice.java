@@ -59,6 +59,12 @@ public class InsteonDevice {
     private static final int QUIET_TIME_DIRECT_MESSAGE = 2000;
     /** how far to space out poll messages */
     private static final int TIME_BETWEEN_POLL_MESSAGES = 1500;
+    /** hold back poll messages while this many messages are waiting to be written to the modem */
+    private static final int MAX_PENDING_MODEM_WRITES = 2;
+    /** how long to hold back poll messages when the modem is busy */
+    private static final int TIME_POLL_DEFERRED = 500;
+    /** how many times in a row a poll message may be held back before it is sent anyway */
+    private static final int MAX_POLL_DEFERRALS = 10;
 
     private InsteonAddress address = new InsteonAddress();
     private long pollInterval = -1L; // in milliseconds
@@ -69,6 +75,11 @@ public class InsteonDevice {
     private volatile long lastMsgReceived = 0L;
     private boolean isModem = false;
     private PriorityQueue<@Nullable QEntry> mrequestQueue = new PriorityQueue<>();
+    // poll messages, guarded by mrequestQueue as well
+    private PriorityQueue<@Nullable QEntry> pollQueue = new PriorityQueue<>();
+    private int pollDeferrals = 0;
+    private RequestLatency commandLatency = new RequestLatency();
+    private RequestLatency pollLatency = new RequestLatency();
     private @Nullable DeviceFeature featureQueried = null;
     private long lastQueryTime = 0L;
     private boolean hasModemDBEntry = false;
@@ -145,6 +156,33 @@ public class InsteonDevice {
         return (lastTimePolled - lastMsgReceived);
     }
 
+    /**
+     * Returns since when the device has reported the state of all features that are polled on its own, i.e. by
+     * all-link broadcast or cleanup messages
+     *
+     * @return the oldest all-link update of the polled features in milliseconds, 0 if any of them was never
+     *         updated that way or no feature is polled
+     */
+    public long getLastAllLinkRefresh() {
+        long oldest = Long.MAX_VALUE;
+        synchronized (features) {
+            for (DeviceFeature f : features.values()) {
+                if (f.isPolled()) {
+                    oldest = Math.min(oldest, f.getLastAllLinkUpdate());
+                }
+            }
+        }
+        return oldest == Long.MAX_VALUE ? 0L : oldest;
+    }
+
+    public RequestLatency getCommandLatency() {
+        return commandLatency;
+    }
+
+    public RequestLatency getPollLatency() {
+        return pollLatency;
+    }
+
     public boolean hasAnyListeners() {
         synchronized (features) {
             for (DeviceFeature f : features.values()) {
@@ -272,7 +310,7 @@ public class InsteonDevice {
         }
         synchronized (mrequestQueue) {
             for (QEntry e : l) {
-                mrequestQueue.add(e);
+                pollQueue.add(e);
             }
         }
         RequestQueueManager.instance().addQueue(this, now + delay);
@@ -291,6 +329,16 @@ public class InsteonDevice {
     public void handleMessage(Msg msg) {
         lastMsgReceived = System.currentTimeMillis();
         synchronized (features) {
+            // remember which features publish a new state because of an all-link message
+            @Nullable
+            Map<DeviceFeature, Integer> publishCounts = null;
+            if (msg.isAllLink()) {
+                publishCounts = new HashMap<>();
+                for (DeviceFeature f : features.values()) {
+                    publishCounts.put(f, f.getPublishCount());
+                }
+            }
+
             // first update all features that are
             // not status features
             for (DeviceFeature f : features.values()) {
@@ -312,6 +360,14 @@ public class InsteonDevice {
                     f.handleMessage(msg);
                 }
             }
+            if (publishCounts != null) {
+                for (DeviceFeature f : features.values()) {
+                    Integer count = publishCounts.get(f);
+                    if (count != null && count != f.getPublishCount()) {
+                        f.setLastAllLinkUpdate(lastMsgReceived);
+                    }
+                }
+            }
         }
     }
 
@@ -437,7 +493,7 @@ public class InsteonDevice {
      */
     public long processRequestQueue(long timeNow) {
         synchronized (mrequestQueue) {
-            if (mrequestQueue.isEmpty()) {
+            if (mrequestQueue.isEmpty() && pollQueue.isEmpty()) {
                 return 0L;
             }
             if (featureQueried != null) {
@@ -452,7 +508,17 @@ public class InsteonDevice {
                     logger.debug("gave up waiting for query reply from device {}", address);
                 }
             }
-            QEntry qe = mrequestQueue.poll(); // take it off the queue!
+            QEntry qcmd = mrequestQueue.peek();
+            QEntry qpoll = pollQueue.peek();
+            boolean isPoll = isPollFirst(qcmd == null ? Long.MAX_VALUE : qcmd.getExpirationTime(),
+                    qpoll == null ? Long.MAX_VALUE : qpoll.getExpirationTime(), timeNow);
+            if (isPoll && deferPoll(driver.getWriteQueueSize())) {
+                // the modem is busy, leave it to the commands
+                logger.trace("modem busy, deferring poll of {} for {} msec", address, TIME_POLL_DEFERRED);
+                return (timeNow + TIME_POLL_DEFERRED);
+            }
+            QEntry qe = isPoll ? pollQueue.poll() : mrequestQueue.poll(); // take it off the queue!
+            (isPoll ? pollLatency : commandLatency).add(timeNow - qe.getExpirationTime());
             if (!qe.getMsg().isBroadcast()) {
                 logger.debug("qe taken off direct: {} {}", qe.getFeature(), qe.getMsg());
                 lastQueryTime = timeNow;
@@ -471,14 +537,50 @@ public class InsteonDevice {
                 logger.warn("message write failed for msg {}", qe.getMsg(), e);
             }
             // figure out when the request queue should be checked next
-            QEntry qnext = mrequestQueue.peek();
-            long nextExpTime = (qnext == null ? 0L : qnext.getExpirationTime());
+            qcmd = mrequestQueue.peek();
+            qpoll = pollQueue.peek();
+            long nextExpTime = Math.min(qcmd == null ? Long.MAX_VALUE : qcmd.getExpirationTime(),
+                    qpoll == null ? Long.MAX_VALUE : qpoll.getExpirationTime());
+            if (nextExpTime == Long.MAX_VALUE) {
+                nextExpTime = 0L;
+            }
             long nextTime = Math.max(timeNow + quietTime, nextExpTime);
             logger.debug("next request queue processed in {} msec, quiettime = {}", nextTime - timeNow, quietTime);
             return (nextTime);
         }
     }
 
+    /**
+     * Decides whether the next message is taken from the poll queue. A command that is already due always
+     * goes out first. A poll only goes first if no command is due yet and the poll is due before the first command.
+     *
+     * @param cmdTime expiration time of the first command, Long.MAX_VALUE if there is none
+     * @param pollTime expiration time of the first poll, Long.MAX_VALUE if there is none
+     * @param timeNow the current time
+     * @return true if the first poll should be sent next
+     */
+    static boolean isPollFirst(long cmdTime, long pollTime, long timeNow) {
+        return cmdTime > timeNow && pollTime < cmdTime;
+    }
+
+    /**
+     * Decides whether a poll that is up next is held back because the modem is busy. A poll is held back
+     * at most MAX_POLL_DEFERRALS times in a row, so that polls still go out while commands keep the modem busy.
+     *
+     * @param pendingWrites number of messages waiting to be written to the modem
+     * @return true if the poll should be held back
+     */
+    boolean deferPoll(int pendingWrites) {
+        synchronized (mrequestQueue) {
+            if (pendingWrites < MAX_PENDING_MODEM_WRITES || pollDeferrals >= MAX_POLL_DEFERRALS) {
+                pollDeferrals = 0;
+                return false;
+            }
+            pollDeferrals++;
+            return true;
+        }
+    }
+
     /**
      * Enqueues message to be sent at the next possible time
      *
@@ -602,6 +704,39 @@ public class InsteonDevice {
         return dev;
     }
 
+    /**
+     * Keeps track of how long requests waited beyond their scheduled time before being sent
+     */
+    @NonNullByDefault
+    public static class RequestLatency {
+        private int count = 0;
+        private long total = 0L;
+        private long max = 0L;
+
+        synchronized void add(long latency) {
+            long l = Math.max(latency, 0L);
+            count++;
+            total += l;
+            max = Math.max(max, l);
+        }
+
+        /**
+         * Returns a summary of the latencies since the last call and starts over
+         *
+         * @return summary or null if no requests were sent since the last call
+         */
+        public synchronized @Nullable String getAndReset() {
+            if (count == 0) {
+                return null;
+            }
+            String s = String.format("%d sent, avg %d msec, max %d msec", count, total / count, max);
+            count = 0;
+            total = 0L;
+            max = 0L;
+            return s;
+        }
+    }
+
     /**
      * Queue entry helper class
      *
@@ -633,7 +768,7 @@ public class InsteonDevice {
 
         @Override
         public int compareTo(QEntry a) {
-            return (int) (expirationTime - a.expirationTime);
+            return Long.compare(expirationTime, a.expirationTime);
         }
     }
 }
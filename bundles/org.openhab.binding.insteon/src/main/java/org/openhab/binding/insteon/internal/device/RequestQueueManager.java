@@ -12,8 +12,11 @@
  */
 package org.openhab.binding.insteon.internal.device;
 
-import java.util.HashMap;
-import java.util.PriorityQueue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -24,12 +27,12 @@ import org.slf4j.LoggerFactory;
  * Class that manages all the per-device request queues using a single thread.
  *
  * - Each device has its own request queue, and the RequestQueueManager keeps a
- * queue of queues.
- * - Each entry in m_requestQueues corresponds to a single device's request queue.
- * A device should never be more than once in m_requestQueues.
- * - A hash map (m_requestQueueHash) is kept in sync with m_requestQueues for
- * faster lookup in case a request queue is modified and needs to be
- * rescheduled.
+ * delay queue of queues, ordered by the time they are up for processing.
+ * - A concurrent hash map (requestQueueHash) holds the currently valid entry for
+ * each device. When a device is rescheduled to an earlier time, a new entry is
+ * added and the replaced one stays in the delay queue until it expires, where
+ * it is discarded because it no longer is the device's valid entry. This avoids
+ * the O(n) removal from the queue and any locking on the caller side.
  *
  * @author Bernd Pfrommer - Initial contribution
  * @author Rob Nielsen - Port to openHAB 2 insteon binding
@@ -40,15 +43,21 @@ public class RequestQueueManager {
     private static @Nullable RequestQueueManager instance = null;
     private final Logger logger = LoggerFactory.getLogger(RequestQueueManager.class);
     private @Nullable Thread queueThread = null;
-    private PriorityQueue<RequestQueue> requestQueues = new PriorityQueue<>();
-    private HashMap<InsteonDevice, @Nullable RequestQueue> requestQueueHash = new HashMap<>();
-    private boolean keepRunning = true;
+    private DelayQueue<RequestQueue> requestQueues = new DelayQueue<>();
+    private Map<InsteonDevice, RequestQueue> requestQueueHash = new ConcurrentHashMap<>();
+    private volatile boolean keepRunning = true;
 
     private RequestQueueManager() {
-        queueThread = new Thread(new RequestQueueReader());
-        queueThread.setName("Insteon Request Queue Reader");
-        queueThread.setDaemon(true);
-        queueThread.start();
+        this(true);
+    }
+
+    RequestQueueManager(boolean startThread) {
+        if (startThread) {
+            queueThread = new Thread(new RequestQueueReader());
+            queueThread.setName("Insteon Request Queue Reader");
+            queueThread.setDaemon(true);
+            queueThread.start();
+        }
     }
 
     /**
@@ -58,30 +67,55 @@ public class RequestQueueManager {
      * @param time the time when the queue should be processed
      */
     public void addQueue(InsteonDevice dev, long time) {
-        synchronized (requestQueues) {
-            RequestQueue q = requestQueueHash.get(dev);
-            if (q == null) {
-                logger.trace("scheduling request for device {} in {} msec", dev.getAddress(),
-                        time - System.currentTimeMillis());
-                q = new RequestQueue(dev, time);
-            } else {
-                logger.trace("queue for dev {} is already scheduled in {} msec", dev.getAddress(),
+        requestQueueHash.compute(dev, (d, q) -> {
+            if (q != null && q.getExpirationTime() <= time) {
+                logger.trace("queue for dev {} is already scheduled in {} msec", d.getAddress(),
                         q.getExpirationTime() - System.currentTimeMillis());
-                if (!requestQueues.remove(q)) {
-                    logger.warn("queue for {} should be there, report as bug!", dev);
-                }
-                requestQueueHash.remove(dev);
-            }
-            long expTime = q.getExpirationTime();
-            if (expTime > time) {
-                q.setExpirationTime(time);
+                return q;
             }
-            // add the queue back in after (maybe) having modified
-            // the expiration time
-            requestQueues.add(q);
-            requestQueueHash.put(dev, q);
-            requestQueues.notify();
+            logger.trace("scheduling request for device {} in {} msec", d.getAddress(),
+                    time - System.currentTimeMillis());
+            RequestQueue nq = new RequestQueue(d, time);
+            requestQueues.add(nq);
+            return nq;
+        });
+    }
+
+    /**
+     * Takes the first expired entry off the delay queue without waiting
+     *
+     * @return the expired entry or null if there is none
+     */
+    @Nullable
+    RequestQueue pollExpiredQueue() {
+        return requestQueues.poll();
+    }
+
+    /**
+     * Processes the request queue of a device whose entry has expired and schedules it again
+     * if more requests are waiting. Entries that have been replaced by an earlier one are discarded.
+     *
+     * @param q the expired entry
+     * @return true if the request queue of the device was processed
+     */
+    boolean processQueue(RequestQueue q) {
+        InsteonDevice dev = q.getDevice();
+        if (!requestQueueHash.remove(dev, q)) {
+            // the device has been rescheduled to an earlier time in the meantime
+            return false;
+        }
+        //
+        // The head of the queue has expired and can be processed!
+        //
+        long now = System.currentTimeMillis();
+        long nextExp = dev.processRequestQueue(now);
+        if (nextExp > 0) {
+            addQueue(dev, nextExp);
+            logger.trace("device queue for {} rescheduled in {} msec", dev.getAddress(), nextExp - now);
+        } else {
+            logger.debug("device queue for {} is empty!", dev.getAddress());
         }
+        return true;
     }
 
     /**
@@ -90,10 +124,8 @@ public class RequestQueueManager {
     private void stopThread() {
         logger.debug("stopping thread");
         if (queueThread != null) {
-            synchronized (requestQueues) {
-                keepRunning = false;
-                requestQueues.notifyAll();
-            }
+            keepRunning = false;
+            queueThread.interrupt();
             try {
                 logger.debug("waiting for thread to join");
                 queueThread.join();
@@ -110,60 +142,26 @@ public class RequestQueueManager {
         @Override
         public void run() {
             logger.debug("starting request queue thread");
-            synchronized (requestQueues) {
-                while (keepRunning) {
-                    try {
-                        while (keepRunning && !requestQueues.isEmpty()) {
-                            RequestQueue q = requestQueues.peek();
-                            long now = System.currentTimeMillis();
-                            long expTime = q.getExpirationTime();
-                            InsteonDevice dev = q.getDevice();
-                            if (expTime > now) {
-                                //
-                                // The head of the queue is not up for processing yet, wait().
-                                //
-                                logger.trace("request queue head: {} must wait for {} msec", dev.getAddress(),
-                                        expTime - now);
-                                requestQueues.wait(expTime - now);
-                                //
-                                // note that the wait() can also return because of changes to
-                                // the queue, not just because the time expired!
-                                //
-                                continue;
-                            }
-                            //
-                            // The head of the queue has expired and can be processed!
-                            //
-                            q = requestQueues.poll(); // remove front element
-                            requestQueueHash.remove(dev); // and remove from hash map
-                            long nextExp = dev.processRequestQueue(now);
-                            if (nextExp > 0) {
-                                q = new RequestQueue(dev, nextExp);
-                                requestQueues.add(q);
-                                requestQueueHash.put(dev, q);
-                                logger.trace("device queue for {} rescheduled in {} msec", dev.getAddress(),
-                                        nextExp - now);
-                            } else {
-                                // remove from hash since queue is no longer scheduled
-                                logger.debug("device queue for {} is empty!", dev.getAddress());
-                            }
-                        }
-                        logger.trace("waiting for request queues to fill");
-                        requestQueues.wait();
-                    } catch (InterruptedException e) {
+            while (keepRunning) {
+                RequestQueue q;
+                try {
+                    q = requestQueues.take();
+                } catch (InterruptedException e) {
+                    if (keepRunning) {
                         logger.warn("request queue thread got interrupted, breaking..", e);
-                        break;
                     }
+                    break;
                 }
+                processQueue(q);
             }
             logger.debug("exiting request queue thread!");
         }
     }
 
     @NonNullByDefault
-    public static class RequestQueue implements Comparable<RequestQueue> {
-        private InsteonDevice device;
-        private long expirationTime;
+    public static class RequestQueue implements Delayed {
+        private final InsteonDevice device;
+        private final long expirationTime;
 
         RequestQueue(InsteonDevice dev, long expirationTime) {
             this.device = dev;
@@ -178,13 +176,14 @@ public class RequestQueueManager {
             return expirationTime;
         }
 
-        public void setExpirationTime(long t) {
-            expirationTime = t;
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            return unit.convert(expirationTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
         }
 
         @Override
-        public int compareTo(RequestQueue a) {
-            return (int) (expirationTime - a.expirationTime);
+        public int compareTo(@Nullable Delayed a) {
+            return Long.compare(expirationTime, ((RequestQueue) a).expirationTime);
         }
     }
 
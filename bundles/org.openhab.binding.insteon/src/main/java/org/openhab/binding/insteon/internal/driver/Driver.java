@@ -80,6 +80,10 @@ public class Driver {
         port.writeMessage(m);
     }
 
+    public int getWriteQueueSize() {
+        return port.getWriteQueueSize();
+    }
+
     public String getPortName() {
         return portName;
     }
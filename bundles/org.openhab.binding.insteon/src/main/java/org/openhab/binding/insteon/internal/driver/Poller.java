@@ -27,7 +27,13 @@ import org.slf4j.LoggerFactory;
  * This class manages the polling of all devices.
  * Between successive polls of a any device there is a quiet time of
  * at least MIN_MSEC_BETWEEN_POLLS. This avoids bunching up of poll messages
- * and keeps the network bandwidth open for other messages.
+ * and keeps the network bandwidth open for other messages. When the poll
+ * interval leaves room for it, the quiet time is stretched so that the polls
+ * are spread evenly over the poll interval.
+ *
+ * - A device whose polled features have all been updated by all-link broadcasts or
+ * cleanups within its poll interval is not polled. Its next poll is postponed to one
+ * poll interval after the oldest of those updates instead.
  *
  * - An entry in the poll queue corresponds to a single device, i.e. each device should
  * have exactly one entry in the poll queue. That entry is created when startPolling()
@@ -51,6 +57,8 @@ public class Poller {
     private @Nullable Thread pollThread = null;
     private TreeSet<PQEntry> pollQueue = new TreeSet<>();
     private boolean keepRunning = true;
+    private long pollsSent = 0;
+    private long pollsAvoided = 0;
 
     /**
      * Constructor
@@ -67,6 +75,28 @@ public class Poller {
         return (pollQueue.size());
     }
 
+    /**
+     * Get number of polls that were sent since the binding started
+     *
+     * @return number of polls sent
+     */
+    public long getPollsSent() {
+        synchronized (pollQueue) {
+            return pollsSent;
+        }
+    }
+
+    /**
+     * Get number of polls that were skipped because the device had reported its state recently
+     *
+     * @return number of polls avoided since the binding started
+     */
+    public long getPollsAvoided() {
+        synchronized (pollQueue) {
+            return pollsAvoided;
+        }
+    }
+
     /**
      * Register a device for polling.
      *
@@ -161,9 +191,11 @@ public class Poller {
      */
 
     private long findNextExpirationTime(InsteonDevice d, long aTime) {
+        // spread the polls evenly over the poll interval, but keep at least the minimum gap
+        long gap = Math.max(MIN_MSEC_BETWEEN_POLLS, d.getPollInterval() / (pollQueue.size() + 1));
         long expTime = aTime;
         // tailSet finds all those that expire after aTime - buffer
-        SortedSet<PQEntry> ts = pollQueue.tailSet(new PQEntry(d, aTime - MIN_MSEC_BETWEEN_POLLS));
+        SortedSet<PQEntry> ts = pollQueue.tailSet(new PQEntry(d, aTime - gap));
         if (ts.isEmpty()) {
             // all entries in the poll queue are ahead of the new element,
             // go ahead and simply add it to the end
@@ -171,24 +203,24 @@ public class Poller {
         } else {
             Iterator<PQEntry> pqi = ts.iterator();
             PQEntry prev = pqi.next();
-            if (prev.getExpirationTime() > aTime + MIN_MSEC_BETWEEN_POLLS) {
+            if (prev.getExpirationTime() > aTime + gap) {
                 // there is a time slot free before the head of the tail set
                 expTime = aTime;
             } else {
                 // look for a gap where we can squeeze in
-                // a new poll while maintaining MIN_MSEC_BETWEEN_POLLS
+                // a new poll while maintaining the gap
                 while (pqi.hasNext()) {
                     PQEntry pqe = pqi.next();
                     long tcurr = pqe.getExpirationTime();
                     long tprev = prev.getExpirationTime();
-                    if (tcurr - tprev >= 2 * MIN_MSEC_BETWEEN_POLLS) {
+                    if (tcurr - tprev >= 2 * gap) {
                         // found gap
                         logger.trace("dev {} time {} found slot between {} and {}", d, aTime, tprev, tcurr);
                         break;
                     }
                     prev = pqe;
                 }
-                expTime = prev.getExpirationTime() + MIN_MSEC_BETWEEN_POLLS;
+                expTime = prev.getExpirationTime() + gap;
             }
         }
         return expTime;
@@ -242,13 +274,25 @@ public class Poller {
         /**
          * Takes first element off the poll queue, polls the corresponding device,
          * and puts the device back into the poll queue to be polled again later.
+         * The poll is skipped if all polled features of the device were updated by
+         * all-link messages within the poll interval.
          *
          * @param now the current time
          */
         private void processQueue(long now) {
             PQEntry pqe = pollQueue.pollFirst();
-            pqe.getDevice().doPoll(0);
-            addToPollQueue(pqe.getDevice(), now + pqe.getDevice().getPollInterval());
+            InsteonDevice dev = pqe.getDevice();
+            long pollInterval = dev.getPollInterval();
+            long lastRefresh = dev.getLastAllLinkRefresh();
+            if (now - lastRefresh < pollInterval) {
+                pollsAvoided++;
+                logger.trace("device {} refreshed {} msec ago, postponing poll", dev.getAddress(), now - lastRefresh);
+                addToPollQueue(dev, lastRefresh + pollInterval);
+                return;
+            }
+            pollsSent++;
+            dev.doPoll(0);
+            addToPollQueue(dev, now + pollInterval);
         }
     }
 
@@ -236,6 +236,15 @@ public class Port {
         logger.debug("all threads for port {} stopped.", logName);
     }
 
+    /**
+     * Returns the number of messages waiting to be written to the modem
+     *
+     * @return size of the write queue
+     */
+    public int getWriteQueueSize() {
+        return writeQueue.size();
+    }
+
     /**
      * Adds message to the write queue
      *
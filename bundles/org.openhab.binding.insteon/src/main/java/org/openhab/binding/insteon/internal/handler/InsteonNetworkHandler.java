@@ -35,6 +35,7 @@ import org.eclipse.smarthome.io.transport.serial.SerialPortManager;
 import org.openhab.binding.insteon.internal.InsteonBinding;
 import org.openhab.binding.insteon.internal.config.InsteonNetworkConfiguration;
 import org.openhab.binding.insteon.internal.discovery.InsteonDeviceDiscoveryService;
+import org.openhab.binding.insteon.internal.driver.Poller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -193,6 +194,12 @@ public class InsteonNetworkHandler extends BaseBridgeHandler {
         display(console, databaseInfo);
     }
 
+    public void displayPolling(Console console) {
+        Poller poller = Poller.instance();
+        console.println("polling " + poller.getSizeOfQueue() + " devices, " + poller.getPollsSent()
+                + " polls sent, " + poller.getPollsAvoided() + " polls avoided");
+    }
+
     public void initialized(ThingUID uid, String msg) {
         deviceInfo.put(uid.getAsString(), msg);
     }
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.insteon.internal.device;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+
+/**
+ * Tests for choosing between commands and polls in the request queue of an {@link InsteonDevice}.
+ *
+ * @author Bernd Pfrommer - Initial contribution
+ */
+@NonNullByDefault
+public class InsteonDeviceTest {
+
+    private static final long NOW = 1000000L;
+
+    @Test
+    public void testCommandsGoBeforePolls() {
+        assertFalse(InsteonDevice.isPollFirst(NOW - 100, NOW - 200, NOW));
+        assertFalse(InsteonDevice.isPollFirst(NOW, NOW - 200, NOW));
+        assertFalse(InsteonDevice.isPollFirst(NOW - 100, Long.MAX_VALUE, NOW));
+    }
+
+    @Test
+    public void testPollGoesFirstWhenDueBeforeCommand() {
+        assertTrue(InsteonDevice.isPollFirst(NOW + 100, NOW - 200, NOW));
+        assertTrue(InsteonDevice.isPollFirst(Long.MAX_VALUE, NOW - 200, NOW));
+        assertFalse(InsteonDevice.isPollFirst(NOW + 100, NOW + 200, NOW));
+    }
+
+    @Test
+    public void testPollIsNotDeferredWhenModemIsIdle() {
+        InsteonDevice device = new InsteonDevice();
+        assertFalse(device.deferPoll(0));
+        assertFalse(device.deferPoll(1));
+    }
+
+    @Test
+    public void testPollDeferralIsBounded() {
+        InsteonDevice device = new InsteonDevice();
+        int deferrals = 0;
+        while (device.deferPoll(5)) {
+            deferrals++;
+            assertTrue("poll deferred forever", deferrals < 100);
+        }
+        assertTrue(deferrals > 0);
+
+        // after the poll went out, the next one may be deferred again
+        assertTrue(device.deferPoll(5));
+        assertFalse(device.deferPoll(0));
+        assertTrue(device.deferPoll(5));
+    }
+}
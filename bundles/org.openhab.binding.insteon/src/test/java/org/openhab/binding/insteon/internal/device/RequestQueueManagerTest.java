@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.insteon.internal.device;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.insteon.internal.device.RequestQueueManager.RequestQueue;
+
+/**
+ * Tests for scheduling the device request queues in the {@link RequestQueueManager}.
+ *
+ * @author Bernd Pfrommer - Initial contribution
+ */
+@NonNullByDefault
+public class RequestQueueManagerTest {
+
+    private @NonNullByDefault({}) RequestQueueManager manager;
+    private @NonNullByDefault({}) InsteonDevice device;
+
+    @Before
+    public void setUp() {
+        manager = new RequestQueueManager(false);
+        device = mock(InsteonDevice.class);
+    }
+
+    @Test
+    public void testRescheduleToEarlierTime() {
+        long now = System.currentTimeMillis();
+        manager.addQueue(device, now + 60000);
+        manager.addQueue(device, now - 1);
+
+        RequestQueue q = manager.pollExpiredQueue();
+        assertNotNull(q);
+        assertEquals(now - 1, q.getExpirationTime());
+        assertTrue(manager.processQueue(q));
+        verify(device).processRequestQueue(anyLong());
+    }
+
+    @Test
+    public void testRescheduleToLaterTimeKeepsEarlierEntry() {
+        long now = System.currentTimeMillis();
+        manager.addQueue(device, now - 1);
+        manager.addQueue(device, now + 60000);
+
+        RequestQueue q = manager.pollExpiredQueue();
+        assertNotNull(q);
+        assertEquals(now - 1, q.getExpirationTime());
+        assertTrue(manager.processQueue(q));
+        assertNull(manager.pollExpiredQueue());
+    }
+
+    @Test
+    public void testStaleEntryIsDiscarded() {
+        long now = System.currentTimeMillis();
+        manager.addQueue(device, now - 1);
+        manager.addQueue(device, now - 2);
+
+        RequestQueue valid = manager.pollExpiredQueue();
+        RequestQueue stale = manager.pollExpiredQueue();
+        assertNotNull(valid);
+        assertNotNull(stale);
+        assertEquals(now - 2, valid.getExpirationTime());
+        assertEquals(now - 1, stale.getExpirationTime());
+
+        assertTrue(manager.processQueue(valid));
+        assertFalse(manager.processQueue(stale));
+        verify(device, times(1)).processRequestQueue(anyLong());
+    }
+
+    @Test
+    public void testDeviceIsRescheduledAfterProcessing() {
+        long now = System.currentTimeMillis();
+        when(device.processRequestQueue(anyLong())).thenReturn(now - 1, 0L);
+        manager.addQueue(device, now - 2);
+
+        RequestQueue q = manager.pollExpiredQueue();
+        assertNotNull(q);
+        assertTrue(manager.processQueue(q));
+
+        q = manager.pollExpiredQueue();
+        assertNotNull(q);
+        assertEquals(now - 1, q.getExpirationTime());
+        assertTrue(manager.processQueue(q));
+        assertNull(manager.pollExpiredQueue());
+        verify(device, times(2)).processRequestQueue(anyLong());
+    }
+
+    @Test
+    public void testDevicesAreProcessedInTimeOrder() {
+        InsteonDevice other = mock(InsteonDevice.class);
+        long now = System.currentTimeMillis();
+        manager.addQueue(device, now - 1);
+        manager.addQueue(other, now - 2);
+
+        RequestQueue q = manager.pollExpiredQueue();
+        assertNotNull(q);
+        assertSame(other, q.getDevice());
+        q = manager.pollExpiredQueue();
+        assertNotNull(q);
+        assertSame(device, q.getDevice());
+    }
+}
@@ -37,6 +37,7 @@ import org.osgi.service.component.annotations.Reference;
 public class LifxHandlerFactory extends BaseThingHandlerFactory {
 
     private @NonNullByDefault({}) LifxChannelFactory channelFactory;
+    private final LifxSharedSelector sharedSelector = new LifxSharedSelector();
 
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
@@ -51,7 +52,7 @@ public class LifxHandlerFactory extends BaseThingHandlerFactory {
     @Override
     protected @Nullable ThingHandler createHandler(Thing thing) {
         if (supportsThingType(thing.getThingTypeUID())) {
-            return new LifxLightHandler(thing, channelFactory);
+            return new LifxLightHandler(thing, channelFactory, sharedSelector);
         }
 
         return null;
@@ -60,6 +61,7 @@ public class LifxHandlerFactory extends BaseThingHandlerFactory {
     @Override
     protected void deactivate(ComponentContext componentContext) {
         super.deactivate(componentContext);
+        sharedSelector.close();
     }
 
     @Reference
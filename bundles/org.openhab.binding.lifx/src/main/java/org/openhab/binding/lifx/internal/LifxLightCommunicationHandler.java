@@ -12,7 +12,6 @@
  */
 package org.openhab.binding.lifx.internal;
 
-import static org.openhab.binding.lifx.internal.LifxBindingConstants.PACKET_INTERVAL;
 import static org.openhab.binding.lifx.internal.fields.MACAddress.BROADCAST_ADDRESS;
 import static org.openhab.binding.lifx.internal.util.LifxMessageUtil.randomSourceId;
 import static org.openhab.binding.lifx.internal.util.LifxSelectorUtil.*;
@@ -20,12 +19,13 @@ import static org.openhab.binding.lifx.internal.util.LifxSelectorUtil.*;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
@@ -56,8 +56,11 @@ public class LifxLightCommunicationHandler {
     private final String logId;
     private final CurrentLightState currentLightState;
     private final ScheduledExecutorService scheduler;
+    private final LifxSharedSelector sharedSelector;
 
     private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<ReceivedPacket> receivedPackets = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean handlingReceivedPackets = new AtomicBoolean();
     private final long sourceId = randomSourceId();
     private final Supplier<Integer> sequenceNumberSupplier = new LifxSequenceNumberSupplier();
 
@@ -65,13 +68,10 @@ public class LifxLightCommunicationHandler {
     private int unicastPort;
     private final int broadcastPort = LifxNetworkUtil.getNewBroadcastPort();
 
-    private @Nullable ScheduledFuture<?> networkJob;
-
     private @Nullable MACAddress macAddress;
     private @Nullable InetSocketAddress host;
     private boolean broadcastEnabled;
 
-    private @Nullable Selector selector;
     private @Nullable SelectionKey broadcastKey;
     private @Nullable SelectionKey unicastKey;
     private @Nullable LifxSelectorContext selectorContext;
@@ -82,6 +82,7 @@ public class LifxLightCommunicationHandler {
         this.host = context.getConfiguration().getHost();
         this.currentLightState = context.getCurrentLightState();
         this.scheduler = context.getScheduler();
+        this.sharedSelector = context.getSharedSelector();
         this.broadcastEnabled = context.getConfiguration().getHost() == null;
     }
 
@@ -102,26 +103,18 @@ public class LifxLightCommunicationHandler {
             logger.debug("{} : Starting communication handler", logId);
             logger.debug("{} : Using '{}' as source identifier", logId, Long.toString(sourceId, 16));
 
-            ScheduledFuture<?> localNetworkJob = networkJob;
-            if (localNetworkJob == null || localNetworkJob.isCancelled()) {
-                networkJob = scheduler.scheduleWithFixedDelay(this::receiveAndHandlePackets, 0, PACKET_INTERVAL,
-                        TimeUnit.MILLISECONDS);
-            }
-
             currentLightState.setOffline();
 
-            Selector localSelector = Selector.open();
-            selector = localSelector;
-
             if (isBroadcastEnabled()) {
-                broadcastKey = openBroadcastChannel(selector, logId, broadcastPort);
-                selectorContext = new LifxSelectorContext(localSelector, sourceId, sequenceNumberSupplier, logId, host,
-                        macAddress, broadcastKey, unicastKey);
+                broadcastKey = sharedSelector.register(createBroadcastChannel(logId, broadcastPort), logId,
+                        this::receivePacket);
+                selectorContext = new LifxSelectorContext(sharedSelector.getSelector(), sourceId,
+                        sequenceNumberSupplier, logId, host, macAddress, broadcastKey, unicastKey);
                 broadcastPacket(new GetServiceRequest());
             } else {
-                unicastKey = openUnicastChannel(selector, logId, host);
-                selectorContext = new LifxSelectorContext(localSelector, sourceId, sequenceNumberSupplier, logId, host,
-                        macAddress, broadcastKey, unicastKey);
+                unicastKey = registerUnicastChannel(host);
+                selectorContext = new LifxSelectorContext(sharedSelector.getSelector(), sourceId,
+                        sequenceNumberSupplier, logId, host, macAddress, broadcastKey, unicastKey);
                 sendPacket(new GetServiceRequest());
             }
         } catch (IOException e) {
@@ -136,14 +129,8 @@ public class LifxLightCommunicationHandler {
         try {
             lock.lock();
 
-            ScheduledFuture<?> localNetworkJob = networkJob;
-            if (localNetworkJob != null && !localNetworkJob.isCancelled()) {
-                localNetworkJob.cancel(true);
-                networkJob = null;
-            }
-
-            closeSelector(selector, logId);
-            selector = null;
+            cancelKey(broadcastKey, logId);
+            cancelKey(unicastKey, logId);
             broadcastKey = null;
             unicastKey = null;
             selectorContext = null;
@@ -160,22 +147,56 @@ public class LifxLightCommunicationHandler {
         return macAddress;
     }
 
-    public void receiveAndHandlePackets() {
-        try {
-            lock.lock();
-            Selector localSelector = selector;
-            if (localSelector == null || !localSelector.isOpen()) {
-                logger.debug("{} : Unable to receive and handle packets with null or closed selector", logId);
-            } else {
-                LifxSelectorUtil.receiveAndHandlePackets(localSelector, logId,
-                        (packet, address) -> handlePacket(packet, address));
-            }
-        } catch (Exception e) {
-            logger.error("{} while receiving a packet from the light ({}): {}", e.getClass().getSimpleName(), logId,
-                    e.getMessage());
-        } finally {
-            lock.unlock();
+    private @Nullable SelectionKey registerUnicastChannel(@Nullable InetSocketAddress address) throws IOException {
+        if (address == null) {
+            return null;
         }
+        return sharedSelector.register(createUnicastChannel(logId, address), logId, this::receivePacket);
+    }
+
+    private static class ReceivedPacket {
+        private final Packet packet;
+        private final InetSocketAddress address;
+
+        private ReceivedPacket(Packet packet, InetSocketAddress address) {
+            this.packet = packet;
+            this.address = address;
+        }
+    }
+
+    /**
+     * Called by the shared selector thread for each packet received on the channels of this light.
+     */
+    private void receivePacket(Packet packet, InetSocketAddress address) {
+        // Packets are handled in a separate thread so the shared selector never waits for the lock of a light.
+        // They are queued and handled by one task at a time, so they are handled in the order they were received.
+        receivedPackets.add(new ReceivedPacket(packet, address));
+        if (!handlingReceivedPackets.getAndSet(true)) {
+            scheduler.execute(this::handleReceivedPackets);
+        }
+    }
+
+    private void handleReceivedPackets() {
+        do {
+            ReceivedPacket received;
+            while ((received = receivedPackets.poll()) != null) {
+                try {
+                    lock.lock();
+                    if (selectorContext == null) {
+                        logger.trace("{} : Ignoring packet received after the communication handler stopped", logId);
+                    } else {
+                        handlePacket(received.packet, received.address);
+                    }
+                } catch (Exception e) {
+                    logger.error("{} while handling a packet from the light ({}): {}", e.getClass().getSimpleName(),
+                            logId, e.getMessage());
+                } finally {
+                    lock.unlock();
+                }
+            }
+            handlingReceivedPackets.set(false);
+            // a packet may have been queued after the queue was found empty but before the flag was reset
+        } while (!receivedPackets.isEmpty() && !handlingReceivedPackets.getAndSet(true));
     }
 
     private void handlePacket(Packet packet, InetSocketAddress address) {
@@ -218,7 +239,7 @@ public class LifxLightCommunicationHandler {
 
                             try {
                                 cancelKey(unicastKey, logId);
-                                unicastKey = openUnicastChannel(selector, logId, host);
+                                unicastKey = registerUnicastChannel(host);
 
                                 LifxSelectorContext context = selectorContext;
                                 if (context != null) {
@@ -33,15 +33,18 @@ public class LifxLightContext {
     private final LifxLightState pendingLightState;
     private final Product product;
     private final ScheduledExecutorService scheduler;
+    private final LifxSharedSelector sharedSelector;
 
     public LifxLightContext(String logId, Product product, LifxLightConfig configuration,
-            CurrentLightState currentLightState, LifxLightState pendingLightState, ScheduledExecutorService scheduler) {
+            CurrentLightState currentLightState, LifxLightState pendingLightState, ScheduledExecutorService scheduler,
+            LifxSharedSelector sharedSelector) {
         this.logId = logId;
         this.configuration = configuration;
         this.product = product;
         this.currentLightState = currentLightState;
         this.pendingLightState = pendingLightState;
         this.scheduler = scheduler;
+        this.sharedSelector = sharedSelector;
     }
 
     public String getLogId() {
@@ -67,4 +70,8 @@ public class LifxLightContext {
     public ScheduledExecutorService getScheduler() {
         return scheduler;
     }
+
+    public LifxSharedSelector getSharedSelector() {
+        return sharedSelector;
+    }
 }
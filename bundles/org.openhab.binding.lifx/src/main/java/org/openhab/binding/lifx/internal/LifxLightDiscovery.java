@@ -18,6 +18,7 @@ import static org.openhab.binding.lifx.internal.util.LifxSelectorUtil.*;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.util.HashMap;
@@ -43,6 +44,7 @@ import org.openhab.binding.lifx.internal.protocol.Product;
 import org.openhab.binding.lifx.internal.protocol.StateLabelResponse;
 import org.openhab.binding.lifx.internal.protocol.StateServiceResponse;
 import org.openhab.binding.lifx.internal.protocol.StateVersionResponse;
+import org.openhab.binding.lifx.internal.util.LifxNetworkUtil;
 import org.openhab.binding.lifx.internal.util.LifxSelectorUtil;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -214,6 +216,7 @@ public class LifxLightDiscovery extends AbstractDiscoveryService {
             }
 
             discoveredLights.clear();
+            ByteBuffer readBuffer = ByteBuffer.allocate(LifxNetworkUtil.getBufferSize());
             logger.trace("Entering read loop");
             long startStamp = System.currentTimeMillis();
 
@@ -221,7 +224,7 @@ public class LifxLightDiscovery extends AbstractDiscoveryService {
                 int lightCount = discoveredLights.size();
                 long selectStamp = System.currentTimeMillis();
 
-                LifxSelectorUtil.receiveAndHandlePackets(localSelector, LOG_ID,
+                LifxSelectorUtil.receiveAndHandlePackets(localSelector, LOG_ID, readBuffer,
                         (packet, address) -> handlePacket(packet, address));
                 requestAdditionalLightData();
 
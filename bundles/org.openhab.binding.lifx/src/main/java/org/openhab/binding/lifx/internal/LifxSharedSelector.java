@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.lifx.internal;
+
+import static org.openhab.binding.lifx.internal.util.LifxNetworkUtil.isRemoteAddress;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+import org.openhab.binding.lifx.internal.protocol.Packet;
+import org.openhab.binding.lifx.internal.util.LifxNetworkUtil;
+import org.openhab.binding.lifx.internal.util.LifxSelectorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link LifxSharedSelector} is the binding wide {@link Selector} on which the channels of all lights are
+ * registered. A single thread receives the packets of all lights into one reused buffer and dispatches them to the
+ * packet consumer of the light owning the channel.
+ *
+ * @author Wouter Born - Initial contribution
+ */
+@NonNullByDefault
+public class LifxSharedSelector {
+
+    private static final long REGISTER_TIMEOUT = 5000;
+    private static final String LOG_ID = "Shared selector";
+
+    private final Logger logger = LoggerFactory.getLogger(LifxSharedSelector.class);
+
+    private final NamedThreadFactory threadFactory = new NamedThreadFactory("lifx-selector", true);
+
+    private final Queue<Runnable> pendingRegistrations = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(LifxNetworkUtil.getBufferSize());
+
+    private @Nullable Selector selector;
+    private volatile @Nullable Thread selectorThread;
+
+    private static class Registration {
+        private final String logId;
+        private final BiConsumer<Packet, InetSocketAddress> packetConsumer;
+
+        private Registration(String logId, BiConsumer<Packet, InetSocketAddress> packetConsumer) {
+            this.logId = logId;
+            this.packetConsumer = packetConsumer;
+        }
+    }
+
+    public synchronized Selector getSelector() throws IOException {
+        Selector localSelector = selector;
+        if (localSelector == null || !localSelector.isOpen()) {
+            Selector newSelector = Selector.open();
+            Thread thread = threadFactory.newThread(() -> selectAndReceive(newSelector));
+            selector = newSelector;
+            selectorThread = thread;
+            thread.start();
+            localSelector = newSelector;
+        }
+        return localSelector;
+    }
+
+    /**
+     * Registers a channel for reading. The packets received on the channel are supplied to the packet consumer from
+     * the selector thread, so the consumer should not block.
+     *
+     * @param channel the channel to register, the channel is closed when the registration fails
+     * @param logId the identifier used in log messages
+     * @param packetConsumer consumer of the packets received on the channel
+     * @return the selection key of the channel
+     * @throws IOException when the channel could not be registered
+     */
+    public SelectionKey register(SelectableChannel channel, String logId,
+            BiConsumer<Packet, InetSocketAddress> packetConsumer) throws IOException {
+        try {
+            Selector localSelector = getSelector();
+            Registration registration = new Registration(logId, packetConsumer);
+            if (Thread.currentThread() == selectorThread) {
+                return channel.register(localSelector, SelectionKey.OP_READ, registration);
+            }
+
+            // Registering blocks while the selector thread is selecting, so let the selector thread register it
+            CompletableFuture<SelectionKey> future = new CompletableFuture<>();
+            pendingRegistrations.add(() -> {
+                try {
+                    future.complete(channel.register(localSelector, SelectionKey.OP_READ, registration));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            localSelector.wakeup();
+            return future.get(REGISTER_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            channel.close();
+            throw new InterruptedIOException("Interrupted while registering the channel of the light (" + logId + ")");
+        } catch (ExecutionException | TimeoutException e) {
+            channel.close();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IOException("Failed to register the channel of the light (" + logId + "): " + cause.getMessage(),
+                    cause);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void selectAndReceive(Selector selector) {
+        logger.debug("Starting LIFX selector thread");
+        try {
+            while (selector.isOpen() && !Thread.currentThread().isInterrupted()) {
+                Runnable registration;
+                while ((registration = pendingRegistrations.poll()) != null) {
+                    registration.run();
+                }
+
+                selector.select();
+
+                Iterator<SelectionKey> keyIterator = selector.selectedKeys().iterator();
+                while (keyIterator.hasNext()) {
+                    SelectionKey key = keyIterator.next();
+                    keyIterator.remove();
+                    if (key.isValid() && key.isReadable()) {
+                        receivePackets(key);
+                    }
+                }
+            }
+        } catch (ClosedSelectorException e) {
+            // the selector is closed when the binding stops
+        } catch (IOException e) {
+            logger.warn("{} while selecting keys for the lights: {}", e.getClass().getSimpleName(), e.getMessage());
+        }
+
+        // fail the registrations nobody will handle anymore
+        Runnable registration;
+        while ((registration = pendingRegistrations.poll()) != null) {
+            registration.run();
+        }
+        logger.debug("Finished LIFX selector thread");
+    }
+
+    @SuppressWarnings("resource")
+    private void receivePackets(SelectionKey key) {
+        Registration registration = (Registration) key.attachment();
+        SelectableChannel channel = key.channel();
+        if (registration == null || !(channel instanceof DatagramChannel)) {
+            return;
+        }
+
+        try {
+            // drain all datagrams that are queued on the channel
+            while (true) {
+                readBuffer.clear();
+                InetSocketAddress address = (InetSocketAddress) ((DatagramChannel) channel).receive(readBuffer);
+                if (address == null) {
+                    break;
+                }
+                if (isRemoteAddress(address.getAddress())) {
+                    LifxSelectorUtil.supplyParsedPacketToConsumer(readBuffer, address, registration.packetConsumer,
+                            registration.logId);
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("{} while reading data for the light ({}) : {}", e.getClass().getSimpleName(),
+                    registration.logId, e.getMessage());
+        }
+    }
+
+    public synchronized void close() {
+        Selector localSelector = selector;
+        selector = null;
+        selectorThread = null;
+        LifxSelectorUtil.closeSelector(localSelector, LOG_ID);
+    }
+}
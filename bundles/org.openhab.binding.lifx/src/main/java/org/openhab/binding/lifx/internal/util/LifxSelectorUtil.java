@@ -48,41 +48,67 @@ import org.slf4j.LoggerFactory;
 public class LifxSelectorUtil {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LifxSelectorUtil.class);
-    private static final int MAX_SEND_SELECT_RETRIES = 10;
-    private static final int SEND_SELECT_TIMEOUT = 200;
+    private static final int MAX_SEND_RETRIES = 10;
+    private static final int SEND_RETRY_INTERVAL = 20;
 
     enum CastType {
         BROADCAST,
         UNICAST
     }
 
-    @SuppressWarnings("resource")
     public static @Nullable SelectionKey openBroadcastChannel(@Nullable Selector selector, String logId,
             int broadcastPort) throws IOException {
         if (selector == null) {
             return null;
         }
-        DatagramChannel broadcastChannel = DatagramChannel.open(StandardProtocolFamily.INET)
-                .setOption(StandardSocketOptions.SO_REUSEADDR, true)
-                .setOption(StandardSocketOptions.SO_BROADCAST, true);
-        broadcastChannel.configureBlocking(false);
-        LOGGER.debug("{} : Binding the broadcast channel on port {}", logId, broadcastPort);
-        broadcastChannel.bind(new InetSocketAddress(broadcastPort));
-        return broadcastChannel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return register(createBroadcastChannel(logId, broadcastPort), selector);
     }
 
-    @SuppressWarnings("resource")
     public static @Nullable SelectionKey openUnicastChannel(@Nullable Selector selector, String logId,
             @Nullable InetSocketAddress address) throws IOException {
         if (selector == null || address == null) {
             return null;
         }
-        DatagramChannel unicastChannel = DatagramChannel.open(StandardProtocolFamily.INET)
-                .setOption(StandardSocketOptions.SO_REUSEADDR, true);
-        unicastChannel.configureBlocking(false);
-        unicastChannel.connect(address);
-        LOGGER.trace("{} : Connected to light via {}", logId, unicastChannel.getLocalAddress().toString());
-        return unicastChannel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return register(createUnicastChannel(logId, address), selector);
+    }
+
+    public static DatagramChannel createBroadcastChannel(String logId, int broadcastPort) throws IOException {
+        DatagramChannel broadcastChannel = DatagramChannel.open(StandardProtocolFamily.INET);
+        try {
+            broadcastChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                    .setOption(StandardSocketOptions.SO_BROADCAST, true);
+            broadcastChannel.configureBlocking(false);
+            LOGGER.debug("{} : Binding the broadcast channel on port {}", logId, broadcastPort);
+            broadcastChannel.bind(new InetSocketAddress(broadcastPort));
+            return broadcastChannel;
+        } catch (IOException e) {
+            broadcastChannel.close();
+            throw e;
+        }
+    }
+
+    public static DatagramChannel createUnicastChannel(String logId, InetSocketAddress address) throws IOException {
+        DatagramChannel unicastChannel = DatagramChannel.open(StandardProtocolFamily.INET);
+        try {
+            unicastChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            unicastChannel.configureBlocking(false);
+            unicastChannel.connect(address);
+            LOGGER.trace("{} : Connected to light via {}", logId, unicastChannel.getLocalAddress().toString());
+            return unicastChannel;
+        } catch (IOException e) {
+            unicastChannel.close();
+            throw e;
+        }
+    }
+
+    private static SelectionKey register(DatagramChannel channel, Selector selector) throws IOException {
+        try {
+            // packets are sent without waiting for the channel to become writable, so only reads are selected
+            return channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
     }
 
     public static void closeSelector(@Nullable Selector selector, String logId) {
@@ -125,8 +151,17 @@ public class LifxSelectorUtil {
         key.cancel();
     }
 
+    /**
+     * Receives the packets of all readable channels of the selector.
+     *
+     * @param selector the selector to select the readable channels with
+     * @param logId the identifier used in log messages
+     * @param readBuffer buffer reused for receiving the packets, it needs to be {@link LifxNetworkUtil#getBufferSize()}
+     *            bytes large
+     * @param packetConsumer consumer of the received packets
+     */
     @SuppressWarnings("resource")
-    public static void receiveAndHandlePackets(Selector selector, String logId,
+    public static void receiveAndHandlePackets(Selector selector, String logId, ByteBuffer readBuffer,
             BiConsumer<Packet, InetSocketAddress> packetConsumer) {
         try {
             selector.selectNow();
@@ -153,12 +188,12 @@ public class LifxSelectorUtil {
             if (key.isValid() && key.isReadable()) {
                 LOGGER.trace("{} : Channel is ready for reading", logId);
                 SelectableChannel channel = key.channel();
-                ByteBuffer readBuffer = ByteBuffer.allocate(LifxNetworkUtil.getBufferSize());
+                readBuffer.clear();
 
                 try {
                     if (channel instanceof DatagramChannel) {
                         InetSocketAddress address = (InetSocketAddress) ((DatagramChannel) channel).receive(readBuffer);
-                        if (isRemoteAddress(address.getAddress())) {
+                        if (address != null && isRemoteAddress(address.getAddress())) {
                             supplyParsedPacketToConsumer(readBuffer, address, packetConsumer, logId);
                         }
                     } else if (channel instanceof SocketChannel) {
@@ -176,7 +211,11 @@ public class LifxSelectorUtil {
         }
     }
 
-    private static void supplyParsedPacketToConsumer(ByteBuffer readBuffer, InetSocketAddress address,
+    /**
+     * Parses the packet in the buffer and supplies it to the consumer. The parsed packet holds no reference to the
+     * buffer, so the buffer can be reused afterwards.
+     */
+    public static void supplyParsedPacketToConsumer(ByteBuffer readBuffer, InetSocketAddress address,
             BiConsumer<Packet, InetSocketAddress> packetConsumer, String logId) {
         int messageLength = readBuffer.position();
         readBuffer.rewind();
@@ -268,37 +307,36 @@ public class LifxSelectorUtil {
                 LifxThrottlingUtil.lock();
             }
 
-            for (int i = 0; i <= MAX_SEND_SELECT_RETRIES; i++) {
-                context.getSelector().select(SEND_SELECT_TIMEOUT);
-
-                for (Iterator<SelectionKey> it = context.getSelector().selectedKeys().iterator(); it.hasNext();) {
-                    SelectionKey key = it.next();
-                    SelectionKey castKey = castType == UNICAST ? context.getUnicastKey() : context.getBroadcastKey();
-
-                    if (key.isValid() && key.isWritable() && key.equals(castKey)) {
-                        SelectableChannel channel = key.channel();
-                        if (channel instanceof DatagramChannel) {
-                            if (LOGGER.isTraceEnabled()) {
-                                LOGGER.trace(
-                                        "{} : Sending packet type '{}' from '{}' to '{}' for '{}' with sequence '{}' and source '{}'",
-                                        new Object[] { context.getLogId(), packet.getClass().getSimpleName(),
-                                                ((InetSocketAddress) ((DatagramChannel) channel).getLocalAddress())
-                                                        .toString(),
-                                                address.toString(), packet.getTarget().getHex(), packet.getSequence(),
-                                                Long.toString(packet.getSource(), 16) });
-                            }
-                            ((DatagramChannel) channel).send(packet.bytes(), address);
-                            return true;
-                        } else if (channel instanceof SocketChannel) {
-                            ((SocketChannel) channel).write(packet.bytes());
-                            return true;
-                        }
+            SelectionKey castKey = castType == UNICAST ? context.getUnicastKey() : context.getBroadcastKey();
+            if (castKey == null || !castKey.isValid()) {
+                LOGGER.debug("Failed to send packet without open channel to the light ({})", context.getLogId());
+                return false;
+            }
+
+            SelectableChannel channel = castKey.channel();
+            for (int i = 0; i <= MAX_SEND_RETRIES; i++) {
+                if (channel instanceof DatagramChannel) {
+                    if (LOGGER.isTraceEnabled()) {
+                        LOGGER.trace(
+                                "{} : Sending packet type '{}' from '{}' to '{}' for '{}' with sequence '{}' and source '{}'",
+                                new Object[] { context.getLogId(), packet.getClass().getSimpleName(),
+                                        ((InetSocketAddress) ((DatagramChannel) channel).getLocalAddress()).toString(),
+                                        address.toString(), packet.getTarget().getHex(), packet.getSequence(),
+                                        Long.toString(packet.getSource(), 16) });
+                    }
+                    // a non-blocking channel sends nothing when the socket send buffer is full
+                    if (((DatagramChannel) channel).send(packet.bytes(), address) > 0) {
+                        return true;
                     }
+                } else if (channel instanceof SocketChannel) {
+                    ((SocketChannel) channel).write(packet.bytes());
+                    return true;
                 }
 
-                if (i == MAX_SEND_SELECT_RETRIES) {
-                    LOGGER.debug("Failed to send packet after {} select retries to the light ({})", i,
-                            context.getLogId());
+                if (i == MAX_SEND_RETRIES) {
+                    LOGGER.debug("Failed to send packet after {} retries to the light ({})", i, context.getLogId());
+                } else {
+                    Thread.sleep(SEND_RETRY_INTERVAL);
                 }
             }
         } catch (Exception e) {
@@ -24,7 +24,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -57,6 +56,7 @@ import org.openhab.binding.loxone.internal.types.LxResponse;
 import org.openhab.binding.loxone.internal.types.LxState;
 import org.openhab.binding.loxone.internal.types.LxStateUpdate;
 import org.openhab.binding.loxone.internal.types.LxUuid;
+import org.openhab.binding.loxone.internal.types.LxUuidTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -87,6 +87,8 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     // the state. It must be ensured that updates received for this state UUID are passed to all controls that have this
     // state UUID configured.
     private Map<LxUuid, Map<LxUuid, LxState>> states = new HashMap<>();
+    // Keys of the states map, to resolve binary state UUIDs received from the Miniserver without object creation
+    private final LxUuidTable stateUuids = new LxUuidTable();
 
     private LxWebSocket socket;
     private WebSocketClient wsClient;
@@ -101,7 +103,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     // Data structures
     private final Map<LxUuid, LxControl> controls = new HashMap<>();
     private final Map<ChannelUID, LxControl> channels = new HashMap<>();
-    private final ConcurrentLinkedQueue<LxStateUpdate> stateUpdateQueue = new ConcurrentLinkedQueue<>();
+    private final LxStateUpdateQueue stateUpdateQueue = new LxStateUpdateQueue();
 
     private LxDynamicStateDescriptionProvider dynamicStateDescriptionProvider;
     private final Logger logger = LoggerFactory.getLogger(LxServerHandler.class);
@@ -271,6 +273,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
                 perUuid.remove(controlUuid);
                 if (perUuid.isEmpty()) {
                     states.remove(stateUuid);
+                    stateUuids.remove(stateUuid);
                 }
             }
         });
@@ -368,6 +371,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
         controls.clear();
         channels.clear();
         states.clear();
+        stateUuids.clear();
         dynamicStateDescriptionProvider.removeAllDescriptions();
     }
 
@@ -466,7 +470,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
      * @param value new state value
      */
     void queueStateUpdate(LxUuid uuid, Object value) {
-        stateUpdateQueue.add(new LxStateUpdate(uuid, value));
+        stateUpdateQueue.add(uuid, value);
         queueUpdatedLock.lock();
         try {
             queueUpdated.signalAll();
@@ -475,6 +479,21 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
         }
     }
 
+    /**
+     * Put a new state update event for a state UUID in binary form to the queue. Updates of states, which are not
+     * configured in any control, are dropped here already.
+     *
+     * @param msb most significant 64 bits of the state uuid
+     * @param lsb least significant 64 bits of the state uuid
+     * @param value new state value
+     */
+    void queueStateUpdate(long msb, long lsb, Object value) {
+        LxUuid uuid = stateUuids.get(msb, lsb);
+        if (uuid != null) {
+            queueStateUpdate(uuid, value);
+        }
+    }
+
     /**
      * Update to the new value of a state received from Miniserver. This method will go through all instances of this
      * state UUID and update their value, which will trigger corresponding control state update method in each control
@@ -509,6 +528,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
             if (perUuid == null) {
                 perUuid = new HashMap<>();
                 states.put(state.getUuid(), perUuid);
+                stateUuids.put(state.getUuid());
             }
             perUuid.put(uuid, state);
         });
@@ -687,6 +707,15 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
             socket.sendKeepAlive();
             lastKeepAlive = Instant.now();
             elapsed = 0;
+            logQueueMetrics();
+        }
+
+        private void logQueueMetrics() {
+            int maxDepth = stateUpdateQueue.getAndResetMaxDepth();
+            long received = stateUpdateQueue.getReceivedCount();
+            long dropped = stateUpdateQueue.getDroppedCount();
+            logger.debug("[{}] State updates received: {}, dropped intermediate values: {}, max queue depth: {}",
+                    debugId, received, dropped, maxDepth);
         }
     }
 
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.loxone.internal.types.LxStateUpdate;
+import org.openhab.binding.loxone.internal.types.LxUuid;
+
+/**
+ * A queue of state updates received from the Miniserver, which coalesces pending updates per state UUID.
+ * <p>
+ * Only the latest value of a state is kept until the handler thread processes it. Intermediate values of quickly
+ * changing states (like analog meters) are dropped, so the queue never grows beyond the number of states and the
+ * latency of other state updates stays flat. States are processed in the order of their first pending update.
+ *
+ * @author Pawel Pieczul - initial contribution
+ *
+ */
+class LxStateUpdateQueue {
+    private final Map<LxUuid, Object> pendingValues = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<LxUuid> pendingOrder = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    /**
+     * Adds a state update. If there is already a pending update for this state, its value is replaced.
+     *
+     * @param uuid state uuid
+     * @param value new state value
+     */
+    void add(LxUuid uuid, Object value) {
+        received.incrementAndGet();
+        if (pendingValues.put(uuid, value) == null) {
+            pendingOrder.add(uuid);
+            int depth = pendingValues.size();
+            maxDepth.accumulateAndGet(depth, Math::max);
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Takes the next state update from the queue.
+     *
+     * @return state update with the latest value of the state or null if the queue is empty
+     */
+    LxStateUpdate poll() {
+        LxUuid uuid;
+        while ((uuid = pendingOrder.poll()) != null) {
+            Object value = pendingValues.remove(uuid);
+            if (value != null) {
+                return new LxStateUpdate(uuid, value);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all pending state updates.
+     */
+    void clear() {
+        pendingOrder.clear();
+        pendingValues.clear();
+    }
+
+    /**
+     * Returns the number of states with a pending update.
+     *
+     * @return current queue depth
+     */
+    int size() {
+        return pendingValues.size();
+    }
+
+    /**
+     * Returns the maximum queue depth since the last call and resets it to the current depth.
+     *
+     * @return maximum queue depth
+     */
+    int getAndResetMaxDepth() {
+        return maxDepth.getAndSet(pendingValues.size());
+    }
+
+    /**
+     * Returns the number of all received state updates.
+     *
+     * @return number of received updates
+     */
+    long getReceivedCount() {
+        return received.get();
+    }
+
+    /**
+     * Returns the number of intermediate state values that were replaced by a newer value before processing.
+     *
+     * @return number of dropped values
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -233,14 +233,15 @@ public class LxWebSocket {
                         break;
                 }
             } else {
-                // data expected now
+                // data expected now, one little-endian view over the whole frame serves all its entries
+                ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
                 switch (header.getType()) {
                     case EVENT_TABLE_OF_VALUE_STATES:
                         stopResponseTimeout();
                         while (length > 0) {
-                            Double value = ByteBuffer.wrap(data, offset + 16, 8).order(ByteOrder.LITTLE_ENDIAN)
-                                    .getDouble();
-                            thingHandler.queueStateUpdate(new LxUuid(data, offset), value);
+                            double value = buffer.getDouble(offset + 16);
+                            thingHandler.queueStateUpdate(LxUuid.getMostSignificantBits(buffer, offset),
+                                    LxUuid.getLeastSignificantBits(buffer, offset), value);
                             offset += 24;
                             length -= 24;
                         }
@@ -248,10 +249,11 @@ public class LxWebSocket {
                     case EVENT_TABLE_OF_TEXT_STATES:
                         while (length > 0) {
                             // unused today at (offset + 16): iconUuid
-                            int textLen = ByteBuffer.wrap(data, offset + 32, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+                            int textLen = buffer.getInt(offset + 32);
                             String value = new String(data, offset + 36, textLen);
                             int size = 36 + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
-                            thingHandler.queueStateUpdate(new LxUuid(data, offset), value);
+                            thingHandler.queueStateUpdate(LxUuid.getMostSignificantBits(buffer, offset),
+                                    LxUuid.getLeastSignificantBits(buffer, offset), value);
                             offset += size;
                             length -= size;
                         }
@@ -33,6 +33,9 @@ import com.google.gson.JsonParseException;
 public class LxUuid {
     private final String uuid;
     private final String uuidOriginal;
+    private final long msb;
+    private final long lsb;
+    private final boolean binary;
 
     public static final JsonDeserializer<LxUuid> DESERIALIZER = new JsonDeserializer<LxUuid>() {
         @Override
@@ -54,17 +57,85 @@ public class LxUuid {
     public LxUuid(String uuid) {
         uuidOriginal = uuid;
         this.uuid = init(uuid);
+        // Only UUIDs in the format of the binary state events (8-4-4-16 hex digits) have a binary form
+        binary = this.uuid.length() == 35 && this.uuid.charAt(8) == '-' && this.uuid.charAt(13) == '-'
+                && this.uuid.charAt(18) == '-' && isHex(this.uuid, 0, 8) && isHex(this.uuid, 9, 13)
+                && isHex(this.uuid, 14, 18) && isHex(this.uuid, 19, 35);
+        if (binary) {
+            msb = Long.parseUnsignedLong(this.uuid.substring(0, 8) + this.uuid.substring(9, 13)
+                    + this.uuid.substring(14, 18), 16);
+            lsb = Long.parseUnsignedLong(this.uuid.substring(19, 35), 16);
+        } else {
+            msb = 0;
+            lsb = 0;
+        }
     }
 
+    /**
+     * Create a new {@link LxUuid} object from its binary representation in a Miniserver's binary message.
+     *
+     * @param data binary message buffer
+     * @param offset offset of the UUID in the buffer
+     */
     public LxUuid(byte data[], int offset) {
-        String id = String.format("%08x-%04x-%04x-%02x%02x%02x%02x%02x%02x%02x%02x",
-                ByteBuffer.wrap(data, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt(),
-                ByteBuffer.wrap(data, offset + 4, 2).order(ByteOrder.LITTLE_ENDIAN).getShort(),
-                ByteBuffer.wrap(data, offset + 6, 2).order(ByteOrder.LITTLE_ENDIAN).getShort(), data[offset + 8],
-                data[offset + 9], data[offset + 10], data[offset + 11], data[offset + 12], data[offset + 13],
-                data[offset + 14], data[offset + 15]);
+        this(ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN), offset);
+    }
+
+    private LxUuid(ByteBuffer buffer, int offset) {
+        this(getMostSignificantBits(buffer, offset), getLeastSignificantBits(buffer, offset));
+    }
+
+    private LxUuid(long msb, long lsb) {
+        String id = toHex(msb >>> 32, 8) + "-" + toHex(msb >>> 16, 4) + "-" + toHex(msb, 4) + "-" + toHex(lsb, 16);
         uuidOriginal = id;
-        this.uuid = init(id);
+        uuid = id.toUpperCase();
+        this.msb = msb;
+        this.lsb = lsb;
+        binary = true;
+    }
+
+    /**
+     * Reads the most significant 64 bits of a UUID from a Miniserver's binary message, without any allocation.
+     * The first 32 bit value and the two following 16 bit values are stored in little-endian order.
+     *
+     * @param buffer little-endian view of the binary message
+     * @param offset offset of the UUID in the buffer
+     * @return most significant bits of the UUID
+     */
+    public static long getMostSignificantBits(ByteBuffer buffer, int offset) {
+        return ((buffer.getInt(offset) & 0xffffffffL) << 32) | ((buffer.getShort(offset + 4) & 0xffffL) << 16)
+                | (buffer.getShort(offset + 6) & 0xffffL);
+    }
+
+    /**
+     * Reads the least significant 64 bits of a UUID from a Miniserver's binary message, without any allocation.
+     * The last 8 bytes are stored in big-endian order.
+     *
+     * @param buffer little-endian view of the binary message
+     * @param offset offset of the UUID in the buffer
+     * @return least significant bits of the UUID
+     */
+    public static long getLeastSignificantBits(ByteBuffer buffer, int offset) {
+        return Long.reverseBytes(buffer.getLong(offset + 8));
+    }
+
+    private static String toHex(long value, int digits) {
+        char[] chars = new char[digits];
+        long v = value;
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[i] = Character.forDigit((int) (v & 0xf), 16);
+            v >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    private static boolean isHex(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Character.digit(s.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private String init(String uuid) {
@@ -96,6 +167,33 @@ public class LxUuid {
         return uuid;
     }
 
+    /**
+     * Checks if this UUID has a binary form, as used in Miniserver's binary state update messages.
+     *
+     * @return true if {@link #getMostSignificantBits()} and {@link #getLeastSignificantBits()} are valid
+     */
+    public boolean hasBinaryForm() {
+        return binary;
+    }
+
+    /**
+     * Returns the most significant 64 bits of the binary form of this UUID.
+     *
+     * @return most significant bits or 0 if there is no binary form
+     */
+    public long getMostSignificantBits() {
+        return msb;
+    }
+
+    /**
+     * Returns the least significant 64 bits of the binary form of this UUID.
+     *
+     * @return least significant bits or 0 if there is no binary form
+     */
+    public long getLeastSignificantBits() {
+        return lsb;
+    }
+
     /**
      * Returns an original string that was used to create UUID.
      *
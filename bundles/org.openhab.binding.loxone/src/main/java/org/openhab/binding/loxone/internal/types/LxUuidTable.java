@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.types;
+
+import java.util.Arrays;
+
+/**
+ * A lookup table of {@link LxUuid} objects by the binary form of the UUID.
+ * <p>
+ * Binary state update messages from the Miniserver contain thousands of UUIDs. Using this table, they can be resolved
+ * to the UUID objects of the configured states directly from the two 64 bit halves of the UUID, without creating a
+ * new object for every received UUID. UUIDs without a binary form are not stored.
+ * <p>
+ * The table uses open addressing with linear probing on primitive arrays. It is synchronized, because it is filled
+ * when the Miniserver configuration is processed and read from the websocket thread.
+ *
+ * @author Pawel Pieczul - initial contribution
+ *
+ */
+public class LxUuidTable {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long[] msbs = new long[INITIAL_CAPACITY];
+    private long[] lsbs = new long[INITIAL_CAPACITY];
+    private LxUuid[] uuids = new LxUuid[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Adds a UUID to the table. If a UUID with the same binary form already exists, it is replaced.
+     *
+     * @param uuid UUID to add
+     */
+    public synchronized void put(LxUuid uuid) {
+        if (!uuid.hasBinaryForm()) {
+            return;
+        }
+        if ((size + 1) * 2 > uuids.length) {
+            resize(uuids.length * 2);
+        }
+        if (insert(uuid)) {
+            size++;
+        }
+    }
+
+    /**
+     * Finds the UUID object for the binary form of a UUID.
+     *
+     * @param msb most significant 64 bits of the UUID
+     * @param lsb least significant 64 bits of the UUID
+     * @return UUID object or null if not in the table
+     */
+    public synchronized LxUuid get(long msb, long lsb) {
+        int mask = uuids.length - 1;
+        for (int i = index(msb, lsb, mask);; i = (i + 1) & mask) {
+            LxUuid uuid = uuids[i];
+            if (uuid == null) {
+                return null;
+            }
+            if (msbs[i] == msb && lsbs[i] == lsb) {
+                return uuid;
+            }
+        }
+    }
+
+    /**
+     * Removes a UUID from the table.
+     *
+     * @param uuid UUID to remove
+     */
+    public synchronized void remove(LxUuid uuid) {
+        if (!uuid.hasBinaryForm() || get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) == null) {
+            return;
+        }
+        // Removal is rare (only when a control is removed), rebuild the probe sequences without the entry
+        LxUuid[] old = uuids;
+        msbs = new long[old.length];
+        lsbs = new long[old.length];
+        uuids = new LxUuid[old.length];
+        size = 0;
+        for (LxUuid entry : old) {
+            if (entry != null && !(entry.getMostSignificantBits() == uuid.getMostSignificantBits()
+                    && entry.getLeastSignificantBits() == uuid.getLeastSignificantBits())) {
+                insert(entry);
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Removes all UUIDs from the table.
+     */
+    public synchronized void clear() {
+        Arrays.fill(msbs, 0);
+        Arrays.fill(lsbs, 0);
+        Arrays.fill(uuids, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of UUIDs in the table.
+     *
+     * @return number of UUIDs
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean insert(LxUuid uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        int mask = uuids.length - 1;
+        int i = index(msb, lsb, mask);
+        while (uuids[i] != null) {
+            if (msbs[i] == msb && lsbs[i] == lsb) {
+                uuids[i] = uuid;
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        msbs[i] = msb;
+        lsbs[i] = lsb;
+        uuids[i] = uuid;
+        return true;
+    }
+
+    private void resize(int capacity) {
+        LxUuid[] old = uuids;
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        uuids = new LxUuid[capacity];
+        for (LxUuid entry : old) {
+            if (entry != null) {
+                insert(entry);
+            }
+        }
+    }
+
+    private static int index(long msb, long lsb, int mask) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
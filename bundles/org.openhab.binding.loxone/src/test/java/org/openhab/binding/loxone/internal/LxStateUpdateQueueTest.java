@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.binding.loxone.internal.types.LxStateUpdate;
+import org.openhab.binding.loxone.internal.types.LxUuid;
+
+/**
+ * Test class for the coalescing {@link LxStateUpdateQueue}.
+ *
+ * @author Pawel Pieczul - initial contribution
+ *
+ */
+public class LxStateUpdateQueueTest {
+    private final LxUuid meter = new LxUuid("0fe3a451-0283-2ae4-ffff403fb0c34b9e");
+    private final LxUuid light = new LxUuid("0fe3a451-0283-2ae4-ffff403fb0c34b9f");
+
+    @Test
+    public void testLastValueWins() {
+        LxStateUpdateQueue queue = new LxStateUpdateQueue();
+        for (int i = 0; i < 100; i++) {
+            queue.add(meter, Double.valueOf(i));
+        }
+        queue.add(light, "on");
+        queue.add(meter, 100.0);
+
+        assertEquals(2, queue.size());
+        assertEquals(102, queue.getReceivedCount());
+        assertEquals(100, queue.getDroppedCount());
+        assertEquals(2, queue.getAndResetMaxDepth());
+
+        LxStateUpdate update = queue.poll();
+        assertEquals(meter, update.getUuid());
+        assertEquals(100.0, update.getValue());
+        update = queue.poll();
+        assertEquals(light, update.getUuid());
+        assertEquals("on", update.getValue());
+        assertNull(queue.poll());
+        // the depth at the last reset was still 2, the next period starts empty
+        assertEquals(2, queue.getAndResetMaxDepth());
+        assertEquals(0, queue.getAndResetMaxDepth());
+    }
+
+    @Test
+    public void testUpdateAfterPoll() {
+        LxStateUpdateQueue queue = new LxStateUpdateQueue();
+        queue.add(meter, 1.0);
+        assertEquals(1.0, queue.poll().getValue());
+
+        // a processed state is queued again
+        queue.add(meter, 2.0);
+        assertEquals(1, queue.size());
+        assertEquals(2.0, queue.poll().getValue());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    public void testClear() {
+        LxStateUpdateQueue queue = new LxStateUpdateQueue();
+        queue.add(meter, 1.0);
+        queue.add(light, 1.0);
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+
+        queue.add(meter, 3.0);
+        assertEquals(3.0, queue.poll().getValue());
+        assertNull(queue.poll());
+    }
+}
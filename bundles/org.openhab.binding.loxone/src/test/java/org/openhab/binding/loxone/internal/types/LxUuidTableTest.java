@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.types;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test class for binary {@link LxUuid} decoding and the {@link LxUuidTable}.
+ *
+ * @author Pawel Pieczul - initial contribution
+ *
+ */
+public class LxUuidTableTest {
+    private static final int STATES = 200;
+
+    private final Random random = new Random(12345);
+
+    @Test
+    public void testBinaryForm() {
+        for (int i = 0; i < 1000; i++) {
+            byte[] data = new byte[16];
+            random.nextBytes(data);
+            ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+            String formatted = String.format("%08x-%04x-%04x-%02x%02x%02x%02x%02x%02x%02x%02x", buffer.getInt(0),
+                    buffer.getShort(4), buffer.getShort(6), data[8], data[9], data[10], data[11], data[12], data[13],
+                    data[14], data[15]);
+
+            LxUuid binary = new LxUuid(data, 0);
+            LxUuid parsed = new LxUuid(formatted);
+            assertEquals(formatted, binary.getOriginalString());
+            assertEquals(parsed, binary);
+            assertTrue(parsed.hasBinaryForm());
+            assertEquals(LxUuid.getMostSignificantBits(buffer, 0), parsed.getMostSignificantBits());
+            assertEquals(LxUuid.getLeastSignificantBits(buffer, 0), parsed.getLeastSignificantBits());
+            assertEquals(binary.getMostSignificantBits(), parsed.getMostSignificantBits());
+            assertEquals(binary.getLeastSignificantBits(), parsed.getLeastSignificantBits());
+        }
+    }
+
+    @Test
+    public void testNoBinaryForm() {
+        assertFalse(new LxUuid("0fe3a451-0283-2ae4-ffff403fb0c34b9e/AI1").hasBinaryForm());
+        assertFalse(new LxUuid("0fe3a451-0283-2ae4-ffff403fb0c34b9e-M1").hasBinaryForm());
+        assertFalse(new LxUuid("0fe3a451-0283-2ae4-ffff403fb0c34bXX").hasBinaryForm());
+        assertTrue(new LxUuid("0FE3A451-0283-2AE4-FFFF403FB0C34B9E").hasBinaryForm());
+
+        LxUuidTable table = new LxUuidTable();
+        table.put(new LxUuid("0fe3a451-0283-2ae4-ffff403fb0c34b9e/AI1"));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testTable() {
+        LxUuidTable table = new LxUuidTable();
+        LxUuid[] uuids = randomUuids(1000);
+        for (LxUuid uuid : uuids) {
+            table.put(uuid);
+        }
+        assertEquals(uuids.length, table.size());
+        for (LxUuid uuid : uuids) {
+            assertSame(uuid, table.get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+
+        // replacing an existing UUID does not change the size
+        LxUuid replacement = new LxUuid(uuids[0].toString());
+        table.put(replacement);
+        assertEquals(uuids.length, table.size());
+        assertSame(replacement, table.get(uuids[0].getMostSignificantBits(), uuids[0].getLeastSignificantBits()));
+
+        table.remove(uuids[1]);
+        assertEquals(uuids.length - 1, table.size());
+        assertNull(table.get(uuids[1].getMostSignificantBits(), uuids[1].getLeastSignificantBits()));
+        for (int i = 2; i < uuids.length; i++) {
+            assertSame(uuids[i], table.get(uuids[i].getMostSignificantBits(), uuids[i].getLeastSignificantBits()));
+        }
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertNull(table.get(uuids[2].getMostSignificantBits(), uuids[2].getLeastSignificantBits()));
+    }
+
+    /**
+     * Decodes a table of value states, as sent by the Miniserver after enabling status updates, and checks that only
+     * the configured states are resolved, each with its own value.
+     */
+    @Test
+    public void decodeStateDump() {
+        LxUuid[] uuids = randomUuids(STATES);
+        LxUuidTable table = new LxUuidTable();
+        // a half of the states is configured in controls
+        for (int i = 0; i < uuids.length; i += 2) {
+            table.put(uuids[i]);
+        }
+
+        // binary table of value states: 16 bytes UUID followed by 8 bytes double value
+        byte[] frame = new byte[uuids.length * 24];
+        ByteBuffer writer = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < uuids.length; i++) {
+            long msb = uuids[i].getMostSignificantBits();
+            writer.putInt(i * 24, (int) (msb >>> 32));
+            writer.putShort(i * 24 + 4, (short) (msb >>> 16));
+            writer.putShort(i * 24 + 6, (short) msb);
+            writer.putLong(i * 24 + 8, Long.reverseBytes(uuids[i].getLeastSignificantBits()));
+            writer.putDouble(i * 24 + 16, i);
+        }
+
+        int found = 0;
+        ByteBuffer buffer = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+        for (int offset = 0; offset < frame.length; offset += 24) {
+            int index = offset / 24;
+            LxUuid uuid = table.get(LxUuid.getMostSignificantBits(buffer, offset),
+                    LxUuid.getLeastSignificantBits(buffer, offset));
+            if (index % 2 == 0) {
+                assertSame(uuids[index], uuid);
+                assertEquals(index, buffer.getDouble(offset + 16), 0.0);
+                found++;
+            } else {
+                assertNull(uuid);
+            }
+        }
+        assertEquals((uuids.length + 1) / 2, found);
+    }
+
+    private LxUuid[] randomUuids(int count) {
+        LxUuid[] uuids = new LxUuid[count];
+        byte[] data = new byte[16];
+        for (int i = 0; i < count; i++) {
+            random.nextBytes(data);
+            uuids[i] = new LxUuid(data, 0);
+        }
+        return uuids;
+    }
+}
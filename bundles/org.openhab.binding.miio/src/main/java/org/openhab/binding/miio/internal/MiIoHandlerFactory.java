@@ -32,6 +32,8 @@ import org.openhab.binding.miio.internal.handler.MiIoBasicHandler;
 import org.openhab.binding.miio.internal.handler.MiIoGenericHandler;
 import org.openhab.binding.miio.internal.handler.MiIoUnsupportedHandler;
 import org.openhab.binding.miio.internal.handler.MiIoVacuumHandler;
+import org.openhab.binding.miio.internal.transport.MiIoUdpTransport;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -46,12 +48,15 @@ import org.osgi.service.component.annotations.Reference;
 @NonNullByDefault
 public class MiIoHandlerFactory extends BaseThingHandlerFactory {
     private static final String THING_HANDLER_THREADPOOL_NAME = "thingHandler";
+    private static final String TRANSPORT_THREADPOOL_NAME = "miio";
     protected final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(THING_HANDLER_THREADPOOL_NAME);
 
     private MiIoDatabaseWatchService miIoDatabaseWatchService;
     private CloudConnector cloudConnector;
     private ChannelTypeRegistry channelTypeRegistry;
+    private final MiIoUdpTransport transport = new MiIoUdpTransport(
+            ThreadPoolManager.getScheduledPool(TRANSPORT_THREADPOOL_NAME));
 
     @Activate
     public MiIoHandlerFactory(@Reference ChannelTypeRegistry channelTypeRegistry,
@@ -70,6 +75,12 @@ public class MiIoHandlerFactory extends BaseThingHandlerFactory {
         this.channelTypeRegistry = channelTypeRegistry;
     }
 
+    @Override
+    protected void deactivate(ComponentContext componentContext) {
+        transport.close();
+        super.deactivate(componentContext);
+    }
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
@@ -79,14 +90,15 @@ public class MiIoHandlerFactory extends BaseThingHandlerFactory {
     protected @Nullable ThingHandler createHandler(Thing thing) {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
         if (thingTypeUID.equals(THING_TYPE_MIIO)) {
-            return new MiIoGenericHandler(thing, miIoDatabaseWatchService);
+            return new MiIoGenericHandler(thing, miIoDatabaseWatchService, transport);
         }
         if (thingTypeUID.equals(THING_TYPE_BASIC)) {
-            return new MiIoBasicHandler(thing, miIoDatabaseWatchService);
+            return new MiIoBasicHandler(thing, miIoDatabaseWatchService, transport);
         }
         if (thingTypeUID.equals(THING_TYPE_VACUUM)) {
-            return new MiIoVacuumHandler(thing, miIoDatabaseWatchService, cloudConnector, channelTypeRegistry);
+            return new MiIoVacuumHandler(thing, miIoDatabaseWatchService, transport, cloudConnector,
+                    channelTypeRegistry);
         }
-        return new MiIoUnsupportedHandler(thing, miIoDatabaseWatchService);
+        return new MiIoUnsupportedHandler(thing, miIoDatabaseWatchService, transport);
     }
 }
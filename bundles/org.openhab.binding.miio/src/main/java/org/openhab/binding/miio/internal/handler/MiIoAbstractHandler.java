@@ -48,6 +48,7 @@ import org.openhab.binding.miio.internal.MiIoSendCommand;
 import org.openhab.binding.miio.internal.Utils;
 import org.openhab.binding.miio.internal.basic.MiIoDatabaseWatchService;
 import org.openhab.binding.miio.internal.transport.MiIoAsyncCommunication;
+import org.openhab.binding.miio.internal.transport.MiIoUdpTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -92,10 +93,13 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
 
     private final Logger logger = LoggerFactory.getLogger(MiIoAbstractHandler.class);
     protected MiIoDatabaseWatchService miIoDatabaseWatchService;
+    protected final MiIoUdpTransport transport;
 
-    public MiIoAbstractHandler(Thing thing, MiIoDatabaseWatchService miIoDatabaseWatchService) {
+    public MiIoAbstractHandler(Thing thing, MiIoDatabaseWatchService miIoDatabaseWatchService,
+            MiIoUdpTransport transport) {
         super(thing);
         this.miIoDatabaseWatchService = miIoDatabaseWatchService;
+        this.transport = transport;
     }
 
     @Override
@@ -298,8 +302,8 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
         try {
             if (deviceId != null && deviceId.length() == 8 && tokenCheckPass(configuration.token)) {
                 logger.debug("Ping Mi device {} at {}", deviceId, configuration.host);
-                final MiIoAsyncCommunication miioCom = new MiIoAsyncCommunication(configuration.host, token,
-                        Utils.hexStringToByteArray(deviceId), lastId, configuration.timeout);
+                final MiIoAsyncCommunication miioCom = new MiIoAsyncCommunication(transport, configuration.host,
+                        token, Utils.hexStringToByteArray(deviceId), lastId, configuration.timeout);
                 Message miIoResponse = miioCom.sendPing(configuration.host);
                 if (miIoResponse != null) {
                     logger.debug("Ping response from device {} at {}. Time stamp: {}, OH time {}, delta {}",
@@ -313,8 +317,8 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
                 }
             } else {
                 logger.debug("No device ID defined. Retrieving Mi device ID");
-                final MiIoAsyncCommunication miioCom = new MiIoAsyncCommunication(configuration.host, token,
-                        new byte[0], lastId, configuration.timeout);
+                final MiIoAsyncCommunication miioCom = new MiIoAsyncCommunication(transport, configuration.host,
+                        token, new byte[0], lastId, configuration.timeout);
                 Message miIoResponse = miioCom.sendPing(configuration.host);
                 if (miIoResponse != null) {
                     logger.debug("Ping response from device {} at {}. Time stamp: {}, OH time {}, delta {}",
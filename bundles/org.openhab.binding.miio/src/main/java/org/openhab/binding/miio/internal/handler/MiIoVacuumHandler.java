@@ -26,6 +26,7 @@ import java.util.Date;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.imageio.ImageIO;
 
@@ -65,6 +66,7 @@ import org.openhab.binding.miio.internal.robot.StatusDTO;
 import org.openhab.binding.miio.internal.robot.StatusType;
 import org.openhab.binding.miio.internal.robot.VacuumErrorType;
 import org.openhab.binding.miio.internal.transport.MiIoAsyncCommunication;
+import org.openhab.binding.miio.internal.transport.MiIoUdpTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,14 +99,15 @@ public class MiIoVacuumHandler extends MiIoAbstractHandler {
     private ExpiringCache<String> map;
     private String lastHistoryId = "";
     private String lastMap = "";
+    private final AtomicReference<@Nullable RRMapDraw> lastMapDraw = new AtomicReference<>();
     private CloudConnector cloudConnector;
     private boolean hasChannelStructure;
     private ConcurrentHashMap<RobotCababilities, Boolean> deviceCapabilities = new ConcurrentHashMap<>();
     private ChannelTypeRegistry channelTypeRegistry;
 
     public MiIoVacuumHandler(Thing thing, MiIoDatabaseWatchService miIoDatabaseWatchService,
-            CloudConnector cloudConnector, ChannelTypeRegistry channelTypeRegistry) {
-        super(thing, miIoDatabaseWatchService);
+            MiIoUdpTransport transport, CloudConnector cloudConnector, ChannelTypeRegistry channelTypeRegistry) {
+        super(thing, miIoDatabaseWatchService, transport);
         this.cloudConnector = cloudConnector;
         this.channelTypeRegistry = channelTypeRegistry;
         mapChannelUid = new ChannelUID(thing.getUID(), CHANNEL_VACUUM_MAP);
@@ -586,7 +589,9 @@ public class MiIoVacuumHandler extends MiIoAbstractHandler {
                         (configuration.cloudServer != null) ? configuration.cloudServer : "");
                 if (mapDl != null) {
                     byte[] mapData = mapDl.getBytes();
-                    RRMapDraw rrMap = RRMapDraw.loadImage(new ByteArrayInputStream(mapData));
+                    // reuse the image buffers of the previous map, unless another map is being drawn right now
+                    RRMapDraw rrMap = RRMapDraw.loadImage(new ByteArrayInputStream(mapData),
+                            lastMapDraw.getAndSet(null));
                     ByteArrayOutputStream baos = new ByteArrayOutputStream();
                     if (logger.isDebugEnabled()) {
                         final String mapPath = MAP_PATH + map + DATEFORMATTER.format(new Date()) + ".rrmap";
@@ -594,6 +599,7 @@ public class MiIoVacuumHandler extends MiIoAbstractHandler {
                         logger.debug("Mapdata saved to {}", mapPath);
                     }
                     ImageIO.write(rrMap.getImage(MAP_SCALE), "jpg", baos);
+                    lastMapDraw.set(rrMap);
                     byte[] byteArray = baos.toByteArray();
                     if (byteArray != null && byteArray.length > 0) {
                         return new RawType(byteArray, "image/jpeg");
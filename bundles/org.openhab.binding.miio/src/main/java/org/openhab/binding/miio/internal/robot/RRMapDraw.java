@@ -27,12 +27,15 @@ import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.imageio.ImageIO;
 
@@ -44,7 +47,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Draws the vacuum map file to an image
+ * Draws the vacuum map file to an image.
+ * The map pixels are kept in a raster layer, which is handed over to the next map of the same robot, so only changed
+ * pixels are recoloured on a map refresh.
  *
  * @author Marcel Verpaalen - Initial contribution
  */
@@ -85,16 +90,45 @@ public class RRMapDraw {
     private static final Color ROOM16 = new Color(165, 105, 189);
     private static final Color[] ROOM_COLORS = { ROOM1, ROOM2, ROOM3, ROOM4, ROOM5, ROOM6, ROOM7, ROOM8, ROOM9, ROOM10,
             ROOM11, ROOM12, ROOM13, ROOM14, ROOM15, ROOM16 };
+    private static final Map<String, BufferedImage> IMAGE_CACHE = new ConcurrentHashMap<>();
+    private static volatile @Nullable String cachedFontName;
+    private static volatile boolean fontLookupDone;
+
     private final @Nullable Bundle bundle = FrameworkUtil.getBundle(getClass());
     private boolean multicolor = false;
     private final RRMapFileParser rmfp;
 
+    private @Nullable BufferedImage mapLayer;
+    private byte[] mapLayerSource = new byte[0];
+    private int roomPixels;
+    private @Nullable BufferedImage canvas;
+
     private final Logger logger = LoggerFactory.getLogger(RRMapDraw.class);
 
     public RRMapDraw(RRMapFileParser rmfp) {
         this.rmfp = rmfp;
     }
 
+    /**
+     * Creates the drawing for a new map, taking over the image buffers of the previous map of the same robot.
+     * The previous drawing must not be used anymore afterwards.
+     *
+     * @param rmfp the new map
+     * @param previous drawing of the previous map, if any
+     */
+    public RRMapDraw(RRMapFileParser rmfp, @Nullable RRMapDraw previous) {
+        this.rmfp = rmfp;
+        if (previous != null) {
+            this.mapLayer = previous.mapLayer;
+            this.mapLayerSource = previous.mapLayerSource;
+            this.roomPixels = previous.roomPixels;
+            this.canvas = previous.canvas;
+            previous.mapLayer = null;
+            previous.mapLayerSource = new byte[0];
+            previous.canvas = null;
+        }
+    }
+
     public int getWidth() {
         return rmfp.getImgWidth();
     }
@@ -113,9 +147,18 @@ public class RRMapDraw {
      * @throws IOException
      */
     public static RRMapDraw loadImage(InputStream is) throws IOException {
+        return loadImage(is, null);
+    }
+
+    /**
+     * load Gzipped RR inputstream, reusing the image buffers of the previous drawing
+     *
+     * @throws IOException
+     */
+    public static RRMapDraw loadImage(InputStream is, @Nullable RRMapDraw previous) throws IOException {
         byte[] inputdata = RRMapFileParser.readRRMapFile(is);
         RRMapFileParser rf = new RRMapFileParser(inputdata);
-        return new RRMapDraw(rf);
+        return new RRMapDraw(rf, previous);
     }
 
     /**
@@ -128,51 +171,98 @@ public class RRMapDraw {
     }
 
     /**
-     * draws the map from the individual pixels
+     * Updates the map layer from the individual pixels. Only pixels which differ from the map the layer was drawn
+     * from are recoloured.
      */
-    private void drawMap(Graphics2D g2d, float scale) {
-        Stroke stroke = new BasicStroke(1.1f * scale);
-        g2d.setStroke(stroke);
-        for (int y = 0; y < rmfp.getImgHeight() - 1; y++) {
-            for (int x = 0; x < rmfp.getImgWidth() + 1; x++) {
-                byte walltype = rmfp.getImage()[x + rmfp.getImgWidth() * y];
-                switch (walltype & 0xFF) {
-                    case MAP_OUTSIDE:
-                        g2d.setColor(COLOR_MAP_OUTSIDE);
-                        break;
-                    case MAP_WALL:
-                        g2d.setColor(COLOR_MAP_WALL);
-                        break;
-                    case MAP_INSIDE:
-                        g2d.setColor(COLOR_MAP_INSIDE);
-                        break;
-                    case MAP_SCAN:
-                        g2d.setColor(COLOR_SCAN);
-                        break;
-                    default:
-                        int obstacle = (walltype & 0x07);
-                        int mapId = (walltype & 0xFF) >>> 3;
-                        switch (obstacle) {
-                            case 0:
-                                g2d.setColor(COLOR_GREY_WALL);
-                                break;
-                            case 1:
-                                g2d.setColor(Color.BLACK);
-                                break;
-                            case 7:
-                                g2d.setColor(ROOM_COLORS[Math.round(mapId / 2)]);
-                                multicolor = true;
-                                break;
-                            default:
-                                g2d.setColor(Color.WHITE);
-                                break;
-                        }
+    private BufferedImage updateMapLayer() {
+        final int width = rmfp.getImgWidth();
+        final int height = rmfp.getImgHeight();
+        final byte[] image = rmfp.getImage();
+        BufferedImage layer = this.mapLayer;
+        final boolean redraw = layer == null || layer.getWidth() != width || layer.getHeight() != height
+                || mapLayerSource.length != image.length;
+        if (layer == null || redraw) {
+            layer = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_RGB);
+            roomPixels = 0;
+        }
+        final int[] pixels = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+        final byte[] source = mapLayerSource;
+        int changed = 0;
+        for (int y = 0; y < height - 1; y++) {
+            // the map is stored bottom up
+            final int row = (height - 1 - y) * width;
+            for (int x = 0; x < width; x++) {
+                final int pos = x + width * y;
+                final byte walltype = image[pos];
+                if (!redraw) {
+                    if (source[pos] == walltype) {
+                        continue;
+                    }
+                    if (isRoom(source[pos])) {
+                        roomPixels--;
+                    }
                 }
-                float xPos = scale * (rmfp.getImgWidth() - x);
-                float yP = scale * y;
-                g2d.draw(new Line2D.Float(xPos, yP, xPos, yP));
+                if (isRoom(walltype)) {
+                    roomPixels++;
+                }
+                pixels[row + x] = getMapColor(walltype).getRGB();
+                changed++;
             }
         }
+        logger.trace("Map layer {}: {} pixels updated", redraw ? "redrawn" : "updated", changed);
+        multicolor = roomPixels > 0;
+        this.mapLayer = layer;
+        this.mapLayerSource = image;
+        return layer;
+    }
+
+    private static boolean isRoom(byte walltype) {
+        switch (walltype & 0xFF) {
+            case MAP_OUTSIDE:
+            case MAP_WALL:
+            case MAP_INSIDE:
+            case MAP_SCAN:
+                return false;
+            default:
+                return (walltype & 0x07) == 7;
+        }
+    }
+
+    private static Color getMapColor(byte walltype) {
+        switch (walltype & 0xFF) {
+            case MAP_OUTSIDE:
+                return COLOR_MAP_OUTSIDE;
+            case MAP_WALL:
+                return COLOR_MAP_WALL;
+            case MAP_INSIDE:
+                return COLOR_MAP_INSIDE;
+            case MAP_SCAN:
+                return COLOR_SCAN;
+            default:
+                int obstacle = (walltype & 0x07);
+                int mapId = (walltype & 0xFF) >>> 3;
+                switch (obstacle) {
+                    case 0:
+                        return COLOR_GREY_WALL;
+                    case 1:
+                        return Color.BLACK;
+                    case 7:
+                        return ROOM_COLORS[Math.round(mapId / 2)];
+                    default:
+                        return Color.WHITE;
+                }
+        }
+    }
+
+    /**
+     * draws the map layer, each map pixel centred on its scaled position
+     */
+    private void drawMap(Graphics2D g2d, int width, int height, float scale) {
+        BufferedImage layer = updateMapLayer();
+        AffineTransform at = AffineTransform.getTranslateInstance(width - scale * rmfp.getImgWidth() - scale / 2,
+                height - scale * rmfp.getImgHeight() + scale / 2);
+        at.scale(scale, scale);
+        g2d.drawImage(layer, at, null);
     }
 
     /**
@@ -292,22 +382,40 @@ public class RRMapDraw {
     }
 
     private void drawCenteredImg(Graphics2D g2d, float scale, String imgFile, float x, float y) {
+        BufferedImage addImg = getCachedImage(imgFile);
+        if (addImg != null) {
+            int xpos = Math.round(x - (addImg.getWidth() / 2 * scale));
+            int ypos = Math.round(y - (addImg.getHeight() / 2 * scale));
+            AffineTransform at = new AffineTransform();
+            at.scale(scale, scale);
+            AffineTransformOp scaleOp = new AffineTransformOp(at, AffineTransformOp.TYPE_BILINEAR);
+            g2d.drawImage(addImg, scaleOp, xpos, ypos);
+        }
+    }
+
+    /**
+     * Loads one of the images bundled with the binding. Loaded images are kept for the following map refreshes.
+     */
+    private @Nullable BufferedImage getCachedImage(String imgFile) {
+        BufferedImage cached = IMAGE_CACHE.get(imgFile);
+        if (cached != null) {
+            return cached;
+        }
         URL image = getImageUrl(imgFile);
         try {
             if (image != null) {
-                BufferedImage addImg = ImageIO.read(image);
-                int xpos = Math.round(x - (addImg.getWidth() / 2 * scale));
-                int ypos = Math.round(y - (addImg.getHeight() / 2 * scale));
-                AffineTransform at = new AffineTransform();
-                at.scale(scale, scale);
-                AffineTransformOp scaleOp = new AffineTransformOp(at, AffineTransformOp.TYPE_BILINEAR);
-                g2d.drawImage(addImg, scaleOp, xpos, ypos);
+                BufferedImage loaded = ImageIO.read(image);
+                if (loaded != null) {
+                    IMAGE_CACHE.put(imgFile, loaded);
+                }
+                return loaded;
             } else {
                 logger.debug("Error loading image {}: File not be found.", imgFile);
             }
         } catch (IOException e) {
             logger.debug("Error loading image {}: {}", image, e.getMessage());
         }
+        return null;
     }
 
     private void drawGoTo(Graphics2D g2d, float scale) {
@@ -326,23 +434,16 @@ public class RRMapDraw {
         // easter egg gift
         int offset = 5;
         int textPos = 55;
-        URL image = getImageUrl("ohlogo.png");
-        try {
-            if (image != null) {
-                BufferedImage ohLogo = ImageIO.read(image);
-                textPos = (int) (ohLogo.getWidth() * scale / 2 + offset * scale);
-                AffineTransform at = new AffineTransform();
-                at.scale(scale / 2, scale / 2);
-                AffineTransformOp scaleOp = new AffineTransformOp(at, AffineTransformOp.TYPE_BILINEAR);
-                g2d.drawImage(ohLogo, scaleOp, offset,
-                        height - (int) (ohLogo.getHeight() * scale / 2) - (int) (offset * scale));
-            } else {
-                logger.debug("Error loading image ohlogo.png: File not be found.");
-            }
-        } catch (IOException e) {
-            logger.debug("Error loading image ohlogo.png:: {}", e.getMessage());
+        BufferedImage ohLogo = getCachedImage("ohlogo.png");
+        if (ohLogo != null) {
+            textPos = (int) (ohLogo.getWidth() * scale / 2 + offset * scale);
+            AffineTransform at = new AffineTransform();
+            at.scale(scale / 2, scale / 2);
+            AffineTransformOp scaleOp = new AffineTransformOp(at, AffineTransformOp.TYPE_BILINEAR);
+            g2d.drawImage(ohLogo, scaleOp, offset,
+                    height - (int) (ohLogo.getHeight() * scale / 2) - (int) (offset * scale));
         }
-        String fontName = getAvailableFont("Helvetica,Arial,Roboto,Verdana,Times,Serif,Dialog".split(","));
+        String fontName = getFontName();
         if (fontName == null) {
             return; // no available fonts to draw text
         }
@@ -361,6 +462,15 @@ public class RRMapDraw {
         g2d.drawString(message, textPos, height - offset * scale - stringHeight / 2);
     }
 
+    private @Nullable String getFontName() {
+        if (!fontLookupDone) {
+            // looking up the font families is expensive, the result does not change while running
+            cachedFontName = getAvailableFont("Helvetica,Arial,Roboto,Verdana,Times,Serif,Dialog".split(","));
+            fontLookupDone = true;
+        }
+        return cachedFontName;
+    }
+
     private @Nullable String getAvailableFont(String[] preferedFonts) {
         final GraphicsEnvironment gEv = GraphicsEnvironment.getLocalGraphicsEnvironment();
         if (gEv == null) {
@@ -395,23 +505,38 @@ public class RRMapDraw {
         }
     }
 
+    /**
+     * Draws the map. The returned image is reused by the next call with the same size, so it must be consumed
+     * before the map is drawn again.
+     *
+     * @param scale scale of the image compared to the map
+     * @return the image
+     */
     public BufferedImage getImage(float scale) {
         int width = (int) Math.floor(rmfp.getImgWidth() * scale);
         int height = (int) Math.floor(rmfp.getImgHeight() * scale);
-        BufferedImage bi = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage bi = this.canvas;
+        if (bi == null || bi.getWidth() != width || bi.getHeight() != height) {
+            bi = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+            this.canvas = bi;
+        }
         Graphics2D g2d = bi.createGraphics();
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, width, height);
+        drawMap(g2d, width, height, scale);
         AffineTransform tx = AffineTransform.getScaleInstance(-1, -1);
         tx.translate(-width, -height);
         g2d.setTransform(tx);
-        drawMap(g2d, scale);
         drawZones(g2d, scale);
         drawNoGo(g2d, scale);
         drawWalls(g2d, scale);
         drawPath(g2d, scale);
         drawRobo(g2d, scale);
         drawGoTo(g2d, scale);
+        g2d.dispose();
         g2d = bi.createGraphics();
         drawOpenHabRocks(g2d, width, height, scale);
+        g2d.dispose();
         return bi;
     }
 
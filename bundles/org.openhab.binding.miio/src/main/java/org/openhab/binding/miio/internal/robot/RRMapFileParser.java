@@ -59,6 +59,9 @@ public class RRMapFileParser {
     public static final String PATH_POINT_SIZE = "pointSize";
     public static final String PATH_ANGLE = "angle";
 
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 20;
+
     private byte[] image = new byte[] { 0 };
     private final int majorVersion;
     private final int minorVersion;
@@ -100,12 +103,11 @@ public class RRMapFileParser {
 
         int blockStartPos = getUInt16(raw, 0x02); // main header length
         while (blockStartPos < raw.length) {
+            // block fields are read in place from the raw map, only the image and blocks are copied out
             int blockHeaderLength = getUInt16(raw, blockStartPos + 0x02);
-            byte[] header = getBytes(raw, blockStartPos, blockHeaderLength);
-            int blocktype = getUInt16(header, 0x00);
-            int blockDataLength = getUInt32LE(header, 0x04);
+            int blocktype = getUInt16(raw, blockStartPos);
+            int blockDataLength = getUInt32LE(raw, blockStartPos + 0x04);
             int blockDataStart = blockStartPos + blockHeaderLength;
-            byte[] data = getBytes(raw, blockDataStart, blockDataLength);
 
             switch (blocktype) {
                 case CHARGER:
@@ -115,40 +117,40 @@ public class RRMapFileParser {
                 case IMAGE:
                     this.imageSize = blockDataLength;// (getUInt32LE(raw, blockStartPos + 0x04));
                     if (blockHeaderLength > 0x1C) {
-                        logger.debug("block 2 unknown value @pos 8: {}", getUInt32LE(header, 0x08));
+                        logger.debug("block 2 unknown value @pos 8: {}", getUInt32LE(raw, blockStartPos + 0x08));
                     }
-                    this.top = getUInt32LE(header, blockHeaderLength - 16);
-                    this.left = getUInt32LE(header, blockHeaderLength - 12);
-                    this.imgHeight = (getUInt32LE(header, blockHeaderLength - 8));
-                    this.imgWidth = getUInt32LE(header, blockHeaderLength - 4);
-                    this.image = data;
+                    this.top = getUInt32LE(raw, blockDataStart - 16);
+                    this.left = getUInt32LE(raw, blockDataStart - 12);
+                    this.imgHeight = (getUInt32LE(raw, blockDataStart - 8));
+                    this.imgWidth = getUInt32LE(raw, blockDataStart - 4);
+                    this.image = getBytes(raw, blockDataStart, blockDataLength);
                     break;
                 case ROBOT_POSITION:
-                    this.roboX = getUInt32LE(data, 0x00);
-                    this.roboY = getUInt32LE(data, 0x04);
+                    this.roboX = getUInt32LE(raw, blockDataStart);
+                    this.roboY = getUInt32LE(raw, blockDataStart + 0x04);
                     if (blockDataLength > 8) { // model S6
-                        this.roboA = getUInt32LE(data, 0x08);
+                        this.roboA = getUInt32LE(raw, blockDataStart + 0x08);
                     }
                     break;
                 case PATH:
                 case GOTO_PATH:
                 case GOTO_PREDICTED_PATH:
-                    ArrayList<float[]> path = new ArrayList<float[]>();
+                    int pairs = blockDataLength / 4;
+                    ArrayList<float[]> path = new ArrayList<float[]>(pairs);
                     Map<String, Integer> detail = new HashMap<String, Integer>();
-                    int pairs = getUInt32LE(header, 0x04) / 4;
-                    detail.put(PATH_POINT_LENGTH, getUInt32LE(header, 0x08));
-                    detail.put(PATH_POINT_SIZE, getUInt32LE(header, 0x0C));
-                    detail.put(PATH_ANGLE, getUInt32LE(header, 0x10));
+                    detail.put(PATH_POINT_LENGTH, getUInt32LE(raw, blockStartPos + 0x08));
+                    detail.put(PATH_POINT_SIZE, getUInt32LE(raw, blockStartPos + 0x0C));
+                    detail.put(PATH_ANGLE, getUInt32LE(raw, blockStartPos + 0x10));
                     for (int pathpair = 0; pathpair < pairs; pathpair++) {
-                        float x = (getUInt16(getBytes(raw, blockDataStart + pathpair * 4, 2)));
-                        float y = getUInt16(getBytes(raw, blockDataStart + pathpair * 4 + 2, 2));
+                        float x = getUInt16(raw, blockDataStart + pathpair * 4);
+                        float y = getUInt16(raw, blockDataStart + pathpair * 4 + 2);
                         path.add(new float[] { x, y });
                     }
                     paths.put(blocktype, path);
                     pathsDetails.put(blocktype, detail);
                     break;
                 case CURRENTLY_CLEANED_ZONES:
-                    int zonePairs = getUInt16(header, 0x08);
+                    int zonePairs = getUInt16(raw, blockStartPos + 0x08);
                     for (int zonePair = 0; zonePair < zonePairs; zonePair++) {
                         float x0 = (getUInt16(raw, blockDataStart + zonePair * 8));
                         float y0 = getUInt16(raw, blockDataStart + zonePair * 8 + 2);
@@ -158,14 +160,15 @@ public class RRMapFileParser {
                     }
                     break;
                 case GOTO_TARGET:
-                    this.gotoX = getUInt16(data, 0x00);
-                    this.gotoY = getUInt16(data, 0x02);
+                    this.gotoX = getUInt16(raw, blockDataStart);
+                    this.gotoY = getUInt16(raw, blockDataStart + 0x02);
                     break;
                 case DIGEST:
-                    isValid = Arrays.equals(data, sha1Hash(getBytes(raw, 0, mapHeaderLength + mapDataLength - 20)));
+                    isValid = Arrays.equals(getBytes(raw, blockDataStart, blockDataLength),
+                            sha1Hash(raw, 0, mapHeaderLength + mapDataLength - 20));
                     break;
                 case VIRTUAL_WALLS:
-                    int wallPairs = getUInt16(header, 0x08);
+                    int wallPairs = getUInt16(raw, blockStartPos + 0x08);
                     for (int wallPair = 0; wallPair < wallPairs; wallPair++) {
                         float x0 = (getUInt16(raw, blockDataStart + wallPair * 8));
                         float y0 = getUInt16(raw, blockDataStart + wallPair * 8 + 2);
@@ -176,7 +179,7 @@ public class RRMapFileParser {
                     break;
                 case NO_GO_AREAS:
                 case MFBZS_AREA:
-                    int areaPairs = getUInt16(header, 0x08);
+                    int areaPairs = getUInt16(raw, blockStartPos + 0x08);
                     ArrayList<float[]> area = new ArrayList<float[]>();
                     for (int areaPair = 0; areaPair < areaPairs; areaPair++) {
                         float x0 = (getUInt16(raw, blockDataStart + areaPair * 16));
@@ -192,17 +195,17 @@ public class RRMapFileParser {
                     areas.put(Integer.valueOf(blocktype & 0xFF), area);
                     break;
                 case OBSTACLES:
-                    int obstaclePairs = getUInt16(header, 0x08);
+                    int obstaclePairs = getUInt16(raw, blockStartPos + 0x08);
                     for (int obstaclePair = 0; obstaclePair < obstaclePairs; obstaclePair++) {
-                        int x0 = getUInt16(data, obstaclePair * 5 + 0);
-                        int y0 = getUInt16(data, obstaclePair * 5 + 2);
-                        int u = data[obstaclePair * 5 + 0] & 0xFF;
+                        int x0 = getUInt16(raw, blockDataStart + obstaclePair * 5 + 0);
+                        int y0 = getUInt16(raw, blockDataStart + obstaclePair * 5 + 2);
+                        int u = raw[blockDataStart + obstaclePair * 5 + 0] & 0xFF;
                         obstacles.add(new int[] { x0, y0, u });
                     }
                     break;
                 case BLOCKS:
-                    int blocksPairs = getUInt16(header, 0x08);
-                    blocks = getBytes(data, 0, blocksPairs);
+                    int blocksPairs = getUInt16(raw, blockStartPos + 0x08);
+                    blocks = getBytes(raw, blockDataStart, blocksPairs);
                     break;
                 default:
                     logger.info("Unknown blocktype (pls report to author)");
@@ -212,14 +215,14 @@ public class RRMapFileParser {
                 logger.debug("Blocktype: {}", Integer.toString(blocktype));
                 logger.debug("Header len: {}   data len: {} ", Integer.toString(blockHeaderLength),
                         Integer.toString(blockDataLength));
-                logger.debug("H: {}", Utils.getSpacedHex(header));
+                logger.debug("H: {}", Utils.getSpacedHex(getBytes(raw, blockStartPos, blockHeaderLength)));
                 if (blockDataLength > 0) {
-                    logger.debug("D: {}", (blockDataLength < 60 ? Utils.getSpacedHex(data)
-                            : Utils.getSpacedHex(getBytes(data, 0, 60))));
+                    logger.debug("D: {}",
+                            Utils.getSpacedHex(getBytes(raw, blockDataStart, Math.min(blockDataLength, 60))));
                 }
                 printBlockDetails = false;
             }
-            blockStartPos = blockStartPos + blockDataLength + (header[2] & 0xFF);
+            blockStartPos = blockStartPos + blockDataLength + (raw[blockStartPos + 2] & 0xFF);
         }
     }
 
@@ -228,9 +231,9 @@ public class RRMapFileParser {
     }
 
     public static byte[] readRRMapFile(InputStream is) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPInputStream in = new GZIPInputStream(is)) {
-            int bufsize = 1024;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (GZIPInputStream in = new GZIPInputStream(is, READ_BUFFER_SIZE)) {
+            int bufsize = READ_BUFFER_SIZE;
             byte[] buf = new byte[bufsize];
             int readbytes = 0;
             readbytes = in.read(buf);
@@ -255,10 +258,6 @@ public class RRMapFileParser {
         return value;
     }
 
-    private int getUInt16(byte[] bytes) {
-        return getUInt16(bytes, 0);
-    }
-
     private int getUInt16(byte[] bytes, int pos) {
         int value = bytes[0 + pos] & 0xFF;
         value |= (bytes[1 + pos] << 8) & 0xFFFF;
@@ -316,9 +315,22 @@ public class RRMapFileParser {
      * @return hash value
      */
     public static byte[] sha1Hash(byte[] inBytes) {
+        return sha1Hash(inBytes, 0, inBytes.length);
+    }
+
+    /**
+     * Compute SHA-1 hash value for a part of the byte array
+     *
+     * @param inBytes ByteArray to be hashed
+     * @param offset start of the part to be hashed
+     * @param len length of the part to be hashed
+     * @return hash value
+     */
+    public static byte[] sha1Hash(byte[] inBytes, int offset, int len) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-1");
-            return md.digest(inBytes);
+            md.update(inBytes, offset, len);
+            return md.digest();
         } catch (NoSuchAlgorithmException e) {
             return new byte[] { 0x00 };
         }
@@ -13,18 +13,20 @@
 package org.openhab.binding.miio.internal.transport;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
+import java.io.InterruptedIOException;
 import java.net.InetAddress;
-import java.net.SocketException;
 import java.net.SocketTimeoutException;
-import java.util.Arrays;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.util.Calendar;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -48,47 +50,50 @@ import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 
 /**
- * The {@link MiIoAsyncCommunication} is responsible for communications with the Mi IO devices
+ * The {@link MiIoAsyncCommunication} is responsible for communications with the Mi IO devices.
+ * Messages are exchanged through the binding wide {@link MiIoUdpTransport}, so no thread or socket is held per device.
  *
  * @author Marcel Verpaalen - Initial contribution
  */
 @NonNullByDefault
 public class MiIoAsyncCommunication {
 
-    private static final int MSG_BUFFER_SIZE = 2048;
+    private static final String NO_RESPONSE = "{\"error\":\"No Response\"}";
 
     private final Logger logger = LoggerFactory.getLogger(MiIoAsyncCommunication.class);
 
+    private final MiIoUdpTransport transport;
     private final String ip;
     private final byte[] token;
-    private byte[] deviceId;
-    private @Nullable DatagramSocket socket;
+    private volatile byte[] deviceId;
 
     private List<MiIoMessageListener> listeners = new CopyOnWriteArrayList<>();
 
     private AtomicInteger id = new AtomicInteger(-1);
-    private int timeDelta;
-    private int timeStamp;
+    private volatile int timeDelta;
     private final JsonParser parser;
-    private @Nullable MessageSenderThread senderThread;
-    private boolean connected;
-    private ThingStatusDetail status = ThingStatusDetail.NONE;
-    private int errorCounter;
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile boolean connected;
+    private volatile ThingStatusDetail status = ThingStatusDetail.NONE;
+    private volatile int errorCounter;
     private int timeout;
-    private boolean needPing = true;
+    private volatile boolean needPing = true;
     private static final int MAX_ERRORS = 3;
     private static final int MAX_ID = 15000;
+    private static final int PING_RETRIES = 3;
 
     private ConcurrentLinkedQueue<MiIoSendCommand> concurrentLinkedQueue = new ConcurrentLinkedQueue<>();
 
-    public MiIoAsyncCommunication(String ip, byte[] token, byte[] did, int id, int timeout) {
+    public MiIoAsyncCommunication(MiIoUdpTransport transport, String ip, byte[] token, byte[] did, int id,
+            int timeout) {
+        this.transport = transport;
         this.ip = ip;
         this.token = token;
         this.deviceId = did;
         this.timeout = timeout;
         setId(id);
         parser = new JsonParser();
-        startReceiver();
     }
 
     protected List<MiIoMessageListener> getListeners() {
@@ -97,13 +102,12 @@ public class MiIoAsyncCommunication {
 
     /**
      * Registers a {@link MiIoMessageListener} to be called back, when data is received.
-     * If no {@link MessageSenderThread} exists, when the method is called, it is being set up.
      *
      * @param listener {@link MiIoMessageListener} to be called back
      */
     public synchronized void registerListener(MiIoMessageListener listener) {
         needPing = true;
-        startReceiver();
+        closed = false;
         if (!getListeners().contains(listener)) {
             logger.trace("Adding socket listener {}", listener);
             getListeners().add(listener);
@@ -111,8 +115,7 @@ public class MiIoAsyncCommunication {
     }
 
     /**
-     * Unregisters a {@link MiIoMessageListener}. If there are no listeners left,
-     * the {@link MessageSenderThread} is being closed.
+     * Unregisters a {@link MiIoMessageListener}. If there are no listeners left, the queued commands are dropped.
      *
      * @param listener {@link MiIoMessageListener} to be unregistered
      */
@@ -153,7 +156,9 @@ public class MiIoAsyncCommunication {
                         ip, Utils.getHex(deviceId), tokenText, concurrentLinkedQueue.size());
             }
             if (needPing) {
-                sendPing(ip);
+                sendPingAsync(ip, 0).whenComplete((response, e) -> sendNextCommand());
+            } else {
+                sendNextCommand();
             }
             return cmdId;
         } catch (JsonSyntaxException e) {
@@ -163,140 +168,154 @@ public class MiIoAsyncCommunication {
         }
     }
 
-    MiIoSendCommand sendMiIoSendCommand(MiIoSendCommand miIoSendCommand) {
-        String errorMsg = "Unknown Error while sending command";
-        String decryptedResponse = "";
-        try {
-            decryptedResponse = sendCommand(miIoSendCommand.getCommandString(), token, ip, deviceId);
-            // hack due to avoid invalid json errors from some misbehaving device firmwares
-            decryptedResponse = decryptedResponse.replace(",,", ",");
-            JsonElement response;
-            response = parser.parse(decryptedResponse);
-            if (response.isJsonObject()) {
-                needPing = false;
-                logger.trace("Received  JSON message {}", response.toString());
-                miIoSendCommand.setResponse(response.getAsJsonObject());
-                return miIoSendCommand;
-            } else {
-                errorMsg = "Received message is invalid JSON";
-                logger.debug("{}: {}", errorMsg, decryptedResponse);
+    /**
+     * Sends the next queued command, unless a command of this device is still waiting for its response
+     */
+    private void sendNextCommand() {
+        while (!closed && sending.compareAndSet(false, true)) {
+            MiIoSendCommand queuedMessage = concurrentLinkedQueue.poll();
+            if (queuedMessage != null) {
+                sendMiIoSendCommand(queuedMessage).whenCompleteAsync((miIoSendCommand, e) -> {
+                    if (e != null) {
+                        logger.warn("Error while sending message", e);
+                    } else {
+                        informListeners(queuedMessage, miIoSendCommand);
+                    }
+                    sending.set(false);
+                    sendNextCommand();
+                }, transport.getScheduler());
+                return;
+            }
+            sending.set(false);
+            // a command may have been queued while the flag was held
+            if (concurrentLinkedQueue.isEmpty()) {
+                return;
             }
-        } catch (MiIoCryptoException | IOException e) {
-            logger.debug("Send command '{}'  -> {} (Device: {}) gave error {}", miIoSendCommand.getCommandString(), ip,
-                    Utils.getHex(deviceId), e.getMessage());
-            errorMsg = e.getMessage();
-        } catch (JsonSyntaxException e) {
-            logger.warn("Could not parse '{}' <- {} (Device: {}) gave error {}", decryptedResponse,
-                    miIoSendCommand.getCommandString(), Utils.getHex(deviceId), e.getMessage());
-            errorMsg = "Received message is invalid JSON";
         }
-        JsonObject erroResp = new JsonObject();
-        erroResp.addProperty("error", errorMsg);
-        miIoSendCommand.setResponse(erroResp);
-        return miIoSendCommand;
     }
 
-    public synchronized void startReceiver() {
-        MessageSenderThread senderThread = this.senderThread;
-        if (senderThread == null || !senderThread.isAlive()) {
-            senderThread = new MessageSenderThread();
-            senderThread.start();
-            this.senderThread = senderThread;
+    private void informListeners(MiIoSendCommand queuedMessage, MiIoSendCommand miIoSendCommand) {
+        for (MiIoMessageListener listener : listeners) {
+            logger.trace("inform listener {}, data {} from {}", listener, queuedMessage, miIoSendCommand);
+            try {
+                listener.onMessageReceived(miIoSendCommand);
+            } catch (Exception e) {
+                logger.debug("Could not inform listener {}: {}: ", listener, e.getMessage(), e);
+            }
         }
     }
 
-    /**
-     * The {@link MessageSenderThread} is responsible for consuming messages from the queue and sending these to the
-     * device
-     *
-     */
-    private class MessageSenderThread extends Thread {
-        public MessageSenderThread() {
-            super("Mi IO MessageSenderThread");
-            setDaemon(true);
-        }
-
-        @Override
-        public void run() {
-            logger.debug("Starting Mi IO MessageSenderThread");
-            while (!interrupted()) {
+    CompletableFuture<MiIoSendCommand> sendMiIoSendCommand(MiIoSendCommand miIoSendCommand) {
+        return sendCommand(miIoSendCommand.getCommandString(), token, ip, deviceId).handle((response, e) -> {
+            String errorMsg = "Unknown Error while sending command";
+            String decryptedResponse = response != null ? response : "";
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                logger.debug("Send command '{}'  -> {} (Device: {}) gave error {}",
+                        miIoSendCommand.getCommandString(), ip, Utils.getHex(deviceId), cause.getMessage());
+                errorMsg = cause.getMessage();
+            } else {
                 try {
-                    if (concurrentLinkedQueue.isEmpty()) {
-                        Thread.sleep(100);
-                        continue;
+                    // hack due to avoid invalid json errors from some misbehaving device firmwares
+                    decryptedResponse = decryptedResponse.replace(",,", ",");
+                    JsonElement parsed = parser.parse(decryptedResponse);
+                    if (parsed.isJsonObject()) {
+                        needPing = false;
+                        logger.trace("Received  JSON message {}", parsed.toString());
+                        miIoSendCommand.setResponse(parsed.getAsJsonObject());
+                        return miIoSendCommand;
+                    } else {
+                        errorMsg = "Received message is invalid JSON";
+                        logger.debug("{}: {}", errorMsg, decryptedResponse);
                     }
-                    MiIoSendCommand queuedMessage = concurrentLinkedQueue.remove();
-                    MiIoSendCommand miIoSendCommand = sendMiIoSendCommand(queuedMessage);
-                    for (MiIoMessageListener listener : listeners) {
-                        logger.trace("inform listener {}, data {} from {}", listener, queuedMessage, miIoSendCommand);
-                        try {
-                            listener.onMessageReceived(miIoSendCommand);
-                        } catch (Exception e) {
-                            logger.debug("Could not inform listener {}: {}: ", listener, e.getMessage(), e);
-                        }
-                    }
-                } catch (NoSuchElementException e) {
-                    // ignore
-                } catch (InterruptedException e) {
-                    // That's our signal to stop
-                    break;
-                } catch (Exception e) {
-                    logger.warn("Error while polling/sending message", e);
+                } catch (JsonSyntaxException e2) {
+                    logger.warn("Could not parse '{}' <- {} (Device: {}) gave error {}", decryptedResponse,
+                            miIoSendCommand.getCommandString(), Utils.getHex(deviceId), e2.getMessage());
+                    errorMsg = "Received message is invalid JSON";
                 }
             }
-            closeSocket();
-            logger.debug("Finished Mi IO MessageSenderThread");
-        }
+            JsonObject erroResp = new JsonObject();
+            erroResp.addProperty("error", errorMsg);
+            miIoSendCommand.setResponse(erroResp);
+            return miIoSendCommand;
+        });
     }
 
-    private String sendCommand(String command, byte[] token, String ip, byte[] deviceId)
-            throws MiIoCryptoException, IOException {
-        byte[] encr;
-        encr = MiIoCrypto.encrypt(command.getBytes(), token);
-        timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
-        byte[] sendMsg = Message.createMsgData(encr, token, deviceId, timeStamp + timeDelta);
-        Message miIoResponseMsg = sendData(sendMsg, ip);
-        if (miIoResponseMsg == null) {
-            if (logger.isTraceEnabled()) {
-                logger.trace("No response from device {} at {} for command {}.\r\n{}", Utils.getHex(deviceId), ip,
-                        command, (new Message(sendMsg)).toSting());
-            } else {
-                logger.debug("No response from device {} at {} for command {}.", Utils.getHex(deviceId), ip, command);
+    private CompletableFuture<String> sendCommand(String command, byte[] token, String ip, byte[] deviceId) {
+        byte[] sendMsg;
+        try {
+            byte[] encr = MiIoCrypto.encrypt(command.getBytes(), token);
+            int timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
+            sendMsg = Message.createMsgData(encr, token, deviceId, timeStamp + timeDelta);
+        } catch (MiIoCryptoException e) {
+            return failedFuture(e);
+        }
+        return sendData(sendMsg, ip).thenCompose(miIoResponseMsg -> {
+            if (miIoResponseMsg == null) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("No response from device {} at {} for command {}.\r\n{}", Utils.getHex(deviceId),
+                            ip, command, (new Message(sendMsg)).toSting());
+                } else {
+                    logger.debug("No response from device {} at {} for command {}.", Utils.getHex(deviceId), ip,
+                            command);
+                }
+                errorCounter++;
+                if (errorCounter > MAX_ERRORS) {
+                    status = ThingStatusDetail.CONFIGURATION_ERROR;
+                    return sendPingAsync(ip, 0).thenApply(response -> NO_RESPONSE);
+                }
+                return CompletableFuture.completedFuture(NO_RESPONSE);
             }
-            errorCounter++;
-            if (errorCounter > MAX_ERRORS) {
-                status = ThingStatusDetail.CONFIGURATION_ERROR;
-                sendPing(ip);
+            if (!miIoResponseMsg.isChecksumValid()) {
+                return CompletableFuture.completedFuture("{\"error\":\"Message has invalid checksum\"}");
             }
-            return "{\"error\":\"No Response\"}";
-        }
-        if (!miIoResponseMsg.isChecksumValid()) {
-            return "{\"error\":\"Message has invalid checksum\"}";
-        }
-        if (errorCounter > 0) {
-            errorCounter = 0;
-            status = ThingStatusDetail.NONE;
-            updateStatus(ThingStatus.ONLINE, status);
-        }
-        if (!connected) {
-            pingSuccess();
-        }
-        String decryptedResponse = new String(MiIoCrypto.decrypt(miIoResponseMsg.getData(), token), "UTF-8").trim();
-        logger.trace("Received response from {}: {}", ip, decryptedResponse);
-        return decryptedResponse;
+            if (errorCounter > 0) {
+                errorCounter = 0;
+                status = ThingStatusDetail.NONE;
+                updateStatus(ThingStatus.ONLINE, status);
+            }
+            if (!connected) {
+                pingSuccess();
+            }
+            try {
+                String decryptedResponse = new String(MiIoCrypto.decrypt(miIoResponseMsg.getData(), token),
+                        StandardCharsets.UTF_8).trim();
+                logger.trace("Received response from {}: {}", ip, decryptedResponse);
+                return CompletableFuture.completedFuture(decryptedResponse);
+            } catch (MiIoCryptoException e) {
+                return failedFuture(e);
+            }
+        });
     }
 
     public @Nullable Message sendPing(String ip) throws IOException {
-        for (int i = 0; i < 3; i++) {
-            logger.debug("Sending Ping {} ({})", Utils.getHex(deviceId), ip);
-            Message resp = sendData(MiIoBindingConstants.DISCOVER_STRING, ip);
+        try {
+            return sendPingAsync(ip, 0).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for ping response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private CompletableFuture<@Nullable Message> sendPingAsync(String ip, int attempt) {
+        logger.debug("Sending Ping {} ({})", Utils.getHex(deviceId), ip);
+        return sendData(MiIoBindingConstants.DISCOVER_STRING, ip).thenCompose(resp -> {
             if (resp != null) {
                 pingSuccess();
-                return resp;
+                return CompletableFuture.completedFuture(resp);
             }
-        }
-        pingFail();
-        return null;
+            if (attempt + 1 < PING_RETRIES) {
+                return sendPingAsync(ip, attempt + 1);
+            }
+            pingFail();
+            return CompletableFuture.completedFuture(null);
+        });
     }
 
     private void pingFail() {
@@ -333,80 +352,48 @@ public class MiIoAsyncCommunication {
         }
     }
 
-    private @Nullable Message sendData(byte[] sendMsg, String ip) throws IOException {
-        byte[] response = comms(sendMsg, ip);
-        if (response.length >= 32) {
-            Message miIoResponse = new Message(response);
-            timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
-            timeDelta = miIoResponse.getTimestampAsInt() - timeStamp;
-            logger.trace("Message Details:{} ", miIoResponse.toSting());
-            return miIoResponse;
-        } else {
-            logger.trace("Reponse length <32 : {}", response.length);
-            return null;
-        }
-    }
-
-    private synchronized byte[] comms(byte[] message, String ip) throws IOException {
-        InetAddress ipAddress = InetAddress.getByName(ip);
-        DatagramSocket clientSocket = getSocket();
-        DatagramPacket receivePacket = new DatagramPacket(new byte[MSG_BUFFER_SIZE], MSG_BUFFER_SIZE);
+    private CompletableFuture<@Nullable Message> sendData(byte[] sendMsg, String ip) {
+        InetAddress ipAddress;
         try {
-            logger.trace("Connection {}:{}", ip, clientSocket.getLocalPort());
-            byte[] sendData = new byte[MSG_BUFFER_SIZE];
-            sendData = message;
-            DatagramPacket sendPacket = new DatagramPacket(sendData, sendData.length, ipAddress,
-                    MiIoBindingConstants.PORT);
-            clientSocket.send(sendPacket);
-            sendPacket.setData(new byte[MSG_BUFFER_SIZE]);
-            clientSocket.receive(receivePacket);
-            byte[] response = Arrays.copyOfRange(receivePacket.getData(), receivePacket.getOffset(),
-                    receivePacket.getOffset() + receivePacket.getLength());
-            return response;
-        } catch (SocketTimeoutException e) {
-            logger.debug("Communication error for Mi device at {}: {}", ip, e.getMessage());
-            needPing = true;
-            return new byte[0];
+            ipAddress = InetAddress.getByName(ip);
+        } catch (UnknownHostException e) {
+            return failedFuture(e);
         }
+        logger.trace("Connection {}", ip);
+        return transport.send(ipAddress, sendMsg, timeout).handle((response, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof SocketTimeoutException) {
+                    logger.debug("Communication error for Mi device at {}: {}", ip, cause.getMessage());
+                    needPing = true;
+                    return null;
+                }
+                throw new CompletionException(cause);
+            }
+            if (response.length >= 32) {
+                Message miIoResponse = new Message(response);
+                int timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
+                timeDelta = miIoResponse.getTimestampAsInt() - timeStamp;
+                logger.trace("Message Details:{} ", miIoResponse.toSting());
+                return miIoResponse;
+            } else {
+                logger.trace("Reponse length <32 : {}", response.length);
+                return null;
+            }
+        });
     }
 
-    private DatagramSocket getSocket() throws SocketException {
-        @Nullable
-        DatagramSocket socket = this.socket;
-        if (socket == null || socket.isClosed()) {
-            socket = new DatagramSocket();
-            socket.setSoTimeout(timeout);
-            logger.debug("Opening socket on port: {} ", socket.getLocalPort());
-            this.socket = socket;
-            return socket;
-        } else {
-            return socket;
-        }
+    private static <T> CompletableFuture<T> failedFuture(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
     }
 
+    /**
+     * Stops sending queued commands. Commands which are already handed to the transport complete normally.
+     */
     public void close() {
-        try {
-            final MessageSenderThread senderThread = this.senderThread;
-            if (senderThread != null) {
-                senderThread.interrupt();
-            }
-        } catch (SecurityException e) {
-            logger.debug("Error while closing: {} ", e.getMessage());
-        }
-        closeSocket();
-    }
-
-    public void closeSocket() {
-        try {
-            final DatagramSocket socket = this.socket;
-            if (socket != null) {
-                logger.debug("Closing socket for port: {} ", socket.getLocalPort());
-                socket.close();
-                this.socket = null;
-            }
-        } catch (SecurityException e) {
-            logger.debug("Error while closing: {} ", e.getMessage());
-        }
+        closed = true;
     }
 
     /**
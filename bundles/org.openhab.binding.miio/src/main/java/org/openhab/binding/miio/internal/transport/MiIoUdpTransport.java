@@ -0,0 +1,308 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.miio.internal.transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.miio.internal.MiIoBindingConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MiIoUdpTransport} is the binding wide UDP transport shared by all Mi IO devices.
+ * All requests are sent from one non-blocking {@link DatagramChannel}, which is served by a single receiver thread.
+ * Replies are dispatched to the request in flight for the sending device. Each device has its own send queue, so only
+ * one request per device is on the wire at any time, and each request has its own timeout.
+ *
+ * @author Marcel Verpaalen - Initial contribution
+ */
+@NonNullByDefault
+public class MiIoUdpTransport {
+
+    private static final int MSG_BUFFER_SIZE = 2048;
+
+    private final Logger logger = LoggerFactory.getLogger(MiIoUdpTransport.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final int port;
+    private final Map<InetAddress, Peer> peers = new ConcurrentHashMap<>();
+
+    private @Nullable DatagramChannel channel;
+    private @Nullable Selector selector;
+    private @Nullable Thread receiverThread;
+
+    /**
+     * Creates the transport
+     *
+     * @param scheduler executor used for request timeouts and for completing the returned futures
+     */
+    public MiIoUdpTransport(ScheduledExecutorService scheduler) {
+        this(scheduler, MiIoBindingConstants.PORT);
+    }
+
+    MiIoUdpTransport(ScheduledExecutorService scheduler, int port) {
+        this.scheduler = scheduler;
+        this.port = port;
+    }
+
+    /**
+     * @return the executor on which the futures returned by {@link #send} are completed
+     */
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Queues a message for a device. The message is sent as soon as the previous request to the same device is
+     * answered or timed out.
+     *
+     * @param address address of the device
+     * @param message raw message
+     * @param timeout time in ms to wait for the reply once the message is sent
+     * @return future completed with the raw reply, or exceptionally with a {@link SocketTimeoutException} if the
+     *         device did not reply in time
+     */
+    public CompletableFuture<byte[]> send(InetAddress address, byte[] message, int timeout) {
+        Request request = new Request(message, timeout);
+        Peer peer = peers.computeIfAbsent(address, Peer::new);
+        synchronized (peer) {
+            peer.queue.add(request);
+        }
+        transmitNext(peer);
+        return request.future;
+    }
+
+    private void transmitNext(Peer peer) {
+        Request request;
+        synchronized (peer) {
+            if (peer.inFlight != null) {
+                return;
+            }
+            request = peer.queue.poll();
+            if (request == null) {
+                return;
+            }
+            peer.inFlight = request;
+        }
+        // scheduled before sending, so that a fast reply always finds the timeout to cancel
+        request.timeoutJob = scheduler.schedule(() -> expire(peer, request), request.timeout, TimeUnit.MILLISECONDS);
+        try {
+            int sent = getChannel().send(ByteBuffer.wrap(request.message), new InetSocketAddress(peer.address, port));
+            if (sent == 0) {
+                throw new IOException("Send buffer full");
+            }
+            logger.trace("Sent {} bytes to {}", sent, peer.address);
+        } catch (IOException e) {
+            logger.debug("Could not send message to Mi device at {}: {}", peer.address, e.getMessage());
+            if (finish(peer, request)) {
+                scheduler.execute(() -> request.future.completeExceptionally(e));
+                transmitNext(peer);
+            }
+        }
+    }
+
+    private void expire(Peer peer, Request request) {
+        if (finish(peer, request)) {
+            request.future.completeExceptionally(
+                    new SocketTimeoutException("No response within " + request.timeout + " ms"));
+            transmitNext(peer);
+        }
+    }
+
+    /**
+     * Releases the device slot held by the request
+     *
+     * @return <code>true</code> if the request was still in flight
+     */
+    private boolean finish(Peer peer, Request request) {
+        synchronized (peer) {
+            if (peer.inFlight != request) {
+                return false;
+            }
+            peer.inFlight = null;
+        }
+        final ScheduledFuture<?> timeoutJob = request.timeoutJob;
+        if (timeoutJob != null) {
+            timeoutJob.cancel(false);
+        }
+        return true;
+    }
+
+    private void dispatch(SocketAddress sender, byte[] data) {
+        if (!(sender instanceof InetSocketAddress)) {
+            return;
+        }
+        InetAddress address = ((InetSocketAddress) sender).getAddress();
+        Peer peer = peers.get(address);
+        Request request = peer == null ? null : peer.inFlight;
+        if (peer == null || request == null || !finish(peer, request)) {
+            logger.trace("Ignoring unexpected message of {} bytes from {}", data.length, address);
+            return;
+        }
+        scheduler.execute(() -> request.future.complete(data));
+        transmitNext(peer);
+    }
+
+    private synchronized DatagramChannel getChannel() throws IOException {
+        DatagramChannel channel = this.channel;
+        if (channel != null && channel.isOpen()) {
+            return channel;
+        }
+        Selector selector = Selector.open();
+        channel = DatagramChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.bind(null);
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            channel.close();
+            selector.close();
+            throw e;
+        }
+        logger.debug("Opening Mi IO transport on port: {}", channel.socket().getLocalPort());
+        this.channel = channel;
+        this.selector = selector;
+        Thread receiverThread = new ReceiverThread(channel, selector);
+        receiverThread.start();
+        this.receiverThread = receiverThread;
+        return channel;
+    }
+
+    /**
+     * The {@link ReceiverThread} reads all replies from the shared channel and hands them to the waiting requests
+     */
+    private class ReceiverThread extends Thread {
+        private final DatagramChannel channel;
+        private final Selector selector;
+
+        ReceiverThread(DatagramChannel channel, Selector selector) {
+            super("Mi IO Transport");
+            setDaemon(true);
+            this.channel = channel;
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            logger.debug("Starting Mi IO transport receiver");
+            ByteBuffer buffer = ByteBuffer.allocate(MSG_BUFFER_SIZE);
+            try {
+                while (!interrupted() && selector.isOpen()) {
+                    selector.select();
+                    selector.selectedKeys().clear();
+                    SocketAddress sender;
+                    while ((sender = channel.receive(buffer)) != null) {
+                        buffer.flip();
+                        byte[] data = new byte[buffer.remaining()];
+                        buffer.get(data);
+                        buffer.clear();
+                        dispatch(sender, data);
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                // That's our signal to stop
+            } catch (IOException e) {
+                if (channel.isOpen()) {
+                    logger.warn("Error while receiving Mi IO messages: {}", e.getMessage());
+                }
+            }
+            logger.debug("Finished Mi IO transport receiver");
+        }
+    }
+
+    /**
+     * Closes the channel and fails all outstanding requests
+     */
+    public synchronized void close() {
+        final Thread receiverThread = this.receiverThread;
+        if (receiverThread != null) {
+            receiverThread.interrupt();
+            this.receiverThread = null;
+        }
+        try {
+            final Selector selector = this.selector;
+            if (selector != null) {
+                selector.close();
+            }
+            final DatagramChannel channel = this.channel;
+            if (channel != null) {
+                logger.debug("Closing Mi IO transport on port: {}", channel.socket().getLocalPort());
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Error while closing: {} ", e.getMessage());
+        }
+        this.selector = null;
+        this.channel = null;
+        IOException closed = new IOException("Transport closed");
+        for (Peer peer : peers.values()) {
+            List<Request> pending = new ArrayList<>();
+            synchronized (peer) {
+                Request inFlight = peer.inFlight;
+                if (inFlight != null) {
+                    pending.add(inFlight);
+                    peer.inFlight = null;
+                }
+                pending.addAll(peer.queue);
+                peer.queue.clear();
+            }
+            for (Request request : pending) {
+                request.future.completeExceptionally(closed);
+            }
+        }
+        peers.clear();
+    }
+
+    private static class Peer {
+        final InetAddress address;
+        final Queue<Request> queue = new ArrayDeque<>();
+        volatile @Nullable Request inFlight;
+
+        Peer(InetAddress address) {
+            this.address = address;
+        }
+    }
+
+    private static class Request {
+        final byte[] message;
+        final int timeout;
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        volatile @Nullable ScheduledFuture<?> timeoutJob;
+
+        Request(byte[] message, int timeout) {
+            this.message = message;
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.miio.internal.robot;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+
+/**
+ * Test case for {@link RRMapDraw} and {@link RRMapFileParser}
+ *
+ * @author Marcel Verpaalen - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class RRMapDrawTest {
+
+    private static final int WIDTH = 40;
+    private static final int HEIGHT = 30;
+    private static final float SCALE = 2.0f;
+
+    @Test
+    public void parseMapTest() {
+        RRMapFileParser parser = new RRMapFileParser(createMap(createPixels()));
+        assertEquals(WIDTH, parser.getImgWidth());
+        assertEquals(HEIGHT, parser.getImgHeight());
+        assertEquals(WIDTH * HEIGHT, parser.getImage().length);
+        assertEquals(25600, parser.getRoboX(), 0);
+        assertEquals(25650, parser.getRoboY(), 0);
+    }
+
+    @Test
+    public void incrementalMapUpdateTest() {
+        byte[] pixels = createPixels();
+        RRMapDraw previous = new RRMapDraw(new RRMapFileParser(createMap(pixels)));
+        previous.getImage(SCALE);
+
+        pixels[5 + WIDTH * 7] = 0x01;
+        pixels[20 + WIDTH * 10] = (byte) 0x0F;
+        pixels[WIDTH * 3 + 3] = 0x00;
+        byte[] updatedMap = createMap(pixels);
+        BufferedImage incremental = new RRMapDraw(new RRMapFileParser(updatedMap), previous).getImage(SCALE);
+        BufferedImage full = new RRMapDraw(new RRMapFileParser(updatedMap)).getImage(SCALE);
+
+        assertEquals(full.getWidth(), incremental.getWidth());
+        assertEquals(full.getHeight(), incremental.getHeight());
+        assertArrayEquals(getPixels(full), getPixels(incremental));
+    }
+
+    private int[] getPixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private byte[] createPixels() {
+        byte[] pixels = new byte[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                boolean border = x == 2 || y == 2 || x == WIDTH - 3 || y == HEIGHT - 3;
+                boolean inside = x > 2 && y > 2 && x < WIDTH - 3 && y < HEIGHT - 3;
+                pixels[x + WIDTH * y] = (byte) (border ? 0x01 : inside ? 0xFF : 0x00);
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Creates a map with a header, an image block and a robot position block
+     */
+    private byte[] createMap(byte[] pixels) {
+        int imageBlockLength = 0x18 + pixels.length;
+        int robotBlockLength = 0x08 + 0x08;
+        byte[] raw = new byte[0x14 + imageBlockLength + robotBlockLength];
+        putUInt16(raw, 0x00, RRMapFileParser.HEADER);
+        putUInt16(raw, 0x02, 0x14);
+        putUInt32(raw, 0x04, imageBlockLength + robotBlockLength);
+        putUInt16(raw, 0x08, 1);
+
+        int pos = 0x14;
+        putUInt16(raw, pos, RRMapFileParser.IMAGE);
+        putUInt16(raw, pos + 0x02, 0x18);
+        putUInt32(raw, pos + 0x04, pixels.length);
+        putUInt32(raw, pos + 0x08, 500);
+        putUInt32(raw, pos + 0x0C, 500);
+        putUInt32(raw, pos + 0x10, HEIGHT);
+        putUInt32(raw, pos + 0x14, WIDTH);
+        System.arraycopy(pixels, 0, raw, pos + 0x18, pixels.length);
+
+        pos += imageBlockLength;
+        putUInt16(raw, pos, RRMapFileParser.ROBOT_POSITION);
+        putUInt16(raw, pos + 0x02, 0x08);
+        putUInt32(raw, pos + 0x04, 0x08);
+        putUInt32(raw, pos + 0x08, 25600);
+        putUInt32(raw, pos + 0x0C, 25650);
+        return raw;
+    }
+
+    private void putUInt16(byte[] raw, int pos, int value) {
+        raw[pos] = (byte) value;
+        raw[pos + 1] = (byte) (value >> 8);
+    }
+
+    private void putUInt32(byte[] raw, int pos, int value) {
+        putUInt16(raw, pos, value);
+        putUInt16(raw, pos + 2, value >> 16);
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.miio.internal.transport;
+
+import static org.junit.Assert.*;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for {@link MiIoUdpTransport}
+ *
+ * @author Marcel Verpaalen - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class MiIoUdpTransportTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final InetAddress loopback = InetAddress.getLoopbackAddress();
+
+    @NonNullByDefault({})
+    private DatagramSocket device;
+    @NonNullByDefault({})
+    private MiIoUdpTransport transport;
+
+    @Before
+    public void setUp() throws Exception {
+        device = new DatagramSocket(0, loopback);
+        device.setSoTimeout(500);
+        transport = new MiIoUdpTransport(scheduler, device.getLocalPort());
+    }
+
+    @After
+    public void tearDown() {
+        transport.close();
+        device.close();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void requestsPerDeviceAreSentOneByOneTest() throws Exception {
+        CompletableFuture<byte[]> first = transport.send(loopback, new byte[] { 1 }, 2000);
+        CompletableFuture<byte[]> second = transport.send(loopback, new byte[] { 2 }, 2000);
+
+        DatagramPacket request = receive();
+        assertArrayEquals(new byte[] { 1 }, data(request));
+        try {
+            receive();
+            fail("Second request sent before the first one was answered");
+        } catch (SocketTimeoutException e) {
+            // expected
+        }
+
+        reply(request, new byte[] { 11 });
+        assertArrayEquals(new byte[] { 11 }, first.get(1, TimeUnit.SECONDS));
+
+        request = receive();
+        assertArrayEquals(new byte[] { 2 }, data(request));
+        reply(request, new byte[] { 12 });
+        assertArrayEquals(new byte[] { 12 }, second.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void requestTimeoutTest() throws Exception {
+        CompletableFuture<byte[]> future = transport.send(loopback, new byte[] { 1 }, 100);
+        receive();
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail("Request without reply should time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SocketTimeoutException);
+        }
+    }
+
+    @Test
+    public void answeredRequestCancelsTimeoutTest() throws Exception {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        transport.close();
+        transport = new MiIoUdpTransport(executor, device.getLocalPort());
+        try {
+            CompletableFuture<byte[]> future = transport.send(loopback, new byte[] { 1 }, 60000);
+            reply(receive(), new byte[] { 11 });
+            assertArrayEquals(new byte[] { 11 }, future.get(1, TimeUnit.SECONDS));
+
+            // the timeout is cancelled before the reply is handed to the future
+            assertTrue(executor.getQueue().isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private DatagramPacket receive() throws Exception {
+        DatagramPacket packet = new DatagramPacket(new byte[64], 64);
+        device.receive(packet);
+        return packet;
+    }
+
+    private byte[] data(DatagramPacket packet) {
+        byte[] data = new byte[packet.getLength()];
+        System.arraycopy(packet.getData(), packet.getOffset(), data, 0, packet.getLength());
+        return data;
+    }
+
+    private void reply(DatagramPacket request, byte[] data) throws Exception {
+        device.send(new DatagramPacket(data, data.length, request.getSocketAddress()));
+    }
+}
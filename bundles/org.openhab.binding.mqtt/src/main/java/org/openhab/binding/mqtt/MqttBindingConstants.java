@@ -30,4 +30,12 @@ public class MqttBindingConstants {
     public static final ThingTypeUID BRIDGE_TYPE_BROKER = new ThingTypeUID(BINDING_ID, "broker");
 
     public static final String PUBLISH_TRIGGER_CHANNEL = "publishTrigger";
+
+    // Broker metrics channels of the system broker
+    public static final String CHANNEL_PUBLISH_RATE = "publishRate";
+    public static final String CHANNEL_BYTE_RATE = "byteRate";
+    public static final String CHANNEL_SUBSCRIPTIONS = "subscriptions";
+    public static final String CHANNEL_RETAINED_MESSAGES = "retainedMessages";
+    public static final String CHANNEL_CONNECTED_CLIENTS = "connectedClients";
+    public static final String CHANNEL_SNAPSHOT_LATENCY = "snapshotLatency";
 }
@@ -0,0 +1,333 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryParticipant;
+import org.openhab.binding.mqtt.discovery.TopicSubscribe;
+import org.openhab.binding.mqtt.internal.TopicTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Routes the messages of the discovery topics of a broker to the registered {@link MQTTTopicDiscoveryParticipant}s.
+ *
+ * Only the registered topics that are not covered by another registered topic (the discovery roots) are subscribed
+ * on the broker. A received message is matched against all registered topics with a {@link TopicTrie} and handed
+ * to the participants of the topics that belong to the root it was received on, so that every participant gets a
+ * message exactly once per registered topic.
+ *
+ * The broker only sends retained messages for a new subscription. Each root therefore keeps the retained messages
+ * it received, which are replayed to a participant that is registered for an already subscribed root. The broker
+ * connection does not tell retained and live messages apart, so only the topics of the burst the broker sends right
+ * after subscribing are remembered, and later messages merely update or remove them. At most
+ * {@link #MAX_RETAINED_TOPICS} topics are kept per root, the least recently updated ones are dropped first. If the
+ * roots change, the new roots take over the messages of the former ones, so that the retained messages the broker
+ * sends for the new subscription are not delivered a second time.
+ *
+ * @author David Graeff - Initial contribution
+ */
+@NonNullByDefault
+class DiscoveryRouter {
+    static final int MAX_RETAINED_TOPICS = 1000;
+    private static final long RETAINED_BURST_MILLIS = 5000;
+
+    private final Logger logger = LoggerFactory.getLogger(DiscoveryRouter.class);
+
+    private final ThingUID thingUID;
+    private final TopicTrie<Registration> registrations = new TopicTrie<>();
+    private final Set<String> topics = new TreeSet<>();
+    private final Map<String, String> rootByTopic = new HashMap<>();
+    private final Map<String, Route> routes = new TreeMap<>();
+    private final Map<String, Integer> topicUsage = new HashMap<>();
+    private @Nullable MqttBrokerConnection connection;
+
+    DiscoveryRouter(ThingUID thingUID) {
+        this.thingUID = thingUID;
+    }
+
+    /**
+     * Registers a participant for a topic. The topic is not subscribed until {@link #subscribe()} is called.
+     *
+     * @param participant The discovery participant
+     * @param topic The topic (wildcards supported)
+     * @return Returns false if the participant was already registered for this topic
+     */
+    boolean add(MQTTTopicDiscoveryParticipant participant, String topic) {
+        final MqttBrokerConnection connection;
+        Map<String, byte[]> replay = new TreeMap<>();
+        synchronized (this) {
+            if (!registrations.add(topic, new Registration(topic, participant))) {
+                return false;
+            }
+            topicUsage.merge(topic, 1, Integer::sum);
+            topics.add(topic);
+            updateRoutes();
+
+            Route route = routes.get(rootByTopic.get(topic));
+            if (route != null) {
+                route.retained.forEach((t, payload) -> {
+                    if (TopicTrie.covers(topic, t)) {
+                        replay.put(t, payload);
+                    }
+                });
+            }
+            connection = this.connection;
+        }
+        // the broker has already sent the retained messages of this topic, hand them to the new participant only
+        if (connection != null) {
+            replay.forEach((t, payload) -> participant.receivedMessage(thingUID, connection, t, payload));
+        }
+        return true;
+    }
+
+    /**
+     * Unregisters a participant from a topic.
+     *
+     * @param participant The discovery participant
+     * @param topic The topic, as used in {@link #add(MQTTTopicDiscoveryParticipant, String)}
+     * @return Returns false if the participant was not registered for this topic
+     */
+    synchronized boolean remove(MQTTTopicDiscoveryParticipant participant, String topic) {
+        if (!registrations.remove(topic, new Registration(topic, participant))) {
+            return false;
+        }
+        if (topicUsage.merge(topic, -1, Integer::sum) == 0) {
+            topicUsage.remove(topic);
+            topics.remove(topic);
+            updateRoutes();
+        }
+        return true;
+    }
+
+    /**
+     * Uses the given broker connection for all subscriptions. Existing subscriptions are stopped.
+     *
+     * @param connection The broker connection
+     */
+    synchronized void setConnection(@Nullable MqttBrokerConnection connection) {
+        if (this.connection == connection) {
+            return;
+        }
+        unsubscribe();
+        this.connection = connection;
+        routes.replaceAll((root, route) -> new Route(root));
+    }
+
+    /**
+     * Subscribes all discovery roots that are not subscribed yet.
+     */
+    synchronized void subscribe() {
+        routes.values().forEach(route -> {
+            TopicSubscribe subscription = route.subscription;
+            if (subscription.isStarted()) {
+                return;
+            }
+            subscription.start().handle((result, ex) -> {
+                if (ex != null) {
+                    logger.warn("Failed to subscribe to discovery topic {} on broker {}", route.root, thingUID);
+                } else {
+                    logger.trace("Subscribed to discovery topic {} on broker {}", route.root, thingUID);
+                }
+                return null;
+            });
+        });
+    }
+
+    /**
+     * Stops all subscriptions but keeps the registered participants.
+     */
+    synchronized void unsubscribe() {
+        routes.values().forEach(route -> {
+            if (route.subscription.isStarted()) {
+                route.subscription.stop();
+            }
+            route.retained.clear();
+            route.inherited.clear();
+            route.burstEnd = 0;
+        });
+    }
+
+    /**
+     * @return The topics that are subscribed on the broker
+     */
+    synchronized Set<String> getRoots() {
+        return new TreeSet<>(routes.keySet());
+    }
+
+    private void updateRoutes() {
+        rootByTopic.clear();
+        for (String topic : topics) {
+            String root = topics.stream().filter(other -> !other.equals(topic) && TopicTrie.covers(other, topic))
+                    .findFirst().orElse(topic);
+            rootByTopic.put(topic, root);
+        }
+
+        List<Route> removed = new ArrayList<>();
+        Iterator<Map.Entry<String, Route>> iterator = routes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Route> entry = iterator.next();
+            if (!entry.getKey().equals(rootByTopic.get(entry.getKey()))) {
+                if (entry.getValue().subscription.isStarted()) {
+                    entry.getValue().subscription.stop();
+                }
+                removed.add(entry.getValue());
+                iterator.remove();
+            }
+        }
+        for (String root : new HashSet<>(rootByTopic.values())) {
+            if (routes.containsKey(root)) {
+                continue;
+            }
+            Route route = new Route(root);
+            removed.forEach(former -> former.retained.forEach((topic, payload) -> {
+                if (TopicTrie.covers(root, topic)) {
+                    route.retained.put(topic, payload);
+                    route.inherited.add(topic);
+                }
+            }));
+            routes.put(root, route);
+        }
+    }
+
+    /**
+     * Remembers the message of a route if it belongs to the retained messages, and determines the participants to
+     * hand it to.
+     *
+     * @param route The route the message was received on
+     * @param topic The topic of the message
+     * @param payload The payload, empty if the topic vanished
+     * @return The registrations to dispatch the message to
+     */
+    private synchronized List<Registration> dispatch(Route route, String topic, byte[] payload) {
+        if (routes.get(route.root) != route) {
+            return Collections.emptyList();
+        }
+        long now = System.currentTimeMillis();
+        if (route.burstEnd == 0) {
+            route.burstEnd = now + RETAINED_BURST_MILLIS;
+        }
+        final byte[] previous;
+        if (payload.length == 0) {
+            previous = route.retained.remove(topic);
+        } else if (now < route.burstEnd || route.retained.containsKey(topic)) {
+            previous = route.retained.put(topic, payload);
+        } else {
+            // a topic that was not part of the retained burst, most likely a live message
+            previous = null;
+        }
+        if (route.inherited.remove(topic) && previous != null && Arrays.equals(previous, payload)) {
+            // the retained message of the new subscription, already delivered on the former root
+            return Collections.emptyList();
+        }
+        return match(route.root, topic);
+    }
+
+    private List<Registration> match(String root, String topic) {
+        List<Registration> result = new ArrayList<>();
+        for (Registration registration : registrations.match(topic)) {
+            if (root.equals(rootByTopic.get(registration.topic))) {
+                result.add(registration);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A participant registered for a topic.
+     */
+    private static class Registration {
+        final String topic;
+        final MQTTTopicDiscoveryParticipant participant;
+
+        Registration(String topic, MQTTTopicDiscoveryParticipant participant) {
+            this.topic = topic;
+            this.participant = participant;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof Registration)) {
+                return false;
+            }
+            Registration other = (Registration) obj;
+            return topic.equals(other.topic) && participant.equals(other.participant);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topic, participant);
+        }
+    }
+
+    /**
+     * The broker subscription of a discovery root. Received messages are dispatched outside of the router lock.
+     */
+    private class Route implements MQTTTopicDiscoveryParticipant {
+        final String root;
+        final TopicSubscribe subscription;
+        // last message per retained topic in update order, guarded by the router lock
+        final Map<String, byte[]> retained = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, byte[]> eldest) {
+                if (size() <= MAX_RETAINED_TOPICS || eldest == null) {
+                    return false;
+                }
+                logger.debug("Too many retained topics below {} on broker {}, dropping {}", root, thingUID,
+                        eldest.getKey());
+                inherited.remove(eldest.getKey());
+                return true;
+            }
+        };
+        // topics taken over from a former root, guarded by the router lock
+        final Set<String> inherited = new HashSet<>();
+        // end of the retained burst, starts with the first message of the subscription, guarded by the router lock
+        long burstEnd;
+
+        Route(String root) {
+            this.root = root;
+            this.subscription = new TopicSubscribe(connection, root, this, thingUID);
+        }
+
+        @Override
+        public void receivedMessage(ThingUID thingUID, MqttBrokerConnection connection, String topic,
+                byte[] payload) {
+            dispatch(this, topic, payload)
+                    .forEach(r -> r.participant.receivedMessage(thingUID, connection, topic, payload));
+        }
+
+        @Override
+        public void topicVanished(ThingUID thingUID, MqttBrokerConnection connection, String topic) {
+            dispatch(this, topic, new byte[0]).forEach(r -> r.participant.topicVanished(thingUID, connection, topic));
+        }
+    }
+}
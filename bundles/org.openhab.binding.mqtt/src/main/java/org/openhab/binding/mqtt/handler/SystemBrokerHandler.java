@@ -12,20 +12,29 @@
  */
 package org.openhab.binding.mqtt.handler;
 
+import static org.openhab.binding.mqtt.MqttBindingConstants.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.eclipse.smarthome.io.transport.mqtt.MqttService;
 import org.eclipse.smarthome.io.transport.mqtt.MqttServiceObserver;
 import org.eclipse.smarthome.io.transport.mqtt.MqttWillAndTestament;
 import org.eclipse.smarthome.io.transport.mqtt.reconnect.PeriodicReconnectStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This handler does not much except providing all information from a
@@ -47,10 +56,27 @@ public class SystemBrokerHandler extends AbstractBrokerHandler implements MqttSe
     public static final String PROPERTY_KEEP_ALIVE_TIME = "keep_alive_time_ms";
     public static final String PROPERTY_CONNECT_TIMEOUT = "connect_timeout_ms";
 
+    // Broker metrics published by the embedded broker, the counts use the same topics as mosquitto
+    static final String METRICS_TOPIC = "$SYS/broker/#";
+    static final Map<String, String> METRICS_CHANNELS;
+    static {
+        Map<String, String> channels = new HashMap<>();
+        channels.put("$SYS/broker/load/publish/received/persecond", CHANNEL_PUBLISH_RATE);
+        channels.put("$SYS/broker/load/bytes/received/persecond", CHANNEL_BYTE_RATE);
+        channels.put("$SYS/broker/subscriptions/count", CHANNEL_SUBSCRIPTIONS);
+        channels.put("$SYS/broker/retained messages/count", CHANNEL_RETAINED_MESSAGES);
+        channels.put("$SYS/broker/clients/connected", CHANNEL_CONNECTED_CLIENTS);
+        channels.put("$SYS/broker/store/snapshot/latency", CHANNEL_SNAPSHOT_LATENCY);
+        METRICS_CHANNELS = Collections.unmodifiableMap(channels);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(SystemBrokerHandler.class);
     protected final MqttService service;
 
     protected String brokerID = "";
     protected boolean discoveryEnabled = true;
+    private final MqttMessageSubscriber metricsSubscriber = this::processMetric;
+    private @Nullable MqttBrokerConnection metricsConnection;
 
     public SystemBrokerHandler(Bridge thing, MqttService service) {
         super(thing);
@@ -86,6 +112,44 @@ public class SystemBrokerHandler extends AbstractBrokerHandler implements MqttSe
 
         updateProperties(properties);
         super.connectionStateChanged(state, error);
+
+        final MqttBrokerConnection brokerConnection = this.connection;
+        if (state == MqttConnectionState.CONNECTED && brokerConnection != null) {
+            subscribeMetrics(brokerConnection);
+        }
+    }
+
+    private synchronized void subscribeMetrics(MqttBrokerConnection connection) {
+        if (metricsConnection == connection) {
+            return;
+        }
+        unsubscribeMetrics();
+        metricsConnection = connection;
+        connection.subscribe(METRICS_TOPIC, metricsSubscriber).exceptionally(e -> {
+            logger.debug("Failed to subscribe to broker metrics on {}: {}", thing.getUID(), e.getMessage());
+            return false;
+        });
+    }
+
+    private synchronized void unsubscribeMetrics() {
+        final MqttBrokerConnection connection = metricsConnection;
+        if (connection != null) {
+            connection.unsubscribe(METRICS_TOPIC, metricsSubscriber);
+            metricsConnection = null;
+        }
+    }
+
+    private void processMetric(String topic, byte[] payload) {
+        final String channelId = METRICS_CHANNELS.get(topic);
+        if (channelId == null) {
+            return;
+        }
+        try {
+            updateState(new ChannelUID(thing.getUID(), channelId),
+                    new DecimalType(new String(payload, StandardCharsets.UTF_8).trim()));
+        } catch (NumberFormatException e) {
+            logger.debug("Broker metric {} is not a number", topic);
+        }
     }
 
     /**
@@ -107,6 +171,7 @@ public class SystemBrokerHandler extends AbstractBrokerHandler implements MqttSe
     public void brokerRemoved(String connectionName, MqttBrokerConnection removedConnection) {
         final MqttBrokerConnection connection = this.connection;
         if (removedConnection.equals(connection)) {
+            unsubscribeMetrics();
             connection.removeConnectionObserver(this);
             this.connection = null;
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "@text/offline.sharedremoved");
@@ -133,6 +198,7 @@ public class SystemBrokerHandler extends AbstractBrokerHandler implements MqttSe
     @Override
     public void dispose() {
         service.removeBrokersListener(this);
+        unsubscribeMetrics();
         super.dispose();
     }
 
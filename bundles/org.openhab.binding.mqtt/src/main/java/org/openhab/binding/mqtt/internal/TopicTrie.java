@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A trie of MQTT topic filters. Values are stored for a topic filter and can be looked up for a concrete topic,
+ * which returns the values of all filters that match the topic. The single level wildcard "+" and the multi level
+ * wildcard "#" are supported with the semantics of the MQTT specification, including the rule that wildcards at the
+ * first level do not match topics starting with "$".
+ *
+ * A lookup walks the levels of the topic once instead of testing every registered filter. This class is not thread
+ * safe.
+ *
+ * @author David Graeff - Initial contribution
+ */
+@NonNullByDefault
+public class TopicTrie<T> {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private final Node<T> root = new Node<>();
+    private int size;
+
+    private static class Node<T> {
+        final Map<String, Node<T>> children = new HashMap<>();
+        final Set<T> values = new LinkedHashSet<>();
+        final Set<T> multiLevelValues = new LinkedHashSet<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && values.isEmpty() && multiLevelValues.isEmpty();
+        }
+    }
+
+    /**
+     * Adds a value for the given topic filter.
+     *
+     * @param filter The topic filter, wildcards supported
+     * @param value The value
+     * @return Returns true if the value was not yet registered for this filter
+     */
+    public boolean add(String filter, T value) {
+        String[] levels = filter.split("/", -1);
+        Node<T> node = root;
+        for (int i = 0; i < levels.length; i++) {
+            if (MULTI_LEVEL_WILDCARD.equals(levels[i]) && i == levels.length - 1) {
+                return added(node.multiLevelValues.add(value));
+            }
+            node = node.children.computeIfAbsent(levels[i], k -> new Node<>());
+        }
+        return added(node.values.add(value));
+    }
+
+    private boolean added(boolean added) {
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Removes a value from the given topic filter.
+     *
+     * @param filter The topic filter, as used in {@link #add(String, Object)}
+     * @param value The value
+     * @return Returns true if the value was registered for this filter
+     */
+    public boolean remove(String filter, T value) {
+        String[] levels = filter.split("/", -1);
+        boolean removed = remove(root, levels, 0, value);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    private boolean remove(Node<T> node, String[] levels, int level, T value) {
+        if (level == levels.length) {
+            return node.values.remove(value);
+        }
+        if (MULTI_LEVEL_WILDCARD.equals(levels[level]) && level == levels.length - 1) {
+            return node.multiLevelValues.remove(value);
+        }
+        Node<T> child = node.children.get(levels[level]);
+        if (child == null) {
+            return false;
+        }
+        boolean removed = remove(child, levels, level + 1, value);
+        if (child.isEmpty()) {
+            node.children.remove(levels[level]);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the values of all filters that match the given topic.
+     *
+     * @param topic A topic without wildcards
+     * @return The matching values. A value registered for several matching filters is returned once per filter.
+     */
+    public List<T> match(String topic) {
+        List<T> result = new ArrayList<>();
+        match(root, topic.split("/", -1), 0, !topic.startsWith("$"), result);
+        return result;
+    }
+
+    private void match(Node<T> node, String[] levels, int level, boolean wildcards, List<T> result) {
+        if (wildcards) {
+            // "a/#" matches "a" as well as all topics below "a"
+            result.addAll(node.multiLevelValues);
+        }
+        if (level == levels.length) {
+            result.addAll(node.values);
+            return;
+        }
+        Node<T> child = node.children.get(levels[level]);
+        if (child != null) {
+            match(child, levels, level + 1, true, result);
+        }
+        Node<T> wildcardChild = wildcards ? node.children.get(SINGLE_LEVEL_WILDCARD) : null;
+        if (wildcardChild != null) {
+            match(wildcardChild, levels, level + 1, true, result);
+        }
+    }
+
+    /**
+     * @return The number of registered filter and value pairs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if no values are registered
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether every topic matched by the second filter is also matched by the first filter.
+     *
+     * @param filter A topic filter
+     * @param other Another topic filter
+     * @return Returns true if filter covers other
+     */
+    public static boolean covers(String filter, String other) {
+        String[] levels = filter.split("/", -1);
+        String[] otherLevels = other.split("/", -1);
+        for (int i = 0;; i++) {
+            if (i == levels.length) {
+                return i == otherLevels.length;
+            }
+            if (MULTI_LEVEL_WILDCARD.equals(levels[i])) {
+                return i > 0 || !other.startsWith("$");
+            }
+            if (i == otherLevels.length || MULTI_LEVEL_WILDCARD.equals(otherLevels[i])) {
+                return false;
+            }
+            if (SINGLE_LEVEL_WILDCARD.equals(levels[i])) {
+                if (i == 0 && other.startsWith("$")) {
+                    return false;
+                }
+            } else if (!levels[i].equals(otherLevels[i])) {
+                return false;
+            }
+        }
+    }
+}
@@ -12,7 +12,7 @@
  */
 package org.openhab.binding.mqtt.internal;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -59,6 +59,9 @@ public class MQTTTopicDiscoveryServiceTest {
     @Mock
     MQTTTopicDiscoveryParticipant listener;
 
+    @Mock
+    MQTTTopicDiscoveryParticipant otherListener;
+
     private MqttBrokerConnectionEx connection;
 
     private BrokerHandler handler;
@@ -151,4 +154,96 @@ public class MQTTTopicDiscoveryServiceTest {
                 .forEach(s -> s.processMessage("topic", bytes));
         verify(listener).topicVanished(eq(thing.getUID()), eq(connection), eq("topic"));
     }
+
+    @Test
+    public void coveredTopicSharesSubscription() {
+        handler.initialize();
+        BrokerHandlerEx.verifyCreateBrokerConnection(handler, 1);
+
+        subject.createdHandler(handler);
+        subject.subscribe(listener, "homie/+/$homie");
+        subject.subscribe(otherListener, "homie/#");
+        assertFalse(connection.getSubscribers().containsKey("homie/+/$homie"));
+
+        // Simulate receiving
+        final byte[] bytes = "TEST".getBytes();
+        connection.getSubscribers().get("homie/#").forEach(s -> s.processMessage("homie/device/$homie", bytes));
+        verify(listener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$homie"), eq(bytes));
+        verify(otherListener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$homie"),
+                eq(bytes));
+
+        connection.getSubscribers().get("homie/#").forEach(s -> s.processMessage("homie/device/name", bytes));
+        verify(listener, never()).receivedMessage(any(), any(), eq("homie/device/name"), any());
+        verify(otherListener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/name"), eq(bytes));
+    }
+
+    @Test
+    public void retainedMessagesReplayedToNewParticipantOnly() {
+        handler.initialize();
+        BrokerHandlerEx.verifyCreateBrokerConnection(handler, 1);
+
+        subject.createdHandler(handler);
+        subject.subscribe(otherListener, "homie/#");
+
+        final byte[] bytes = "TEST".getBytes();
+        connection.getSubscribers().get("homie/#").forEach(s -> s.processMessage("homie/device/$homie", bytes));
+
+        // the shared root subscription keeps running, only the new participant gets the retained message
+        subject.subscribe(listener, "homie/+/$homie");
+        verify(connection, never()).unsubscribe(eq("homie/#"), any());
+        verify(listener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$homie"), eq(bytes));
+        verify(otherListener, times(1)).receivedMessage(eq(thing.getUID()), eq(connection),
+                eq("homie/device/$homie"), eq(bytes));
+
+        // later messages go to both
+        final byte[] update = "UPDATE".getBytes();
+        connection.getSubscribers().get("homie/#").forEach(s -> s.processMessage("homie/device/$homie", update));
+        verify(listener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$homie"), eq(update));
+        verify(otherListener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$homie"),
+                eq(update));
+    }
+
+    @Test
+    public void newRootDoesNotRedeliverRetainedMessages() {
+        handler.initialize();
+        BrokerHandlerEx.verifyCreateBrokerConnection(handler, 1);
+
+        subject.createdHandler(handler);
+        subject.subscribe(listener, "homie/+/$homie");
+
+        final byte[] bytes = "TEST".getBytes();
+        connection.getSubscribers().get("homie/+/$homie").forEach(s -> s.processMessage("homie/device/$homie", bytes));
+
+        // the wider topic becomes the new root, the broker resends the retained message for it
+        subject.subscribe(otherListener, "homie/#");
+        connection.getSubscribers().get("homie/#").forEach(s -> s.processMessage("homie/device/$homie", bytes));
+
+        verify(listener, times(1)).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$homie"),
+                eq(bytes));
+        verify(otherListener, times(1)).receivedMessage(eq(thing.getUID()), eq(connection),
+                eq("homie/device/$homie"), eq(bytes));
+    }
+
+    @Test
+    public void retainedMessagesAreBoundedPerRoot() {
+        handler.initialize();
+        BrokerHandlerEx.verifyCreateBrokerConnection(handler, 1);
+
+        subject.createdHandler(handler);
+        subject.subscribe(otherListener, "homie/#");
+
+        // one topic more than a root keeps, the oldest one is dropped
+        final byte[] bytes = "TEST".getBytes();
+        for (int i = 0; i <= 1000; i++) {
+            final String topic = "homie/device" + i + "/$homie";
+            connection.getSubscribers().get("homie/#").forEach(s -> s.processMessage(topic, bytes));
+        }
+
+        subject.subscribe(listener, "homie/+/$homie");
+        verify(listener, never()).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device0/$homie"),
+                any());
+        verify(listener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device1/$homie"), eq(bytes));
+        verify(listener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device1000/$homie"),
+                eq(bytes));
+    }
 }
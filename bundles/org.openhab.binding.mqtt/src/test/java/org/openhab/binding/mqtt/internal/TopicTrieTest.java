@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link TopicTrie}.
+ *
+ * @author David Graeff - Initial contribution
+ */
+public class TopicTrieTest {
+
+    @Test
+    public void exactAndWildcardMatches() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.add("homie/device/$homie", "exact");
+        trie.add("homie/+/$homie", "single");
+        trie.add("homie/#", "multi");
+        trie.add("homeassistant/+/+/config", "ha");
+
+        assertThat(sorted(trie.match("homie/device/$homie")), is(Arrays.asList("exact", "multi", "single")));
+        assertThat(sorted(trie.match("homie/other/$homie")), is(Arrays.asList("multi", "single")));
+        assertThat(trie.match("homie"), is(Collections.singletonList("multi")));
+        assertThat(trie.match("homeassistant/light/lamp/config"), is(Collections.singletonList("ha")));
+        assertTrue(trie.match("homeassistant/light/config").isEmpty());
+        assertTrue(trie.match("homeassistant/light/lamp/config/extra").isEmpty());
+    }
+
+    @Test
+    public void wildcardsDoNotMatchSystemTopics() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.add("#", "all");
+        trie.add("+/broker", "single");
+        trie.add("$SYS/#", "sys");
+
+        assertThat(trie.match("$SYS/broker"), is(Collections.singletonList("sys")));
+        assertThat(sorted(trie.match("some/broker")), is(Arrays.asList("all", "single")));
+    }
+
+    @Test
+    public void addAndRemove() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        assertTrue(trie.add("a/+/c", "x"));
+        assertFalse(trie.add("a/+/c", "x"));
+        assertTrue(trie.add("a/#", "x"));
+        assertThat(trie.size(), is(2));
+
+        assertFalse(trie.remove("a/b/c", "x"));
+        assertTrue(trie.remove("a/+/c", "x"));
+        assertThat(trie.match("a/b/c"), is(Collections.singletonList("x")));
+        assertTrue(trie.remove("a/#", "x"));
+        assertTrue(trie.isEmpty());
+        assertTrue(trie.match("a/b/c").isEmpty());
+    }
+
+    @Test
+    public void covers() {
+        assertTrue(TopicTrie.covers("homie/#", "homie/+/$homie"));
+        assertTrue(TopicTrie.covers("homie/#", "homie"));
+        assertTrue(TopicTrie.covers("+/+/config", "ha/+/config"));
+        assertTrue(TopicTrie.covers("a/b", "a/b"));
+        assertFalse(TopicTrie.covers("homie/+/$homie", "homie/#"));
+        assertFalse(TopicTrie.covers("a/+/c", "a/b/+"));
+        assertFalse(TopicTrie.covers("a/+", "a/b/c"));
+        assertFalse(TopicTrie.covers("#", "$SYS/broker"));
+    }
+
+    /**
+     * Compares the trie with matching every filter as a regular expression, which is how the broker connection
+     * matches subscriptions.
+     */
+    @Test
+    public void sameResultAsRegexMatching() {
+        String[] levels = { "homie", "homeassistant", "dev1", "dev2", "light", "config", "$homie", "$SYS" };
+        Random random = new Random(42);
+        TopicTrie<String> trie = new TopicTrie<>();
+        Set<String> filters = new LinkedHashSet<>();
+        for (int i = 0; i < 200; i++) {
+            String filter = randomTopic(random, levels, true);
+            filters.add(filter);
+            trie.add(filter, filter);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            String topic = randomTopic(random, levels, false);
+            List<String> expected = new ArrayList<>();
+            for (String filter : filters) {
+                if (toPattern(filter).matcher(topic).matches()) {
+                    expected.add(filter);
+                }
+            }
+            assertThat(topic, sorted(trie.match(topic)), is(sorted(expected)));
+        }
+    }
+
+    private static String randomTopic(Random random, String[] levels, boolean wildcards) {
+        int count = 1 + random.nextInt(4);
+        StringBuilder topic = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                topic.append('/');
+            }
+            int choice = random.nextInt(levels.length + (wildcards ? 2 : 0));
+            if (choice == levels.length) {
+                topic.append('+');
+            } else if (choice == levels.length + 1) {
+                topic.append('#');
+                break;
+            } else {
+                topic.append(levels[choice]);
+            }
+        }
+        return topic.toString();
+    }
+
+    private static Pattern toPattern(String filter) {
+        String regex = Pattern.quote(filter).replace("+", "\\E[^/]*\\Q").replace("/#", "\\E(/.*)?\\Q")
+                .replace("#", "\\E.*\\Q");
+        if (filter.startsWith("+") || filter.startsWith("#")) {
+            regex = "(?!\\$)" + regex;
+        }
+        return Pattern.compile(regex);
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> result = new ArrayList<>(values);
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -235,7 +235,11 @@ public class ShellyCoIoTProtocol {
             Double brightness = -1.0;
             Double power = -1.0;
             for (CoIotSensor update : allUpdates) {
-                CoIotDescrSen d = fixDescription(sensorMap.get(update.id), blkMap);
+                // sensor definitions have already been fixed when the device description was processed
+                CoIotDescrSen d = sensorMap.get(update.id);
+                if (d == null) {
+                    continue;
+                }
                 if (!checkL.isEmpty() && !d.links.equals(checkL)) {
                     // continue until we find the correct one
                     continue;
@@ -17,6 +17,7 @@ import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.*;
 import static org.openhab.binding.shelly.internal.util.ShellyUtils.*;
 
 import java.net.UnknownHostException;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -82,6 +83,8 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     private String lastPayload = "";
     private Map<String, CoIotDescrBlk> blkMap = new LinkedHashMap<>();
     private Map<String, CoIotDescrSen> sensorMap = new LinkedHashMap<>();
+    // sensors which are linked to a known block, built once the device description has been processed
+    private volatile Map<String, CoIotDescrSen> sensorIndex = new HashMap<>();
     private final ShellyDeviceProfile profile;
 
     public ShellyCoapHandler(ShellyBaseHandler thingHandler, ShellyCoapServer coapServer) {
@@ -113,7 +116,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             }
 
             logger.debug("{}: Starting CoAP Listener", thingName);
-            coapServer.start(config.localIp, this);
+            coapServer.start(config.localIp, config.deviceIp, this);
             statusClient = new CoapClient(completeUrl(config.deviceIp, COLOIT_URI_DEVSTATUS))
                     .setTimeout((long) SHELLY_API_TIMEOUT_MS).useNONs().setEndpoint(coapServer.getEndpoint());
             discover();
@@ -135,12 +138,9 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     @Override
     public void processResponse(@Nullable Response response) {
         if (response == null) {
-            return; // other device instance
-        }
-        String ip = response.getSourceContext().getPeerAddress().toString();
-        if (!ip.contains(config.deviceIp)) {
             return;
         }
+        // the CoAP server only forwards messages that were sent by our device
 
         String payload = "";
         String devId = "";
@@ -300,6 +300,8 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                 discover();
                 return;
             }
+
+            buildSensorIndex();
         } catch (JsonSyntaxException e) {
             logger.warn("{}: Unable to parse CoAP Device Description! JSON={}", thingName, payload);
         } catch (NullPointerException | IllegalArgumentException e) {
@@ -340,6 +342,22 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         return true;
     }
 
+    /**
+     * Build the index used to map sensor updates to their definition. The sensor definitions in the sensorMap have
+     * already been fixed by addSensor(), so there is no need to repeat this for every status update.
+     */
+    private synchronized void buildSensorIndex() {
+        Map<String, CoIotDescrSen> index = new HashMap<>();
+        for (CoIotDescrSen sen : sensorMap.values()) {
+            if (blkMap.containsKey(sen.links)) {
+                index.put(sen.id, sen);
+            } else {
+                logger.debug("{}: Unable to find BLK for link {} from sen.id={}", thingName, sen.links, sen.id);
+            }
+        }
+        sensorIndex = index;
+    }
+
     /**
      * Process CoIoT status update message. If a status update is received, but the device description has not been
      * received yet a GET is send to query device description.
@@ -369,13 +387,14 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             handleDeviceDescription(devId, savedDescr);
         }
 
-        // Parse Json,
-        CoIotGenericSensorList list = gson.fromJson(fixJSON(payload), CoIotGenericSensorList.class);
+        // Parse Json, payload was already fixed by processResponse()
+        CoIotGenericSensorList list = gson.fromJson(payload, CoIotGenericSensorList.class);
         if (list.generic == null) {
             logger.debug("{}: Sensor list has invalid format! Payload: {}", devId, payload);
             return;
         }
 
+        thingHandler.coiotUpdateReceived();
         List<CoIotSensor> sensorUpdates = list.generic;
         Map<String, State> updates = new TreeMap<String, State>();
         logger.debug("{}: {} CoAP sensor updates received", thingName, sensorUpdates.size());
@@ -383,27 +402,21 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         for (int i = 0; i < sensorUpdates.size(); i++) {
             try {
                 CoIotSensor s = sensorUpdates.get(i);
-                if (!sensorMap.containsKey(s.id)) {
-                    logger.debug("{}: Invalid id in sensor description: {}, index {}", thingName, s.id, i);
-                    failed++;
-                    continue;
-                }
-                CoIotDescrSen sen = sensorMap.get(s.id);
-                // find matching sensor definition from device description, use the Link ID as index
-                sen = coiot.fixDescription(sen, blkMap);
-                if (!blkMap.containsKey(sen.links)) {
-                    logger.debug("{}: Invalid CoAP description: sen.links({}", thingName, getString(sen.links));
+                // find matching sensor definition from device description
+                CoIotDescrSen sen = sensorIndex.get(s.id);
+                if (sen == null) {
+                    if (!sensorMap.containsKey(s.id)) {
+                        logger.debug("{}: Invalid id in sensor description: {}, index {}", thingName, s.id, i);
+                        failed++;
+                    }
                     continue;
                 }
-
-                if (!blkMap.containsKey(sen.links)) {
-                    logger.debug("{}: Unable to find BLK for link {} from sen.id={}", thingName, sen.links, sen.id);
-                    continue;
+                if (logger.isTraceEnabled()) {
+                    CoIotDescrBlk element = blkMap.get(sen.links);
+                    logger.trace("{}:  Sensor value[{}]: id={}, Value={} ({}, Type={}, Range={}, Link={}: {})",
+                            thingName, i, s.id, getString(s.valueStr).isEmpty() ? s.value : s.valueStr, sen.desc,
+                            sen.type, sen.range, sen.links, element != null ? element.desc : "");
                 }
-                CoIotDescrBlk element = blkMap.get(sen.links);
-                logger.trace("{}:  Sensor value[{}]: id={}, Value={} ({}, Type={}, Range={}, Link={}: {})", thingName,
-                        i, s.id, getString(s.valueStr).isEmpty() ? s.value : s.valueStr, sen.desc, sen.type, sen.range,
-                        sen.links, element.desc);
 
                 if (!coiot.handleStatusUpdate(sensorUpdates, sen, s, updates)) {
                     logger.debug("{}: CoIoT data for id {}, type {}/{} not processed, value={}; payload={}", thingName,
@@ -428,14 +441,14 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                     // CoAP is currently lacking the lastUpdate info, so we use host timestamp
                     thingHandler.updateChannel(profile.getControlGroup(0), CHANNEL_LAST_UPDATE, getTimestamp());
                 }
-            }
 
-            // Old firmware release are lacking various status values, which are not updated using CoIoT.
-            // In this case we keep a refresh so it gets polled using REST. Beginning with Firmware 1.6 most
-            // of the values are available
-            if ((!thingHandler.autoCoIoT && (thingHandler.scheduledUpdates <= 1))
-                    || (thingHandler.autoCoIoT && !profile.isLight && !profile.hasBattery)) {
-                thingHandler.requestUpdates(1, false);
+                // Old firmware release are lacking various status values, which are not updated using CoIoT.
+                // In this case we keep a refresh so it gets polled using REST. Beginning with Firmware 1.6 most
+                // of the values are available. There is no need to poll if nothing has changed.
+                if ((!thingHandler.autoCoIoT && (thingHandler.scheduledUpdates <= 1))
+                        || (thingHandler.autoCoIoT && !profile.isLight && !profile.hasBattery)) {
+                    thingHandler.requestUpdates(1, false);
+                }
             }
         } else {
             if (failed == sensorUpdates.size()) {
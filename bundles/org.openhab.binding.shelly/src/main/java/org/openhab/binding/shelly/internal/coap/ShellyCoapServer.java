@@ -17,7 +17,8 @@ import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_P
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.californium.core.CoapResource;
 import org.eclipse.californium.core.CoapServer;
@@ -32,7 +33,6 @@ import org.eclipse.californium.core.network.config.NetworkConfig;
 import org.eclipse.californium.elements.UdpMulticastConnector;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.jetty.util.ConcurrentHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,7 +49,8 @@ public class ShellyCoapServer {
     private CoapEndpoint statusEndpoint = new CoapEndpoint.Builder().build();
     private @Nullable UdpMulticastConnector statusConnector;
     private final CoapServer server = new CoapServer(NetworkConfig.getStandard(), COIOT_PORT);;
-    private final Set<ShellyCoapListener> coapListeners = new ConcurrentHashSet<>();
+    // listeners by the IP address of their device, so each packet is processed by the owning thing only
+    private final Map<String, ShellyCoapListener> coapListeners = new ConcurrentHashMap<>();
 
     protected class ShellyStatusListener extends CoapResource {
         private ShellyCoapServer listener;
@@ -76,7 +77,16 @@ public class ShellyCoapServer {
         }
     }
 
-    public synchronized void start(String localIp, ShellyCoapListener listener) throws UnknownHostException {
+    /**
+     * Start the listener (if not yet running) and register a handler for the given device.
+     *
+     * @param localIp local IP address to bind the listener to
+     * @param deviceIp IP address or host name of the device
+     * @param listener handler for the device's packets
+     * @throws UnknownHostException
+     */
+    public synchronized void start(String localIp, String deviceIp, ShellyCoapListener listener)
+            throws UnknownHostException {
         if (!started) {
             logger.debug("Initializing CoIoT listener (local IP={}:{})", localIp, COIOT_PORT);
             NetworkConfig nc = NetworkConfig.getStandard();
@@ -94,13 +104,19 @@ public class ShellyCoapServer {
             started = true;
         }
 
-        if (!coapListeners.contains(listener)) {
-            coapListeners.add(listener);
-        }
+        String deviceAddress = InetAddress.getByName(deviceIp).getHostAddress();
+        coapListeners.values().remove(listener);
+        coapListeners.put(deviceAddress, listener);
     }
 
     protected void processResponse(Response response) {
-        coapListeners.forEach(listener -> listener.processResponse(response));
+        String ip = response.getSourceContext().getPeerAddress().getAddress().getHostAddress();
+        ShellyCoapListener listener = coapListeners.get(ip);
+        if (listener != null) {
+            listener.processResponse(response);
+        } else {
+            logger.trace("CoIoT Message from unknown device {} ignored", ip);
+        }
     }
 
     public static Response createResponse(Request request) {
@@ -122,7 +138,7 @@ public class ShellyCoapServer {
      * Cancel pending requests and shutdown the client
      */
     public void stop(ShellyCoapListener listener) {
-        coapListeners.remove(listener);
+        coapListeners.values().remove(listener);
         if (coapListeners.isEmpty()) {
             stop();
         }
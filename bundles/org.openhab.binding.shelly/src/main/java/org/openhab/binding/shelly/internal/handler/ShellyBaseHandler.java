@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.time.StopWatch;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -97,8 +98,16 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
     public int scheduledUpdates = 0;
     private int skipCount = UPDATE_SKIP_COUNT;
     private int skipUpdate = 0;
+    private int lastHttpRefresh = 0; // value of skipUpdate when the status was last requested by http
     private boolean refreshSettings = false;
 
+    // CoIoT status updates make http polling mostly obsolete, so we poll less often while they arrive
+    private final int coiotSkipCount = UPDATE_COIOT_POLLING_INTERVAL_SECONDS / UPDATE_STATUS_INTERVAL_SECONDS;
+    private volatile long lastCoIoTUpdate = 0;
+    private boolean coiotActive = false;
+    private final AtomicInteger httpUpdates = new AtomicInteger();
+    private final AtomicInteger coiotUpdates = new AtomicInteger();
+
     private @Nullable ScheduledFuture<?> asyncButtonRelease;
 
     // delay before enabling channel
@@ -351,7 +360,8 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
             skipUpdate++;
             ThingStatus thingStatus = getThing().getStatus();
 
-            if (refreshSettings || (scheduledUpdates > 0) || (skipUpdate % skipCount == 0)) {
+            if (refreshSettings || (scheduledUpdates > 0) || isPollingDue()) {
+                lastHttpRefresh = skipUpdate;
                 if (!profile.isInitialized() || ((thingStatus == ThingStatus.OFFLINE))
                         || (thingStatus == ThingStatus.UNKNOWN)) {
                     logger.debug("{}: Status update triggered thing initialization", thingName);
@@ -362,6 +372,7 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
 
                 logger.trace("{}: Updating status", thingName);
                 ShellySettingsStatus status = api.getStatus();
+                httpUpdates.incrementAndGet();
 
                 // If status update was successful the thing must be online
                 setThingOnline();
@@ -432,6 +443,33 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
         }
     }
 
+    /**
+     * Check if the status should be polled by http. While CoIoT updates arrive within the device's update period
+     * the polling interval is extended, once they stop we fall back to the configured interval.
+     *
+     * @return true if the next http status update is due
+     */
+    private boolean isPollingDue() {
+        boolean active = config.eventsCoIoT && (lastCoIoTUpdate > 0)
+                && (System.currentTimeMillis() - lastCoIoTUpdate < profile.updatePeriod * 1000L);
+        int count = active ? Math.max(skipCount, coiotSkipCount) : skipCount;
+        if (active != coiotActive) {
+            coiotActive = active;
+            logger.debug("{}: CoIoT updates {}, polling status every {}sec ({} http / {} CoIoT updates so far)",
+                    thingName, active ? "are received" : "stopped", count * UPDATE_STATUS_INTERVAL_SECONDS,
+                    httpUpdates.get(), coiotUpdates.get());
+        }
+        return skipUpdate - lastHttpRefresh >= count;
+    }
+
+    /**
+     * Called by the CoIoT handler when a status update was received from the device.
+     */
+    public void coiotUpdateReceived() {
+        coiotUpdates.incrementAndGet();
+        lastCoIoTUpdate = System.currentTimeMillis();
+    }
+
     public boolean isThingOnline() {
         return getThing().getStatus() == ThingStatus.ONLINE;
     }
@@ -937,6 +975,10 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
     }
 
     public boolean updateChannel(String channelId, State value, boolean force) {
+        if (!force && cache.isUnchanged(channelId, value)) {
+            // most values of a status update don't change, skip them before doing the link lookup
+            return false;
+        }
         return !stopping && (channelId.contains("$") || isLinked(channelId))
                 && cache.updateChannel(channelId, value, force);
     }
@@ -99,6 +99,17 @@ public class ShellyChannelCache {
         return false;
     }
 
+    /**
+     * Check if the cache already contains the given value, in which case an update would be skipped anyway.
+     *
+     * @param channelId Channel id
+     * @param value Value (State)
+     * @return true if the value is unchanged
+     */
+    public boolean isUnchanged(String channelId, State value) {
+        return enabled && value.equals(channelData.get(channelId));
+    }
+
     public boolean updateChannel(String group, String channel, State value) {
         return updateChannel(mkChannelId(group, channel), value, false);
     }
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.smartmeter.internal;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Locale;
+
+import javax.measure.Quantity;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.smartmeter.SmartMeterBindingConstants;
+
+/**
+ * Applies the update policy of an OBIS channel. Meters in push mode send their values up to every second, this filter
+ * decides which of them are passed on as state update.
+ *
+ * @author Matthias Steigenberger - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ChannelUpdateFilter {
+
+    public enum UpdatePolicy {
+        /** Every value is updated */
+        ALWAYS,
+        /** Only values different to the last updated value are updated */
+        ONCHANGE,
+        /** Only values differing at least the deadband from the last updated value are updated */
+        DEADBAND,
+        /** The average of all values within the minimum interval is updated */
+        AVERAGE
+    }
+
+    private final UpdatePolicy updatePolicy;
+    private final long minIntervalMillis;
+    private final BigDecimal deadband;
+
+    private @Nullable State lastState;
+    private long lastUpdateMillis;
+    private BigDecimal sum = BigDecimal.ZERO;
+    private int count;
+    private long windowStartMillis;
+
+    public ChannelUpdateFilter(UpdatePolicy updatePolicy, long minIntervalMillis, BigDecimal deadband) {
+        this.updatePolicy = updatePolicy;
+        this.minIntervalMillis = Math.max(0, minIntervalMillis);
+        this.deadband = deadband.abs();
+    }
+
+    /**
+     * Creates the filter for the update policy configured in the channel configuration.
+     *
+     * @param configuration the channel configuration
+     * @return the filter, defaults to {@link UpdatePolicy#ALWAYS} without minimum interval
+     */
+    public static ChannelUpdateFilter fromConfiguration(Configuration configuration) {
+        Object policy = configuration.get(SmartMeterBindingConstants.CONFIGURATION_UPDATE_POLICY);
+        Object minInterval = configuration.get(SmartMeterBindingConstants.CONFIGURATION_MIN_INTERVAL);
+        Object deadband = configuration.get(SmartMeterBindingConstants.CONFIGURATION_DEADBAND);
+
+        UpdatePolicy updatePolicy = UpdatePolicy.ALWAYS;
+        if (policy != null) {
+            try {
+                updatePolicy = UpdatePolicy.valueOf(policy.toString().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                // keep default
+            }
+        }
+        long minIntervalMillis = minInterval instanceof Number ? ((Number) minInterval).longValue() * 1000 : 0;
+        BigDecimal deadbandValue = deadband instanceof Number ? new BigDecimal(deadband.toString()) : BigDecimal.ZERO;
+        return new ChannelUpdateFilter(updatePolicy, minIntervalMillis, deadbandValue);
+    }
+
+    /**
+     * Filters the given state.
+     *
+     * @param state the state read from the meter
+     * @param nowMillis the current time in milliseconds
+     * @return the state which should be updated or null if the channel should not be updated
+     */
+    public @Nullable State filter(State state, long nowMillis) {
+        BigDecimal value = toBigDecimal(state);
+        if (updatePolicy == UpdatePolicy.AVERAGE && value != null) {
+            return average(state, value, nowMillis);
+        }
+
+        State last = lastState;
+        if (last != null) {
+            if (updatePolicy == UpdatePolicy.ONCHANGE && state.equals(last)) {
+                return null;
+            }
+            if (updatePolicy == UpdatePolicy.DEADBAND) {
+                BigDecimal lastValue = toBigDecimal(last);
+                boolean changed = value == null || lastValue == null ? !state.equals(last)
+                        : value.subtract(lastValue).abs().compareTo(deadband) >= 0;
+                if (!changed) {
+                    return null;
+                }
+            }
+            if (nowMillis - lastUpdateMillis < minIntervalMillis) {
+                return null;
+            }
+        }
+        lastState = state;
+        lastUpdateMillis = nowMillis;
+        return state;
+    }
+
+    private @Nullable State average(State state, BigDecimal value, long nowMillis) {
+        if (count == 0) {
+            windowStartMillis = nowMillis;
+        }
+        sum = sum.add(value);
+        count++;
+        if (nowMillis - windowStartMillis < minIntervalMillis) {
+            return null;
+        }
+        BigDecimal average = sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+        sum = BigDecimal.ZERO;
+        count = 0;
+
+        State averageState = state instanceof QuantityType ? withValue((QuantityType<?>) state, average)
+                : new DecimalType(average);
+        lastState = averageState;
+        lastUpdateMillis = nowMillis;
+        return averageState;
+    }
+
+    private static <Q extends Quantity<Q>> QuantityType<Q> withValue(QuantityType<Q> state, BigDecimal value) {
+        return new QuantityType<>(value, state.getUnit());
+    }
+
+    private static @Nullable BigDecimal toBigDecimal(State state) {
+        if (state instanceof QuantityType) {
+            return ((QuantityType<?>) state).toBigDecimal();
+        }
+        if (state instanceof DecimalType) {
+            return ((DecimalType) state).toBigDecimal();
+        }
+        return null;
+    }
+}
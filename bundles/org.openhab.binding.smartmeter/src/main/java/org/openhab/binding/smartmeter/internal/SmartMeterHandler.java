@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import javax.measure.Quantity;
@@ -78,6 +79,7 @@ public class SmartMeterHandler extends BaseThingHandler {
     private MeterValueListener valueChangeListener;
     private SmartMeterChannelTypeProvider channelTypeProvider;
     private @NonNull Supplier<SerialPortManager> serialPortManagerSupplier;
+    private final Map<ChannelUID, ChannelUpdateFilter> updateFilters = new ConcurrentHashMap<>();
 
     public SmartMeterHandler(Thing thing, SmartMeterChannelTypeProvider channelProvider,
             Supplier<SerialPortManager> serialPortManagerSupplier) {
@@ -91,6 +93,7 @@ public class SmartMeterHandler extends BaseThingHandler {
     public void initialize() {
         logger.debug("Initializing Smartmeter handler.");
         cancelRead();
+        updateFilters.clear();
 
         SmartMeterConfiguration config = getConfigAs(SmartMeterConfiguration.class);
         logger.debug("config port = {}", config.port);
@@ -204,7 +207,10 @@ public class SmartMeterHandler extends BaseThingHandler {
                     if (!channel.getProperties().containsKey(SmartMeterBindingConstants.CHANNEL_PROPERTY_OBIS)) {
                         addObisPropertyToChannel(obis, channel);
                     }
-                    updateState(channel.getUID(), state);
+                    State filteredState = getUpdateFilter(channel).filter(state, System.currentTimeMillis());
+                    if (filteredState != null) {
+                        updateState(channel.getUID(), filteredState);
+                    }
 
                     updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE);
                 } else {
@@ -230,8 +236,10 @@ public class SmartMeterHandler extends BaseThingHandler {
                 // channels that are not available are removed
                 String obisChannelId = SmartMeterBindingConstants.getObisChannelId(value.getObisCode());
                 logger.debug("Removing channel: {}", obisChannelId);
+                ChannelUID channelUID = new ChannelUID(thing.getUID(), obisChannelId);
+                updateFilters.remove(channelUID);
                 ThingBuilder thingBuilder = editThing();
-                thingBuilder.withoutChannel(new ChannelUID(thing.getUID(), obisChannelId));
+                thingBuilder.withoutChannel(channelUID);
                 updateThing(thingBuilder.build());
             }
 
@@ -247,6 +255,11 @@ public class SmartMeterHandler extends BaseThingHandler {
         valueReader = this.smlDevice.readValues(DEFAULT_TIMEOUT, this.scheduler, Duration.ofSeconds(delay));
     }
 
+    private ChannelUpdateFilter getUpdateFilter(Channel channel) {
+        return updateFilters.computeIfAbsent(channel.getUID(),
+                channelUID -> ChannelUpdateFilter.fromConfiguration(channel.getConfiguration()));
+    }
+
     private void updateOBISChannel(ChannelUID channelId) {
         if (isLinked(channelId.getId())) {
             Channel channel = this.thing.getChannel(channelId.getId());
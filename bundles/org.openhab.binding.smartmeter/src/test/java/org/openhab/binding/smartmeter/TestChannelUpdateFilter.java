@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.smartmeter;
+
+import java.math.BigDecimal;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openhab.binding.smartmeter.internal.ChannelUpdateFilter;
+
+/**
+ *
+ * @author Matthias Steigenberger - Initial contribution
+ *
+ */
+public class TestChannelUpdateFilter {
+
+    @Test
+    public void testAlways() {
+        ChannelUpdateFilter filter = createFilter("always", 0, null);
+
+        Assert.assertEquals(new DecimalType(1), filter.filter(new DecimalType(1), 0));
+        Assert.assertEquals(new DecimalType(1), filter.filter(new DecimalType(1), 1000));
+    }
+
+    @Test
+    public void testOnChange() {
+        ChannelUpdateFilter filter = createFilter("onchange", 0, null);
+
+        Assert.assertEquals(new StringType("a"), filter.filter(new StringType("a"), 0));
+        Assert.assertNull(filter.filter(new StringType("a"), 1000));
+        Assert.assertEquals(new StringType("b"), filter.filter(new StringType("b"), 2000));
+    }
+
+    @Test
+    public void testOnChangeWithMinInterval() {
+        ChannelUpdateFilter filter = createFilter("onchange", 10, null);
+
+        Assert.assertEquals(new DecimalType(1), filter.filter(new DecimalType(1), 0));
+        Assert.assertNull(filter.filter(new DecimalType(2), 5000));
+        Assert.assertNull(filter.filter(new DecimalType(1), 10000));
+        Assert.assertEquals(new DecimalType(2), filter.filter(new DecimalType(2), 11000));
+    }
+
+    @Test
+    public void testDeadband() {
+        ChannelUpdateFilter filter = createFilter("deadband", 0, new BigDecimal("0.5"));
+
+        Assert.assertEquals(new DecimalType(10), filter.filter(new DecimalType(10), 0));
+        Assert.assertNull(filter.filter(new DecimalType(10.3), 1000));
+        Assert.assertNull(filter.filter(new DecimalType(9.6), 2000));
+        Assert.assertEquals(new DecimalType(10.5), filter.filter(new DecimalType(10.5), 3000));
+    }
+
+    @Test
+    public void testMinInterval() {
+        ChannelUpdateFilter filter = createFilter("always", 10, null);
+
+        Assert.assertNotNull(filter.filter(new DecimalType(1), 0));
+        Assert.assertNull(filter.filter(new DecimalType(2), 5000));
+        Assert.assertEquals(new DecimalType(3), filter.filter(new DecimalType(3), 10000));
+    }
+
+    @Test
+    public void testAverage() {
+        ChannelUpdateFilter filter = createFilter("average", 10, null);
+
+        Assert.assertNull(filter.filter(new DecimalType(1), 0));
+        Assert.assertNull(filter.filter(new DecimalType(2), 5000));
+        Assert.assertEquals(0, BigDecimal.valueOf(2)
+                .compareTo(((DecimalType) filter.filter(new DecimalType(3), 10000)).toBigDecimal()));
+        Assert.assertNull(filter.filter(new DecimalType(6), 11000));
+    }
+
+    @Test
+    public void testUnknownPolicyDefaultsToAlways() {
+        ChannelUpdateFilter filter = createFilter("sometimes", 0, null);
+
+        Assert.assertEquals(new DecimalType(1), filter.filter(new DecimalType(1), 0));
+        Assert.assertEquals(new DecimalType(1), filter.filter(new DecimalType(1), 0));
+    }
+
+    private ChannelUpdateFilter createFilter(String updatePolicy, int minInterval, BigDecimal deadband) {
+        Configuration configuration = new Configuration();
+
+        configuration.put(SmartMeterBindingConstants.CONFIGURATION_UPDATE_POLICY, updatePolicy);
+        configuration.put(SmartMeterBindingConstants.CONFIGURATION_MIN_INTERVAL, BigDecimal.valueOf(minInterval));
+        if (deadband != null) {
+            configuration.put(SmartMeterBindingConstants.CONFIGURATION_DEADBAND, deadband);
+        }
+        return ChannelUpdateFilter.fromConfiguration(configuration);
+    }
+}
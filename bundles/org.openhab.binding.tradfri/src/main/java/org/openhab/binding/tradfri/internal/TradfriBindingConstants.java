@@ -61,6 +61,9 @@ public class TradfriBindingConstants {
     public static final String GATEWAY_CONFIG_IDENTITY = "identity";
     public static final String GATEWAY_CONFIG_PRE_SHARED_KEY = "preSharedKey";
 
+    // List of all Device Properties
+    public static final String PROPERTY_ROUND_TRIP_TIME = "roundTripTime";
+
     // Not yet used - included for future support
     public static final Set<ThingTypeUID> SUPPORTED_CONTROLLER_TYPES_UIDS = Collections
             .unmodifiableSet(Stream.of(THING_TYPE_DIMMER, THING_TYPE_REMOTE_CONTROL,
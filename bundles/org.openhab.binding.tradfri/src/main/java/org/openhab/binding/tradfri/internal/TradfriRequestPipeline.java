@@ -0,0 +1,363 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.tradfri.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.californium.core.CoapHandler;
+import org.eclipse.californium.core.CoapResponse;
+import org.eclipse.californium.core.coap.MediaTypeRegistry;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * The {@link TradfriRequestPipeline} sends the PUT requests of all devices of a gateway.
+ * Commands for a device that arrive while a previous request to that device is still pending are merged into a
+ * single request, and requests to different devices are sent concurrently up to a configurable limit.
+ * The round-trip time of the requests is tracked per device.
+ *
+ * @author Kai Kreuzer - Initial contribution
+ */
+@NonNullByDefault
+public class TradfriRequestPipeline {
+
+    static final long DEFAULT_MIN_INTERVAL_MILLIS = 600;
+    static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 30000;
+
+    private final Logger logger = LoggerFactory.getLogger(TradfriRequestPipeline.class);
+    private final JsonParser parser = new JsonParser();
+
+    private final ScheduledExecutorService scheduler;
+    private final int maxInFlightRequests;
+    private final long minIntervalMillis;
+    private final long requestTimeoutMillis;
+
+    // all fields below are guarded by this
+    private final Map<String, DeviceQueue> devices = new HashMap<>();
+    private final Deque<DeviceQueue> readyQueue = new ArrayDeque<>();
+    private int inFlightRequests;
+    private boolean closed;
+
+    /**
+     * Creates a new pipeline.
+     *
+     * @param scheduler the scheduler used to delay requests to the same device
+     * @param maxInFlightRequests the maximum number of requests that are sent to the gateway at the same time
+     */
+    public TradfriRequestPipeline(ScheduledExecutorService scheduler, int maxInFlightRequests) {
+        this(scheduler, maxInFlightRequests, DEFAULT_MIN_INTERVAL_MILLIS, DEFAULT_REQUEST_TIMEOUT_MILLIS);
+    }
+
+    TradfriRequestPipeline(ScheduledExecutorService scheduler, int maxInFlightRequests, long minIntervalMillis,
+            long requestTimeoutMillis) {
+        this.scheduler = scheduler;
+        this.maxInFlightRequests = Math.max(1, maxInFlightRequests);
+        this.minIntervalMillis = minIntervalMillis;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    /**
+     * Queues a PUT on the resource of the given client. If a command for the same resource is still waiting to be
+     * sent, the payloads are merged and only a single request is sent.
+     *
+     * @param client the client of the device resource
+     * @param payload the payload to send with the PUT request
+     * @param callback the callback to use for the response
+     */
+    public void put(TradfriCoapClient client, String payload, CoapCallback callback) {
+        JsonElement json;
+        try {
+            json = parser.parse(payload);
+        } catch (JsonParseException e) {
+            logger.debug("Payload '{}' is no valid json, it is sent without merging: {}", payload, e.getMessage());
+            json = null;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            String uri = client.getURI();
+            DeviceQueue device = devices.get(uri);
+            if (device == null) {
+                device = new DeviceQueue(uri);
+                devices.put(uri, device);
+            }
+            device.client = client;
+
+            PendingCommand last = device.pending.peekLast();
+            JsonElement lastJson = last != null ? last.json : null;
+            if (last != null && lastJson != null && json != null && lastJson.isJsonObject() && json.isJsonObject()) {
+                merge(lastJson.getAsJsonObject(), json.getAsJsonObject());
+                last.callback = callback;
+                device.mergedCommands++;
+                logger.debug("Merged payload {} into pending request to {}", payload, uri);
+            } else {
+                device.pending.add(new PendingCommand(json, payload, callback));
+            }
+            schedule(device);
+        }
+        dispatch();
+    }
+
+    /**
+     * Returns the average round-trip time of the requests to the given resource.
+     *
+     * @param uri the URI of the device resource
+     * @return the average round-trip time in milliseconds or null, if no request has been completed yet
+     */
+    public synchronized @Nullable Long getAverageRoundTripTime(String uri) {
+        DeviceQueue device = devices.get(uri);
+        if (device == null || device.completedRequests == 0) {
+            return null;
+        }
+        return device.totalRoundTripMillis / device.completedRequests;
+    }
+
+    /**
+     * Drops all pending commands and stops waiting for the responses to requests that have already been sent.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            closed = true;
+            for (DeviceQueue device : devices.values()) {
+                ScheduledFuture<?> delayJob = device.delayJob;
+                if (delayJob != null) {
+                    delayJob.cancel(false);
+                }
+                Request current = device.current;
+                if (current != null) {
+                    ScheduledFuture<?> timeoutJob = current.timeoutJob;
+                    if (timeoutJob != null) {
+                        timeoutJob.cancel(false);
+                    }
+                    device.current = null;
+                }
+                device.pending.clear();
+            }
+            devices.clear();
+            readyQueue.clear();
+            inFlightRequests = 0;
+        }
+    }
+
+    /**
+     * Deep merges the given update into the target. Values of the update overwrite values of the target, nested
+     * objects are merged and arrays of the same size are merged element-wise.
+     */
+    static void merge(JsonObject target, JsonObject update) {
+        for (Entry<String, JsonElement> entry : update.entrySet()) {
+            JsonElement existing = target.get(entry.getKey());
+            JsonElement value = entry.getValue();
+            if (existing != null && existing.isJsonObject() && value.isJsonObject()) {
+                merge(existing.getAsJsonObject(), value.getAsJsonObject());
+            } else if (existing != null && existing.isJsonArray() && value.isJsonArray()
+                    && existing.getAsJsonArray().size() == value.getAsJsonArray().size()) {
+                JsonArray existingArray = existing.getAsJsonArray();
+                JsonArray valueArray = value.getAsJsonArray();
+                for (int i = 0; i < valueArray.size(); i++) {
+                    JsonElement existingElement = existingArray.get(i);
+                    JsonElement valueElement = valueArray.get(i);
+                    if (existingElement.isJsonObject() && valueElement.isJsonObject()) {
+                        merge(existingElement.getAsJsonObject(), valueElement.getAsJsonObject());
+                    } else {
+                        existingArray.set(i, valueElement);
+                    }
+                }
+            } else {
+                target.add(entry.getKey(), value);
+            }
+        }
+    }
+
+    private void schedule(DeviceQueue device) {
+        if (closed || device.current != null || device.ready || device.delayJob != null || device.pending.isEmpty()) {
+            return;
+        }
+        long delay = device.lastSent + TimeUnit.MILLISECONDS.toNanos(minIntervalMillis) - System.nanoTime();
+        if (device.lastSent != 0 && delay > 0) {
+            // the gateway drops commands that follow each other too quickly on the same device
+            device.delayJob = scheduler.schedule(() -> {
+                synchronized (this) {
+                    device.delayJob = null;
+                    schedule(device);
+                }
+                dispatch();
+            }, delay, TimeUnit.NANOSECONDS);
+        } else {
+            device.ready = true;
+            readyQueue.add(device);
+        }
+    }
+
+    private void dispatch() {
+        List<Request> requests = new ArrayList<>();
+        synchronized (this) {
+            while (inFlightRequests < maxInFlightRequests) {
+                DeviceQueue device = readyQueue.poll();
+                if (device == null) {
+                    break;
+                }
+                device.ready = false;
+                PendingCommand command = device.pending.poll();
+                TradfriCoapClient client = device.client;
+                if (command == null || client == null) {
+                    continue;
+                }
+                Request request = new Request(device, client, command);
+                device.current = request;
+                device.lastSent = request.startTime;
+                inFlightRequests++;
+                requests.add(request);
+            }
+        }
+
+        for (Request request : requests) {
+            String payload = request.command.getPayload();
+            logger.debug("CoAP PUT request\nuri: {}\npayload: {}", request.device.uri, payload);
+            request.timeoutJob = scheduler.schedule(() -> {
+                if (complete(request, false)) {
+                    logger.debug("PUT request to {} timed out", request.device.uri);
+                    request.handler.onError();
+                }
+            }, requestTimeoutMillis, TimeUnit.MILLISECONDS);
+            try {
+                request.client.put(new PipelineHandler(request), payload, MediaTypeRegistry.TEXT_PLAIN);
+            } catch (RuntimeException e) {
+                logger.debug("Sending PUT request to {} failed: {}", request.device.uri, e.getMessage());
+                complete(request, false);
+                request.handler.onError();
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of a request and sends the next requests.
+     *
+     * @return false if the request had already been completed
+     */
+    private boolean complete(Request request, boolean success) {
+        ScheduledFuture<?> timeoutJob = request.timeoutJob;
+        if (timeoutJob != null) {
+            timeoutJob.cancel(false);
+        }
+        synchronized (this) {
+            DeviceQueue device = request.device;
+            if (device.current != request) {
+                return false;
+            }
+            device.current = null;
+            inFlightRequests--;
+            long roundTripMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.startTime);
+            if (success) {
+                device.completedRequests++;
+                device.totalRoundTripMillis += roundTripMillis;
+            }
+            logger.debug("PUT request to {} completed after {} ms ({} requests in flight, {} commands merged)",
+                    device.uri, roundTripMillis, inFlightRequests, device.mergedCommands);
+            schedule(device);
+        }
+        dispatch();
+        return true;
+    }
+
+    private static class PendingCommand {
+        private final @Nullable JsonElement json;
+        private final String payload;
+        private CoapCallback callback;
+
+        PendingCommand(@Nullable JsonElement json, String payload, CoapCallback callback) {
+            this.json = json;
+            this.payload = payload;
+            this.callback = callback;
+        }
+
+        String getPayload() {
+            JsonElement json = this.json;
+            return json != null ? json.toString() : payload;
+        }
+    }
+
+    private static class DeviceQueue {
+        private final String uri;
+        private final Deque<PendingCommand> pending = new ArrayDeque<>();
+        private @Nullable TradfriCoapClient client;
+        private @Nullable Request current;
+        private @Nullable ScheduledFuture<?> delayJob;
+        private boolean ready;
+        private long lastSent;
+        private long completedRequests;
+        private long totalRoundTripMillis;
+        private long mergedCommands;
+
+        DeviceQueue(String uri) {
+            this.uri = uri;
+        }
+    }
+
+    private static class Request {
+        private final DeviceQueue device;
+        private final TradfriCoapClient client;
+        private final PendingCommand command;
+        private final TradfriCoapHandler handler;
+        private final long startTime = System.nanoTime();
+        private volatile @Nullable ScheduledFuture<?> timeoutJob;
+
+        Request(DeviceQueue device, TradfriCoapClient client, PendingCommand command) {
+            this.device = device;
+            this.client = client;
+            this.command = command;
+            this.handler = new TradfriCoapHandler(command.callback);
+        }
+    }
+
+    /**
+     * Releases the slot of a request before the response is handed to the device handler.
+     */
+    private class PipelineHandler implements CoapHandler {
+        private final Request request;
+
+        PipelineHandler(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public void onLoad(@Nullable CoapResponse response) {
+            complete(request, response != null && response.isSuccess());
+            request.handler.onLoad(response);
+        }
+
+        @Override
+        public void onError() {
+            complete(request, false);
+            request.handler.onError();
+        }
+    }
+}
@@ -24,4 +24,5 @@ public class TradfriGatewayConfig {
     public String code;
     public String identity;
     public String preSharedKey;
+    public int maxInFlightRequests = 3;
 }
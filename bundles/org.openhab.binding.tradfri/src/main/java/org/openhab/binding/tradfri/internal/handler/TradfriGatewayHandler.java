@@ -49,6 +49,7 @@ import org.openhab.binding.tradfri.internal.DeviceUpdateListener;
 import org.openhab.binding.tradfri.internal.TradfriBindingConstants;
 import org.openhab.binding.tradfri.internal.TradfriCoapClient;
 import org.openhab.binding.tradfri.internal.TradfriCoapHandler;
+import org.openhab.binding.tradfri.internal.TradfriRequestPipeline;
 import org.openhab.binding.tradfri.internal.config.TradfriGatewayConfig;
 import org.openhab.binding.tradfri.internal.discovery.TradfriDiscoveryService;
 import org.openhab.binding.tradfri.internal.model.TradfriVersion;
@@ -80,6 +81,7 @@ public class TradfriGatewayHandler extends BaseBridgeHandler implements CoapCall
     private @NonNullByDefault({}) String gatewayInfoURI;
     private @NonNullByDefault({}) DTLSConnector dtlsConnector;
     private @Nullable CoapEndpoint endPoint;
+    private @Nullable TradfriRequestPipeline requestPipeline;
 
     private final Set<DeviceUpdateListener> deviceUpdateListeners = new CopyOnWriteArraySet<>();
 
@@ -161,6 +163,7 @@ public class TradfriGatewayHandler extends BaseBridgeHandler implements CoapCall
         dtlsConnector = new DTLSConnector(builder.build());
         endPoint = new CoapEndpoint.Builder().setConnector(dtlsConnector).build();
         deviceClient.setEndpoint(endPoint);
+        requestPipeline = new TradfriRequestPipeline(scheduler, configuration.maxInFlightRequests);
         updateStatus(ThingStatus.UNKNOWN);
 
         // schedule a new scan every minute
@@ -265,6 +268,10 @@ public class TradfriGatewayHandler extends BaseBridgeHandler implements CoapCall
             scanJob.cancel(true);
             scanJob = null;
         }
+        if (requestPipeline != null) {
+            requestPipeline.shutdown();
+            requestPipeline = null;
+        }
         if (endPoint != null) {
             endPoint.destroy();
             endPoint = null;
@@ -296,6 +303,15 @@ public class TradfriGatewayHandler extends BaseBridgeHandler implements CoapCall
         return gatewayURI;
     }
 
+    /**
+     * Returns the pipeline that sends the commands of all devices on this gateway.
+     *
+     * @return the request pipeline or null, if the gateway is not connected
+     */
+    public @Nullable TradfriRequestPipeline getRequestPipeline() {
+        return requestPipeline;
+    }
+
     /**
      * Returns the coap endpoint that can be used within coap clients.
      *
@@ -13,6 +13,7 @@
 package org.openhab.binding.tradfri.internal.handler;
 
 import static org.eclipse.smarthome.core.thing.Thing.*;
+import static org.openhab.binding.tradfri.internal.TradfriBindingConstants.PROPERTY_ROUND_TRIP_TIME;
 
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -27,8 +28,10 @@ import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.openhab.binding.tradfri.internal.CoapCallback;
 import org.openhab.binding.tradfri.internal.TradfriCoapClient;
+import org.openhab.binding.tradfri.internal.TradfriRequestPipeline;
 import org.openhab.binding.tradfri.internal.config.TradfriDeviceConfig;
 import org.openhab.binding.tradfri.internal.model.TradfriDeviceData;
 import org.slf4j.Logger;
@@ -55,6 +58,10 @@ public abstract class TradfriThingHandler extends BaseThingHandler implements Co
 
     private @Nullable CoapObserveRelation observeRelation;
 
+    // the round-trip time is only republished when it changes by more than this
+    private static final int ROUND_TRIP_TIME_CHANGE_PERCENT = 25;
+    private long publishedRoundTripTime;
+
     public TradfriThingHandler(Thing thing) {
         super(thing);
     }
@@ -135,7 +142,19 @@ public abstract class TradfriThingHandler extends BaseThingHandler implements Co
 
     protected void set(String payload) {
         logger.debug("Sending payload: {}", payload);
-        coapClient.asyncPut(payload, this, scheduler);
+        TradfriRequestPipeline requestPipeline = getRequestPipeline();
+        if (requestPipeline != null) {
+            requestPipeline.put(coapClient, payload, this);
+        } else {
+            coapClient.asyncPut(payload, this, scheduler);
+        }
+    }
+
+    private @Nullable TradfriRequestPipeline getRequestPipeline() {
+        Bridge bridge = getBridge();
+        ThingHandler handler = bridge != null ? bridge.getHandler() : null;
+        return handler instanceof TradfriGatewayHandler ? ((TradfriGatewayHandler) handler).getRequestPipeline()
+                : null;
     }
 
     protected void updateDeviceProperties(TradfriDeviceData state) {
@@ -153,5 +172,19 @@ public abstract class TradfriThingHandler extends BaseThingHandler implements Co
         if (vendor != null) {
             getThing().setProperty(PROPERTY_VENDOR, vendor);
         }
+
+        updateRoundTripTime();
+    }
+
+    private void updateRoundTripTime() {
+        TradfriRequestPipeline requestPipeline = getRequestPipeline();
+        Long roundTripTime = requestPipeline != null ? requestPipeline.getAverageRoundTripTime(coapClient.getURI())
+                : null;
+        if (roundTripTime == null || Math.abs(roundTripTime - publishedRoundTripTime) * 100 <= publishedRoundTripTime
+                * ROUND_TRIP_TIME_CHANGE_PERCENT) {
+            return;
+        }
+        publishedRoundTripTime = roundTripTime;
+        updateProperty(PROPERTY_ROUND_TRIP_TIME, roundTripTime + " ms");
     }
 }
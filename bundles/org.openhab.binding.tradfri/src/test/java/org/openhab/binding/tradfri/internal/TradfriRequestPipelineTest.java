@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.tradfri.internal;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.californium.core.CoapHandler;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests for merging payloads and scheduling requests in the {@link TradfriRequestPipeline}.
+ *
+ * @author Kai Kreuzer - Initial contribution
+ */
+@NonNullByDefault
+public class TradfriRequestPipelineTest {
+
+    // large enough that the spacing of requests does not depend on how fast the test runs
+    private static final long MIN_INTERVAL_MILLIS = 10000;
+    private static final long REQUEST_TIMEOUT_MILLIS = 60000;
+
+    private final JsonParser parser = new JsonParser();
+    private final List<ScheduledTask> tasks = new ArrayList<>();
+
+    private @NonNullByDefault({}) ScheduledExecutorService scheduler;
+    private @NonNullByDefault({}) CoapCallback callback;
+
+    private static class ScheduledTask {
+        private final Runnable runnable;
+        private final long delayMillis;
+        private final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+
+        ScheduledTask(Runnable runnable, long delay, TimeUnit unit) {
+            this.runnable = runnable;
+            this.delayMillis = unit.toMillis(delay);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            ScheduledTask task = new ScheduledTask(invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2));
+            tasks.add(task);
+            return task.future;
+        });
+        callback = mock(CoapCallback.class);
+    }
+
+    @Test
+    public void testMergeLightCommands() {
+        JsonObject target = parse("{\"3311\":[{\"5850\":1,\"5712\":5}]}");
+        TradfriRequestPipeline.merge(target, parse("{\"3311\":[{\"5851\":128,\"5712\":10}]}"));
+        assertEquals(parse("{\"3311\":[{\"5850\":1,\"5712\":10,\"5851\":128}]}"), target);
+    }
+
+    @Test
+    public void testLaterValueWins() {
+        JsonObject target = parse("{\"3311\":[{\"5850\":1}]}");
+        TradfriRequestPipeline.merge(target, parse("{\"3311\":[{\"5850\":0}]}"));
+        assertEquals(parse("{\"3311\":[{\"5850\":0}]}"), target);
+    }
+
+    @Test
+    public void testArraysOfDifferentSizeAreReplaced() {
+        JsonObject target = parse("{\"a\":[1,2],\"b\":{\"c\":1}}");
+        TradfriRequestPipeline.merge(target, parse("{\"a\":[3],\"b\":{\"d\":2}}"));
+        assertEquals(parse("{\"a\":[3],\"b\":{\"c\":1,\"d\":2}}"), target);
+    }
+
+    @Test
+    public void testPendingCommandsAreCoalesced() {
+        TradfriRequestPipeline pipeline = createPipeline(1);
+        TradfriCoapClient client = mockClient("65537");
+
+        pipeline.put(client, "{\"3311\":[{\"5850\":1}]}", callback);
+        pipeline.put(client, "{\"3311\":[{\"5851\":128}]}", callback);
+        pipeline.put(client, "{\"3311\":[{\"5851\":200,\"5712\":10}]}", callback);
+
+        List<CoapHandler> handlers = verifyPuts(client, 1);
+        handlers.get(0).onLoad(null);
+        runSpacingTasks();
+
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(client, times(2)).put(any(CoapHandler.class), payloads.capture(), anyInt());
+        assertEquals(parse("{\"3311\":[{\"5850\":1}]}"), parse(payloads.getAllValues().get(0)));
+        assertEquals(parse("{\"3311\":[{\"5851\":200,\"5712\":10}]}"), parse(payloads.getAllValues().get(1)));
+    }
+
+    @Test
+    public void testInFlightLimit() {
+        TradfriRequestPipeline pipeline = createPipeline(2);
+        TradfriCoapClient client1 = mockClient("65537");
+        TradfriCoapClient client2 = mockClient("65538");
+        TradfriCoapClient client3 = mockClient("65539");
+
+        pipeline.put(client1, "{\"5850\":1}", callback);
+        pipeline.put(client2, "{\"5850\":1}", callback);
+        pipeline.put(client3, "{\"5850\":1}", callback);
+
+        List<CoapHandler> handlers = verifyPuts(client1, 1);
+        verifyPuts(client2, 1);
+        verifyPuts(client3, 0);
+
+        handlers.get(0).onLoad(null);
+        verifyPuts(client3, 1);
+    }
+
+    @Test
+    public void testRequestsToSameDeviceAreSpaced() {
+        TradfriRequestPipeline pipeline = createPipeline(3);
+        TradfriCoapClient client1 = mockClient("65537");
+        TradfriCoapClient client2 = mockClient("65538");
+
+        pipeline.put(client1, "{\"5850\":1}", callback);
+        verifyPuts(client1, 1).get(0).onLoad(null);
+
+        pipeline.put(client1, "{\"5850\":0}", callback);
+        verifyPuts(client1, 1);
+        ScheduledTask spacingTask = tasks.stream().filter(task -> task.delayMillis < REQUEST_TIMEOUT_MILLIS)
+                .findFirst().orElse(null);
+        assertNotNull(spacingTask);
+        assertTrue(spacingTask.delayMillis <= MIN_INTERVAL_MILLIS);
+
+        // other devices are not delayed
+        pipeline.put(client2, "{\"5850\":1}", callback);
+        verifyPuts(client2, 1);
+
+        runSpacingTasks();
+        verifyPuts(client1, 2);
+    }
+
+    @Test
+    public void testTimeoutReleasesRequest() {
+        TradfriRequestPipeline pipeline = createPipeline(1);
+        TradfriCoapClient client1 = mockClient("65537");
+        TradfriCoapClient client2 = mockClient("65538");
+        TradfriCoapClient client3 = mockClient("65539");
+
+        pipeline.put(client1, "{\"5850\":1}", callback);
+        pipeline.put(client2, "{\"5850\":1}", callback);
+        List<CoapHandler> handlers = verifyPuts(client1, 1);
+        verifyPuts(client2, 0);
+
+        ScheduledTask timeoutTask = tasks.stream().filter(task -> task.delayMillis == REQUEST_TIMEOUT_MILLIS)
+                .findFirst().orElse(null);
+        assertNotNull(timeoutTask);
+        timeoutTask.runnable.run();
+
+        verify(callback).setStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR);
+        verifyPuts(client2, 1);
+
+        // a late response must not release another slot
+        handlers.get(0).onLoad(null);
+        pipeline.put(client3, "{\"5850\":1}", callback);
+        verifyPuts(client3, 0);
+    }
+
+    @Test
+    public void testShutdownCancelsSentRequests() {
+        TradfriRequestPipeline pipeline = createPipeline(1);
+        TradfriCoapClient client1 = mockClient("65537");
+
+        pipeline.put(client1, "{\"5850\":1}", callback);
+        verifyPuts(client1, 1);
+        ScheduledTask timeoutTask = tasks.stream().filter(task -> task.delayMillis == REQUEST_TIMEOUT_MILLIS)
+                .findFirst().orElse(null);
+        assertNotNull(timeoutTask);
+
+        pipeline.shutdown();
+
+        verify(timeoutTask.future).cancel(false);
+        // a timeout that was already running must not report the request
+        timeoutTask.runnable.run();
+        verify(callback, never()).setStatus(any(), any());
+    }
+
+    private TradfriRequestPipeline createPipeline(int maxInFlightRequests) {
+        return new TradfriRequestPipeline(scheduler, maxInFlightRequests, MIN_INTERVAL_MILLIS,
+                REQUEST_TIMEOUT_MILLIS);
+    }
+
+    private TradfriCoapClient mockClient(String id) {
+        TradfriCoapClient client = mock(TradfriCoapClient.class);
+        when(client.getURI()).thenReturn("coaps://127.0.0.1:5684/15001/" + id);
+        return client;
+    }
+
+    private List<CoapHandler> verifyPuts(TradfriCoapClient client, int count) {
+        ArgumentCaptor<CoapHandler> handlers = ArgumentCaptor.forClass(CoapHandler.class);
+        verify(client, times(count)).put(handlers.capture(), anyString(), anyInt());
+        return handlers.getAllValues();
+    }
+
+    private void runSpacingTasks() {
+        List<ScheduledTask> spacingTasks = new ArrayList<>();
+        tasks.removeIf(task -> task.delayMillis < REQUEST_TIMEOUT_MILLIS && spacingTasks.add(task));
+        spacingTasks.forEach(task -> task.runnable.run());
+    }
+
+    private JsonObject parse(String json) {
+        return parser.parse(json).getAsJsonObject();
+    }
+}
@@ -18,7 +18,7 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 
@@ -59,7 +59,7 @@ public class HueAuthorizedConfig extends HueUnauthorizedConfig {
     public String proxyaddress = "none";
     public int proxyport = 0;
 
-    public final Map<String, HueUserAuth> whitelist = new TreeMap<>();
+    public final Map<String, HueUserAuth> whitelist = new ConcurrentSkipListMap<>();
 
     public void makeV1bridge() {
         apiversion = "1.16.0";
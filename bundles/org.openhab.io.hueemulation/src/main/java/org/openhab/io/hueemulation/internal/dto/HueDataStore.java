@@ -14,13 +14,16 @@ package org.openhab.io.hueemulation.internal.dto;
 
 import java.util.Collections;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 
 /**
  * Hue data store object. Contains all lights, configuration, user whitelist etc.
  * Is used as a data store but also as API DTO.
+ * <p>
+ * The maps are sorted concurrent maps. REST request threads read them without any locking while the registry
+ * listeners, which are the only writers of lights, groups and sensors, replace entries.
  *
  * @author Dan Cunningham - Initial contribution
  * @author David Graeff - Add groups,scenes,rules,sensors,resourcelinks and config entries
@@ -29,14 +32,14 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 @NonNullByDefault
 public class HueDataStore {
     public HueAuthorizedConfig config = new HueAuthorizedConfig();
-    public TreeMap<String, HueLightEntry> lights = new TreeMap<>();
-    public TreeMap<String, HueGroupEntry> groups = new TreeMap<>();
-    public Map<String, HueSceneEntry> scenes = new TreeMap<>();
-    public Map<String, HueRuleEntry> rules = new TreeMap<>();
-    public Map<String, HueSensorEntry> sensors = new TreeMap<>();
-    public Map<String, HueScheduleEntry> schedules = new TreeMap<>();
+    public ConcurrentSkipListMap<String, HueLightEntry> lights = new ConcurrentSkipListMap<>();
+    public ConcurrentSkipListMap<String, HueGroupEntry> groups = new ConcurrentSkipListMap<>();
+    public Map<String, HueSceneEntry> scenes = new ConcurrentSkipListMap<>();
+    public Map<String, HueRuleEntry> rules = new ConcurrentSkipListMap<>();
+    public Map<String, HueSensorEntry> sensors = new ConcurrentSkipListMap<>();
+    public Map<String, HueScheduleEntry> schedules = new ConcurrentSkipListMap<>();
     public Map<Integer, Dummy> resourcelinks = Collections.emptyMap();
-    public Map<String, HueCapability> capabilities = new TreeMap<>();
+    public Map<String, HueCapability> capabilities = new ConcurrentSkipListMap<>();
 
     public HueDataStore() {
         resetGroupsAndLights();
@@ -50,9 +53,9 @@ public class HueDataStore {
     }
 
     public void resetGroupsAndLights() {
-        groups.clear();
         lights.clear();
-        // There must be a group 0 all the time!
+        // There must be a group 0 all the time! Replace it instead of clearing, so that readers always find one.
+        groups.keySet().removeIf(id -> !"0".equals(id));
         groups.put("0", new HueGroupEntry("All lights", null, null));
     }
 
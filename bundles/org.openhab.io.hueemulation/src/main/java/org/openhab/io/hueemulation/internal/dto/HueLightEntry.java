@@ -36,7 +36,8 @@ import com.google.gson.JsonSerializer;
  */
 @NonNullByDefault
 public class HueLightEntry {
-    public AbstractHueState state = new AbstractHueState();
+    // state and the last command are updated by REST and group action threads while holding the lock of this entry
+    public volatile AbstractHueState state = new AbstractHueState();
     public final String type;
     public final String modelid;
     public final String uniqueid;
@@ -54,8 +55,8 @@ public class HueLightEntry {
     /** Associated item UID */
     public @NonNullByDefault({}) transient GenericItem item;
     public transient DeviceType deviceType;
-    public transient @Nullable Command lastCommand = null;
-    public transient @Nullable HueStateChange lastHueChange = null;
+    public transient volatile @Nullable Command lastCommand = null;
+    public transient volatile @Nullable HueStateChange lastHueChange = null;
 
     public static class Config {
         public final String archetype = "classicbulb";
@@ -169,8 +170,10 @@ public class HueLightEntry {
 
         @Override
         public JsonElement serialize(HueLightEntry product, Type type, JsonSerializationContext context) {
-            product.state = StateUtils.adjustedColorStateFromItemState(product.item.getState(), product.deviceType,
-                    product.lastCommand, product.lastHueChange);
+            synchronized (product) {
+                product.state = StateUtils.adjustedColorStateFromItemState(product.item.getState(),
+                        product.deviceType, product.lastCommand, product.lastHueChange);
+            }
             String label = product.item.getLabel();
             if (label != null) {
                 product.name = label;
@@ -187,7 +190,7 @@ public class HueLightEntry {
      *
      * @param element A replace item
      */
-    public void updateItem(GenericItem element) {
+    public synchronized void updateItem(GenericItem element) {
         item = element;
         state = StateUtils.colorStateFromItemState(item.getState(), deviceType);
 
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.rest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+
+/**
+ * Keeps the pre-rendered JSON of hue lights or groups, keyed by their hue ID.
+ * <p>
+ * Hue clients like the Amazon Echo poll the full lights and groups lists very often. Instead of serializing every
+ * entry (including the item state conversion of the custom serializers) on each request, a fragment is only
+ * rendered again after it got invalidated. A full list response is then a concatenation of the cached fragments.
+ * <p>
+ * A fragment is bound to the entry instance it was rendered from. If the data store entry got replaced, the
+ * fragment is rendered again, even without an explicit invalidation.
+ *
+ * @author David Graeff - Initial contribution
+ */
+@NonNullByDefault
+public class JsonFragmentCache<T> {
+    private static class Fragment {
+        final Object entry;
+        final String json;
+
+        Fragment(Object entry, String json) {
+            this.entry = entry;
+            this.json = json;
+        }
+    }
+
+    private final Gson gson;
+    private final Function<T, @Nullable String> itemNameOf;
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+    /** Item name to hue ID, to invalidate fragments by item state change events */
+    private final Map<String, String> itemToHueID = new ConcurrentHashMap<>();
+    private long invalidations = 0;
+
+    /**
+     * Creates a fragment cache.
+     *
+     * @param gson The gson instance with the type adapters of the cached entries registered
+     * @param itemNameOf Returns the name of the item that backs an entry or null
+     */
+    public JsonFragmentCache(Gson gson, Function<T, @Nullable String> itemNameOf) {
+        this.gson = gson;
+        this.itemNameOf = itemNameOf;
+    }
+
+    /**
+     * Returns the JSON of the given entry. The cached fragment is used if it is still valid.
+     *
+     * @param hueID The hue ID of the entry
+     * @param entry The data store entry
+     */
+    public String render(String hueID, T entry) {
+        Fragment fragment = fragments.get(hueID);
+        if (fragment != null && fragment.entry == entry) {
+            return fragment.json;
+        }
+
+        long stamp;
+        synchronized (this) {
+            stamp = invalidations;
+        }
+        String json = gson.toJson(entry);
+        String itemName = itemNameOf.apply(entry);
+        synchronized (this) {
+            // Do not store a fragment that might have been rendered from an already outdated state
+            if (stamp == invalidations) {
+                fragments.put(hueID, new Fragment(entry, json));
+                if (itemName != null) {
+                    itemToHueID.put(itemName, hueID);
+                }
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Returns the JSON object of all given entries, identical to what gson would produce for the map.
+     *
+     * @param entries The hue ID to entry map of the data store
+     */
+    public String renderAll(Map<String, T> entries) {
+        StringBuilder b = new StringBuilder(entries.size() * 512);
+        b.append('{');
+        boolean first = true;
+        for (Map.Entry<String, T> entry : entries.entrySet()) {
+            if (!first) {
+                b.append(',');
+            }
+            first = false;
+            b.append(gson.toJson(entry.getKey())).append(':').append(render(entry.getKey(), entry.getValue()));
+        }
+        return b.append('}').toString();
+    }
+
+    /**
+     * Invalidates the fragment of the given hue ID.
+     */
+    public synchronized void invalidate(String hueID) {
+        ++invalidations;
+        fragments.remove(hueID);
+    }
+
+    /**
+     * Invalidates the fragment of the entry that is backed by the given item, if any.
+     *
+     * @param itemName An item name, usually of an item state changed event
+     */
+    public synchronized void invalidateItem(String itemName) {
+        // Always count, the entry of this item might be rendered for the first time right now
+        ++invalidations;
+        String hueID = itemToHueID.remove(itemName);
+        if (hueID != null) {
+            fragments.remove(hueID);
+        }
+    }
+
+    /**
+     * Invalidates all fragments.
+     */
+    public synchronized void invalidateAll() {
+        ++invalidations;
+        fragments.clear();
+        itemToHueID.clear();
+    }
+
+    /**
+     * Returns the amount of cached fragments.
+     */
+    public int size() {
+        return fragments.size();
+    }
+}
@@ -15,6 +15,7 @@ package org.openhab.io.hueemulation.internal.rest;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -32,13 +33,19 @@ import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventFilter;
 import org.eclipse.smarthome.core.events.EventPublisher;
+import org.eclipse.smarthome.core.events.EventSubscriber;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.events.GroupItemStateChangedEvent;
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
+import org.eclipse.smarthome.core.items.events.ItemStateChangedEvent;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.io.hueemulation.internal.ConfigStore;
@@ -88,21 +95,27 @@ import io.swagger.annotations.ApiResponses;
  * </p>
  *
  * <p>
+ * The full lights and groups lists are answered out of a {@link JsonFragmentCache}. Cached entries are invalidated
+ * by item state changed events and item registry changes.
  * </p>
  *
  * @author David Graeff - Initial contribution
  * @author Florian Schmidt - Removed base type restriction from Group items
  */
-@Component(immediate = false, service = { LightsAndGroups.class }, property = "com.eclipsesource.jaxrs.publish=false")
+@Component(immediate = false, service = { LightsAndGroups.class,
+        EventSubscriber.class }, property = "com.eclipsesource.jaxrs.publish=false")
 @NonNullByDefault
 @Path("")
 @Produces(MediaType.APPLICATION_JSON)
-public class LightsAndGroups implements RegistryChangeListener<Item> {
+public class LightsAndGroups implements RegistryChangeListener<Item>, EventSubscriber {
     public static final String EXPOSE_AS_DEVICE_TAG = "huelight";
     private final Logger logger = LoggerFactory.getLogger(LightsAndGroups.class);
     private static final String ITEM_TYPE_GROUP = "Group";
+    private static final String THREAD_POOL_NAME = "hueemulation";
     private static final Set<String> ALLOWED_ITEM_TYPES = Stream.of(CoreItemFactory.COLOR, CoreItemFactory.DIMMER,
             CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.SWITCH, ITEM_TYPE_GROUP).collect(Collectors.toSet());
+    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Stream
+            .of(ItemStateChangedEvent.TYPE, GroupItemStateChangedEvent.TYPE).collect(Collectors.toSet());
 
     @Reference
     protected @NonNullByDefault({}) ConfigStore cs;
@@ -113,12 +126,21 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL)
     protected volatile @Nullable EventPublisher eventPublisher;
 
+    protected @NonNullByDefault({}) JsonFragmentCache<HueLightEntry> lightsCache;
+    protected @NonNullByDefault({}) JsonFragmentCache<HueGroupEntry> groupsCache;
+    protected Executor groupActionExecutor = ThreadPoolManager.getPool(THREAD_POOL_NAME);
+
     /**
      * Registers to the {@link ItemRegistry} and enumerates currently existing items.
      */
     @Activate
     protected void activate() {
         cs.ds.resetGroupsAndLights();
+        lightsCache = new JsonFragmentCache<>(cs.gson, light -> light.item.getName());
+        groupsCache = new JsonFragmentCache<>(cs.gson, group -> {
+            GroupItem groupItem = group.groupItem;
+            return groupItem != null ? groupItem.getName() : null;
+        });
 
         itemRegistry.removeRegistryChangeListener(this);
         itemRegistry.addRegistryChangeListener(this);
@@ -136,6 +158,36 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         itemRegistry.removeRegistryChangeListener(this);
     }
 
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    @Override
+    public @Nullable EventFilter getEventFilter() {
+        return null;
+    }
+
+    /**
+     * The cached JSON of a light or group contains the item state. Invalidate it if the state changes.
+     */
+    @Override
+    public void receive(Event event) {
+        if (event instanceof ItemStateChangedEvent) {
+            String itemName = ((ItemStateChangedEvent) event).getItemName();
+            lightsCache.invalidateItem(itemName);
+            groupsCache.invalidateItem(itemName);
+        }
+    }
+
+    /**
+     * A registry change might alter a light and any group member list.
+     */
+    private void invalidateCaches(String hueID) {
+        lightsCache.invalidate(hueID);
+        groupsCache.invalidateAll();
+    }
+
     @Override
     public synchronized void added(Item newElement) {
         if (!(newElement instanceof GenericItem)) {
@@ -174,11 +226,13 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             }
 
             cs.ds.groups.put(hueID, group);
+            invalidateCaches(hueID);
         } else {
             HueLightEntry device = new HueLightEntry(element, cs.ds.config.uuid + "-" + hueID.toString(), deviceType);
             device.item = element;
             cs.ds.lights.put(hueID, device);
             updateGroup0();
+            invalidateCaches(hueID);
         }
     }
 
@@ -197,6 +251,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         cs.ds.lights.remove(hueID);
         cs.ds.groups.remove(hueID);
         updateGroup0();
+        invalidateCaches(hueID);
     }
 
     /**
@@ -220,6 +275,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             } else {
                 cs.ds.groups.remove(hueID);
             }
+            invalidateCaches(hueID);
         }
 
         HueLightEntry hueDevice = cs.ds.lights.get(hueID);
@@ -237,6 +293,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         }
 
         hueDevice.updateItem(element);
+        invalidateCaches(hueID);
     }
 
     @GET
@@ -248,7 +305,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        return Response.ok(lightsCache.renderAll(cs.ds.lights)).build();
     }
 
     @GET
@@ -285,7 +342,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        return Response.ok(hueDevice != null ? lightsCache.render(id, hueDevice) : cs.gson.toJson(null)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -364,25 +422,25 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
                     "Invalid request: No state change data received!");
         }
 
-        hueDevice.state = StateUtils.colorStateFromItemState(hueDevice.item.getState(), hueDevice.deviceType);
-
         String itemUID = hueDevice.item.getUID();
         List<HueResponse> responses = new ArrayList<>();
-        Command command = StateUtils.computeCommandByState(responses, "/lights/" + id + "/state", hueDevice.state,
-                newState);
+        Command command;
+        // group commands update the same light from the group action executor
+        synchronized (hueDevice) {
+            hueDevice.state = StateUtils.colorStateFromItemState(hueDevice.item.getState(), hueDevice.deviceType);
+            command = StateUtils.computeCommandByState(responses, "/lights/" + id + "/state", hueDevice.state,
+                    newState);
+            if (command != null) {
+                hueDevice.lastCommand = command;
+                hueDevice.lastHueChange = newState;
+            }
+        }
 
         // If a command could be created, post it to the framework now
         if (command != null) {
-            EventPublisher localEventPublisher = eventPublisher;
-            if (localEventPublisher != null) {
-                logger.debug("sending {} to {}", command, itemUID);
-                localEventPublisher.post(ItemEventFactory.createCommandEvent(itemUID, command, "hueemulation"));
-            } else {
-                logger.warn("No event publisher. Cannot post item '{}' command!", itemUID);
-            }
-            hueDevice.lastCommand = command;
-            hueDevice.lastHueChange = newState;
+            postCommand(itemUID, command);
         }
+        lightsCache.invalidate(id);
 
         return Response.ok(cs.gson.toJson(responses, new TypeToken<List<?>>() {
         }.getType())).build();
@@ -400,8 +458,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
         HueGroupEntry hueDevice = cs.ds.groups.get(id);
-        GroupItem groupItem = hueDevice.groupItem;
-        if (hueDevice == null || groupItem == null) {
+        if (hueDevice == null) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.NOT_AVAILABLE, "Group not existing");
         }
 
@@ -411,29 +468,70 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
                     "Invalid request: No state change data received!");
         }
 
+        GroupItem groupItem = hueDevice.groupItem;
         // First synchronize the internal state information with the framework
-        hueDevice.action = StateUtils.colorStateFromItemState(groupItem.getState(), hueDevice.deviceType);
+        if (groupItem != null) {
+            hueDevice.action = StateUtils.colorStateFromItemState(groupItem.getState(), hueDevice.deviceType);
+        }
 
         List<HueResponse> responses = new ArrayList<>();
         Command command = StateUtils.computeCommandByState(responses, "/groups/" + id + "/state/", hueDevice.action,
                 state);
 
-        // If a command could be created, post it to the framework now
-        if (command != null) {
-            logger.debug("sending {} to {}", command, id);
-            EventPublisher localEventPublisher = eventPublisher;
-            if (localEventPublisher != null) {
-                localEventPublisher
-                        .post(ItemEventFactory.createCommandEvent(groupItem.getUID(), command, "hueemulation"));
-            } else {
-                logger.warn("No event publisher. Cannot post item '{}' command!", groupItem.getUID());
+        if (groupItem != null) {
+            // A single command to the backing group item, the framework forwards it to all members
+            if (command != null) {
+                postCommand(groupItem.getUID(), command);
             }
+        } else {
+            // Groups without a group item (like group 0) are commanded light by light. Do not block the response.
+            List<String> lightIDs = hueDevice.lights;
+            groupActionExecutor.execute(() -> applyToLights(lightIDs, state));
         }
+        groupsCache.invalidate(id);
 
         return Response.ok(cs.gson.toJson(responses, new TypeToken<List<?>>() {
         }.getType())).build();
     }
 
+    /**
+     * Computes and posts the command of the given state change for each light, depending on the light type.
+     * Runs on the group action executor, the light is locked while its state is updated.
+     */
+    private void applyToLights(List<String> lightIDs, HueStateChange state) {
+        for (String lightID : lightIDs) {
+            HueLightEntry hueDevice = cs.ds.lights.get(lightID);
+            if (hueDevice == null) {
+                continue;
+            }
+            Command command;
+            synchronized (hueDevice) {
+                hueDevice.state = StateUtils.colorStateFromItemState(hueDevice.item.getState(),
+                        hueDevice.deviceType);
+                command = StateUtils.computeCommandByState(new ArrayList<>(), "/lights/" + lightID + "/state",
+                        hueDevice.state, state);
+                if (command != null) {
+                    hueDevice.lastCommand = command;
+                    hueDevice.lastHueChange = state;
+                }
+            }
+            if (command != null) {
+                postCommand(hueDevice.item.getUID(), command);
+            }
+            lightsCache.invalidate(lightID);
+        }
+    }
+
+    private void postCommand(String itemUID, Command command) {
+        EventPublisher localEventPublisher = eventPublisher;
+        if (localEventPublisher != null) {
+            logger.debug("sending {} to {}", command, itemUID);
+            localEventPublisher.post(ItemEventFactory.createCommandEvent(itemUID, command, "hueemulation"));
+        } else {
+            logger.warn("No event publisher. Cannot post item '{}' command!", itemUID);
+        }
+    }
+
     @GET
     @Path("{username}/groups")
     @ApiOperation(value = "Return all groups")
@@ -443,7 +541,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups)).build();
+        return Response.ok(groupsCache.renderAll(cs.ds.groups)).build();
     }
 
     @GET
@@ -456,7 +554,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups.get(id))).build();
+        HueGroupEntry hueGroup = cs.ds.groups.get(id);
+        return Response.ok(hueGroup != null ? groupsCache.render(id, hueGroup) : cs.gson.toJson(null)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
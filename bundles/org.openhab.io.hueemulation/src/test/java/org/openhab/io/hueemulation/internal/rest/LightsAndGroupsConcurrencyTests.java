@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.rest;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response;
+
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.events.ItemEventFactory;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.hueemulation.internal.ConfigStore;
+import org.openhab.io.hueemulation.internal.rest.mocks.DummyItemRegistry;
+
+/**
+ * Polls the full lights and groups lists of {@link LightsAndGroups} from several clients, like Echo devices do,
+ * while item states and the item registry change. The served lists must never be stale or fail.
+ *
+ * @author David Graeff - Initial contribution
+ */
+public class LightsAndGroupsConcurrencyTests {
+    private static final int LIGHTS = 20;
+    private static final int REQUESTS = 10;
+    private static final int CLIENTS = 4;
+
+    private CommonSetup commonSetup;
+    private ItemRegistry itemRegistry;
+    private ConfigStore cs;
+    private ExecutorService executor;
+
+    LightsAndGroups subject = new LightsAndGroups();
+
+    @Before
+    public void setUp() throws IOException {
+        commonSetup = new CommonSetup(false);
+        itemRegistry = new DummyItemRegistry();
+        executor = Executors.newFixedThreadPool(CLIENTS);
+
+        this.cs = commonSetup.cs;
+
+        subject.cs = cs;
+        subject.eventPublisher = commonSetup.eventPublisher;
+        subject.userManagement = commonSetup.userManagement;
+        subject.itemRegistry = itemRegistry;
+        subject.activate();
+
+        for (int i = 0; i < LIGHTS; i++) {
+            SwitchItem item = new SwitchItem("light" + i);
+            item.setLabel("Light " + i);
+            item.addTag("Switchable");
+            itemRegistry.add(item);
+        }
+
+        commonSetup.start(new ResourceConfig().registerInstances(subject));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        commonSetup.dispose();
+    }
+
+    @Test
+    public void pollListsWhileStatesChange() throws Exception {
+        assertThat(cs.ds.lights.size(), is(LIGHTS));
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(executor.submit(() -> {
+                for (int r = 0; r < REQUESTS; r++) {
+                    String path = r % 2 == 0 ? "/testuser/lights" : "/testuser/groups";
+                    Response response = commonSetup.client.target(commonSetup.basePath + path).request().get();
+                    assertEquals(200, response.getStatus());
+                    response.readEntity(String.class);
+                }
+            }));
+        }
+
+        // Toggle some lights while the clients are polling
+        for (int i = 0; i < LIGHTS; i += 3) {
+            SwitchItem item = (SwitchItem) itemRegistry.get("light" + i);
+            item.setState(OnOffType.ON);
+            subject.receive(ItemEventFactory.createStateChangedEvent(item.getName(), OnOffType.ON, OnOffType.OFF));
+        }
+
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        // All state changes must be visible, nothing stale is served out of the cache
+        String body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .get(String.class);
+        assertThat(body, is(cs.gson.toJson(cs.ds.lights)));
+        for (int i = 0; i < LIGHTS; i += 3) {
+            String hueID = cs.mapItemUIDtoHueID(itemRegistry.get("light" + i));
+            body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/" + hueID).request()
+                    .get(String.class);
+            assertThat(body, containsString("\"on\":true"));
+        }
+    }
+
+    @Test
+    public void pollListsWhileRegistryChanges() throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(executor.submit(() -> {
+                for (int r = 0; r < REQUESTS; r++) {
+                    Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                            .get();
+                    assertEquals(200, response.getStatus());
+                    response.readEntity(String.class);
+                }
+            }));
+        }
+
+        // Readers must neither block nor fail while items get removed and added again
+        for (int i = 0; i < LIGHTS; i += 3) {
+            SwitchItem item = (SwitchItem) itemRegistry.remove("light" + i);
+            itemRegistry.add(item);
+        }
+
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(cs.ds.lights.size(), is(LIGHTS));
+        assertThat(cs.ds.groups.get("0").lights.size(), is(LIGHTS));
+        String body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .get(String.class);
+        assertThat(body, is(cs.gson.toJson(cs.ds.lights)));
+    }
+}
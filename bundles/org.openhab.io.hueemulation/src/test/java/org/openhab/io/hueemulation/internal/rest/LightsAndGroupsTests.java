@@ -15,9 +15,10 @@ package org.openhab.io.hueemulation.internal.rest;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Response;
@@ -27,10 +28,12 @@ import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.events.ItemCommandEvent;
+import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.library.items.ColorItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
 import org.eclipse.smarthome.core.library.types.HSBType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.types.UnDefType;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.After;
 import org.junit.Before;
@@ -226,6 +229,25 @@ public class LightsAndGroupsTests {
         }));
     }
 
+    @Test
+    public void changeGroupWithoutItemSwitchState() {
+        // Group 0 has no backing group item, each light gets its own command
+        subject.groupActionExecutor = Runnable::run;
+        cs.ds.groups.get("0").lights = Arrays.asList("1", "2", "3");
+
+        String body = "{'on':true}";
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups/0/action").request()
+                .put(Entity.json(body));
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), containsString("success"));
+        assertThat(((HueStatePlug) cs.ds.lights.get("1").state).on, is(true));
+        assertThat(((HueStateColorBulb) cs.ds.lights.get("2").state).on, is(true));
+        verify(commonSetup.eventPublisher, times(3)).post(argThat((Event t) -> {
+            assertThat(t.getPayload(), is("{\"type\":\"OnOff\",\"value\":\"ON\"}"));
+            return true;
+        }));
+    }
+
     @Test
     public void changeOnValue() {
         assertThat(((HueStateColorBulb) cs.ds.lights.get("2").state).on, is(false));
@@ -334,6 +356,61 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void cachedListsEqualGsonOutput() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.lights)));
+        assertThat(subject.lightsCache.size(), is(3));
+
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request().get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.groups)));
+        assertThat(subject.groupsCache.size(), is(2));
+    }
+
+    @Test
+    public void stateChangeInvalidatesCachedLight() {
+        String body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/1").request()
+                .get(String.class);
+        assertThat(body, containsString("\"on\":false"));
+
+        // Without a state changed event the cached light is returned
+        HueLightEntry hueDevice = cs.ds.lights.get("1");
+        hueDevice.item.setState(OnOffType.ON);
+        body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/1").request().get(String.class);
+        assertThat(body, containsString("\"on\":false"));
+
+        subject.receive(ItemEventFactory.createStateChangedEvent("switch", OnOffType.ON, UnDefType.NULL));
+        body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/1").request().get(String.class);
+        assertThat(body, containsString("\"on\":true"));
+    }
+
+    @Test
+    public void registryChangeInvalidatesCachedLight() {
+        SwitchItem item = new SwitchItem("switch1");
+        item.setLabel("labelOld");
+        item.addTag("Switchable");
+        itemRegistry.add(item);
+        String hueID = cs.mapItemUIDtoHueID(item);
+
+        String body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .get(String.class);
+        assertThat(body, containsString("labelOld"));
+
+        SwitchItem newitem = new SwitchItem("switch1");
+        newitem.setLabel("labelNew");
+        newitem.addTag("Switchable");
+        itemRegistry.update(newitem);
+        body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/" + hueID).request()
+                .get(String.class);
+        assertThat(body, containsString("labelNew"));
+
+        itemRegistry.remove(item.getUID());
+        body = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get(String.class);
+        assertThat(body, not(containsString("labelNew")));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
@@ -26,4 +26,20 @@ public class Constants {
      * </pre>
      */
     public static final String CLIENTID = "embedded-mqtt-broker";
+
+    /**
+     * The embedded broker publishes its metrics every {@link #METRICS_INTERVAL_SECONDS} seconds to the following
+     * (non retained) topics. The counts use the same topics as mosquitto.
+     */
+    public static final int METRICS_INTERVAL_SECONDS = 10;
+    public static final String TOPIC_METRICS_PUBLISH_RATE = "$SYS/broker/load/publish/received/persecond";
+    public static final String TOPIC_METRICS_BYTE_RATE = "$SYS/broker/load/bytes/received/persecond";
+    public static final String TOPIC_METRICS_SUBSCRIPTIONS = "$SYS/broker/subscriptions/count";
+    public static final String TOPIC_METRICS_RETAINED = "$SYS/broker/retained messages/count";
+    public static final String TOPIC_METRICS_CLIENTS = "$SYS/broker/clients/connected";
+
+    /**
+     * Only published with in-memory persistence: The duration of the last snapshot of the retained messages in ms.
+     */
+    public static final String TOPIC_METRICS_SNAPSHOT_LATENCY = "$SYS/broker/store/snapshot/latency";
 }
@@ -15,6 +15,7 @@ package org.openhab.io.mqttembeddedbroker.internal;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -23,13 +24,18 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.net.ssl.KeyManagerFactory;
 
@@ -45,6 +51,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttService;
 import org.eclipse.smarthome.io.transport.mqtt.MqttServiceObserver;
 import org.openhab.io.mqttembeddedbroker.Constants;
 import org.openhab.io.mqttembeddedbroker.internal.MqttEmbeddedBrokerDetectStart.MqttEmbeddedBrokerStartedListener;
+import org.openhab.io.mqttembeddedbroker.internal.RetainedSnapshotStore.RetainedEntry;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -67,6 +74,11 @@ import io.moquette.interception.messages.InterceptDisconnectMessage;
 import io.moquette.interception.messages.InterceptPublishMessage;
 import io.moquette.interception.messages.InterceptSubscribeMessage;
 import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.mqtt.MqttMessageBuilders;
+import io.netty.handler.codec.mqtt.MqttPublishMessage;
+import io.netty.handler.codec.mqtt.MqttQoS;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 
@@ -87,12 +99,26 @@ import io.netty.handler.ssl.SslContextBuilder;
 @NonNullByDefault
 public class EmbeddedBrokerService
         implements MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
+    private static final String SNAPSHOT_SUFFIX = ".retained";
+
     private final MqttService service;
     private String persistenceFilename = "";
+    private boolean inMemoryPersistence;
+    private int snapshotInterval = 60;
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
+    /**
+     * Counts the publishes and tracks the subscriptions and retained topics of all clients. Messages to "$SYS/"
+     * topics, like the metrics published by this service, are not counted.
+     */
     @NonNullByDefault({})
     class BrokerMetricsListenerEx implements InterceptHandler {
+        final AtomicLong receivedPublishes = new AtomicLong();
+        final AtomicLong receivedBytes = new AtomicLong();
+        private final Map<String, Set<String>> subscriptions = new ConcurrentHashMap<>();
+        private final Set<String> cleanSessionClients = ConcurrentHashMap.newKeySet();
+        private final Set<String> retainedTopics = ConcurrentHashMap.newKeySet();
+        volatile RetainedSnapshotStore retainedStore;
 
         @Override
         public String getID() {
@@ -101,21 +127,38 @@ public class EmbeddedBrokerService
 
         @Override
         public Class<?>[] getInterceptedMessageTypes() {
-            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class };
+            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class,
+                    InterceptConnectionLostMessage.class, InterceptPublishMessage.class,
+                    InterceptSubscribeMessage.class, InterceptUnsubscribeMessage.class };
         }
 
         @Override
         public void onConnect(InterceptConnectMessage arg0) {
             logger.debug("MQTT Client connected: {}", arg0.getClientID());
+            if (arg0.isCleanSession()) {
+                cleanSessionClients.add(arg0.getClientID());
+                subscriptions.remove(arg0.getClientID());
+            } else {
+                cleanSessionClients.remove(arg0.getClientID());
+            }
         }
 
         @Override
         public void onConnectionLost(InterceptConnectionLostMessage arg0) {
+            clientGone(arg0.getClientID());
         }
 
         @Override
         public void onDisconnect(InterceptDisconnectMessage arg0) {
             logger.debug("MQTT Client disconnected: {}", arg0.getClientID());
+            clientGone(arg0.getClientID());
+        }
+
+        private void clientGone(String clientID) {
+            // the broker keeps the subscriptions of persistent sessions
+            if (cleanSessionClients.remove(clientID)) {
+                subscriptions.remove(clientID);
+            }
         }
 
         @Override
@@ -124,14 +167,49 @@ public class EmbeddedBrokerService
 
         @Override
         public void onPublish(InterceptPublishMessage arg0) {
+            String topic = arg0.getTopicName();
+            if (topic.startsWith("$SYS/")) {
+                return;
+            }
+            int length = arg0.getPayload().readableBytes();
+            receivedPublishes.incrementAndGet();
+            receivedBytes.addAndGet(length);
+            if (arg0.isRetainFlag()) {
+                if (length == 0) {
+                    retainedTopics.remove(topic);
+                } else {
+                    retainedTopics.add(topic);
+                }
+                RetainedSnapshotStore store = retainedStore;
+                if (store != null) {
+                    ByteBuf payload = arg0.getPayload();
+                    byte[] bytes = new byte[length];
+                    payload.getBytes(payload.readerIndex(), bytes);
+                    store.update(topic, arg0.getQos().value(), bytes);
+                }
+            }
         }
 
         @Override
         public void onSubscribe(InterceptSubscribeMessage arg0) {
+            subscriptions.computeIfAbsent(arg0.getClientID(), k -> ConcurrentHashMap.newKeySet())
+                    .add(arg0.getTopicFilter());
         }
 
         @Override
         public void onUnsubscribe(InterceptUnsubscribeMessage arg0) {
+            Set<String> topicFilters = subscriptions.get(arg0.getClientID());
+            if (topicFilters != null) {
+                topicFilters.remove(arg0.getTopicFilter());
+            }
+        }
+
+        int getSubscriptionCount() {
+            return subscriptions.values().stream().mapToInt(Set::size).sum();
+        }
+
+        int getRetainedCount() {
+            return retainedTopics.size();
         }
     }
 
@@ -139,6 +217,13 @@ public class EmbeddedBrokerService
     private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerService.class);
     protected MqttEmbeddedBrokerDetectStart detectStart = new MqttEmbeddedBrokerDetectStart(this);
     protected BrokerMetricsListenerEx metrics = new BrokerMetricsListenerEx();
+    private @Nullable ScheduledExecutorService scheduler;
+    private @Nullable ScheduledFuture<?> metricsJob;
+    private @Nullable ScheduledFuture<?> snapshotJob;
+    private @Nullable RetainedSnapshotStore retainedStore;
+    private long lastMetricsTime;
+    private long lastReceivedPublishes;
+    private long lastReceivedBytes;
 
     private @Nullable MqttBrokerConnection connection;
 
@@ -174,16 +259,26 @@ public class EmbeddedBrokerService
             connection.setCredentials(config.username, config.password);
         }
 
+        inMemoryPersistence = config.inMemoryPersistence;
+        snapshotInterval = Math.max(1, config.snapshotInterval);
         if (!config.persistenceFile.isEmpty()) {
             final String persistenceFilename = config.persistenceFile;
             if (!Paths.get(persistenceFilename).isAbsolute()) {
                 Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
                 Files.createDirectories(path);
                 this.persistenceFilename = path.resolve(persistenceFilename).toString();
+            } else {
+                this.persistenceFilename = persistenceFilename;
             }
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            if (inMemoryPersistence) {
+                logger.info("Using in-memory persistence. Retained messages are saved every {} s to: {}{}",
+                        snapshotInterval, this.persistenceFilename, SNAPSHOT_SUFFIX);
+            } else {
+                logger.info("Broker persistence file: {}", this.persistenceFilename);
+            }
         } else {
+            this.persistenceFilename = "";
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
 
@@ -196,6 +291,7 @@ public class EmbeddedBrokerService
         if (service != null) {
             service.removeBrokersListener(this);
         }
+        stopJobs();
         MqttBrokerConnection connection = this.connection;
         if (connection == null) {
             if (server != null) {
@@ -292,9 +388,15 @@ public class EmbeddedBrokerService
             logger.debug("Broker anonymous access enabled");
         }
 
+        RetainedSnapshotStore retainedStore = null;
         if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
-            properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
-            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+            if (inMemoryPersistence) {
+                // Moquette keeps everything in memory, only the retained messages are saved by a background job
+                retainedStore = new RetainedSnapshotStore(Paths.get(persistenceFilename + SNAPSHOT_SUFFIX));
+            } else {
+                properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
+                properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+            }
         }
 
         // We may provide ACL functionality at some point as well
@@ -314,8 +416,21 @@ public class EmbeddedBrokerService
         }
         this.server = server;
         server.addInterceptHandler(metrics);
+        this.retainedStore = retainedStore;
+        metrics.retainedStore = retainedStore;
         ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
+        this.scheduler = s;
+        if (retainedStore != null) {
+            restoreRetainedMessages(server, retainedStore);
+            snapshotJob = s.scheduleWithFixedDelay(this::snapshotRetainedMessages, snapshotInterval,
+                    snapshotInterval, TimeUnit.SECONDS);
+        }
         detectStart.startBrokerStartedDetection(port, s);
+        lastMetricsTime = System.nanoTime();
+        lastReceivedPublishes = metrics.receivedPublishes.get();
+        lastReceivedBytes = metrics.receivedBytes.get();
+        metricsJob = s.scheduleWithFixedDelay(this::publishMetrics, Constants.METRICS_INTERVAL_SECONDS,
+                Constants.METRICS_INTERVAL_SECONDS, TimeUnit.SECONDS);
     }
 
     public void stopEmbeddedServer() {
@@ -323,11 +438,103 @@ public class EmbeddedBrokerService
         if (server != null) {
             server.removeInterceptHandler(metrics);
             detectStart.stopBrokerStartDetection();
+            stopJobs();
             server.stopServer();
             this.server = null;
         }
     }
 
+    private void restoreRetainedMessages(Server server, RetainedSnapshotStore retainedStore) {
+        try {
+            retainedStore.load();
+        } catch (IOException e) {
+            logger.warn("Could not read retained messages from {}: {}", retainedStore.getFile(), e.getMessage());
+            return;
+        }
+        for (RetainedEntry entry : retainedStore.getEntries()) {
+            MqttPublishMessage message = MqttMessageBuilders.publish().topicName(entry.topic).retained(true)
+                    .qos(MqttQoS.valueOf(entry.qos)).payload(Unpooled.wrappedBuffer(entry.payload)).build();
+            server.internalPublish(message, Constants.CLIENTID);
+        }
+        logger.debug("Restored {} retained messages from {}", retainedStore.size(), retainedStore.getFile());
+    }
+
+    private void snapshotRetainedMessages() {
+        RetainedSnapshotStore retainedStore = this.retainedStore;
+        if (retainedStore == null) {
+            return;
+        }
+        try {
+            if (retainedStore.snapshot()) {
+                logger.trace("Saved {} retained messages in {} ms", retainedStore.size(),
+                        retainedStore.getLastSnapshotMillis());
+            }
+        } catch (IOException e) {
+            logger.warn("Could not save retained messages to {}: {}", retainedStore.getFile(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the metrics and snapshot jobs and saves the retained messages a last time.
+     */
+    private void stopJobs() {
+        ScheduledFuture<?> metricsJob = this.metricsJob;
+        if (metricsJob != null) {
+            metricsJob.cancel(false);
+            this.metricsJob = null;
+        }
+        ScheduledFuture<?> snapshotJob = this.snapshotJob;
+        if (snapshotJob != null) {
+            snapshotJob.cancel(false);
+            this.snapshotJob = null;
+        }
+        snapshotRetainedMessages();
+        metrics.retainedStore = null;
+        retainedStore = null;
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Publishes the broker metrics to the "$SYS/broker/" topics defined in {@link Constants}.
+     */
+    protected void publishMetrics() {
+        Server server = this.server;
+        if (server == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        double seconds = Math.max(1, now - lastMetricsTime) / 1e9;
+        long receivedPublishes = metrics.receivedPublishes.get();
+        long receivedBytes = metrics.receivedBytes.get();
+
+        publishMetric(server, Constants.TOPIC_METRICS_PUBLISH_RATE,
+                String.format(Locale.ROOT, "%.1f", (receivedPublishes - lastReceivedPublishes) / seconds));
+        publishMetric(server, Constants.TOPIC_METRICS_BYTE_RATE,
+                String.format(Locale.ROOT, "%.0f", (receivedBytes - lastReceivedBytes) / seconds));
+        publishMetric(server, Constants.TOPIC_METRICS_SUBSCRIPTIONS, String.valueOf(metrics.getSubscriptionCount()));
+        publishMetric(server, Constants.TOPIC_METRICS_RETAINED, String.valueOf(metrics.getRetainedCount()));
+        publishMetric(server, Constants.TOPIC_METRICS_CLIENTS, String.valueOf(server.listConnectedClients().size()));
+        RetainedSnapshotStore retainedStore = this.retainedStore;
+        if (retainedStore != null && retainedStore.getLastSnapshotMillis() >= 0) {
+            publishMetric(server, Constants.TOPIC_METRICS_SNAPSHOT_LATENCY,
+                    String.valueOf(retainedStore.getLastSnapshotMillis()));
+        }
+
+        lastMetricsTime = now;
+        lastReceivedPublishes = receivedPublishes;
+        lastReceivedBytes = receivedBytes;
+    }
+
+    private void publishMetric(Server server, String topic, String value) {
+        MqttPublishMessage message = MqttMessageBuilders.publish().topicName(topic).retained(false)
+                .qos(MqttQoS.AT_MOST_ONCE).payload(Unpooled.copiedBuffer(value, StandardCharsets.UTF_8)).build();
+        server.internalPublish(message, Constants.CLIENTID);
+    }
+
     /**
      * For testing: Returns true if the embedded server confirms that the MqttBrokerConnection is connected.
      */
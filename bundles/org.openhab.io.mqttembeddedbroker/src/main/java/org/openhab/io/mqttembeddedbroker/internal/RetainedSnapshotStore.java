@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Keeps the retained messages of the embedded broker in memory and writes them to a snapshot file on request.
+ * This is used instead of the h2-mvstore persistence of Moquette if the broker runs with in-memory persistence:
+ * Updates only touch the in-memory map, and the file is written by {@link #snapshot()} from a background job.
+ * <p>
+ * The snapshot is written to a temporary file first and then moved over the previous snapshot, so that a crash
+ * during a write never leaves a corrupt file behind.
+ *
+ * @author David Graeff - Initial contribution
+ */
+@NonNullByDefault
+public class RetainedSnapshotStore {
+    private static final int MAGIC = 0x4d515452; // "MQTR"
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final Map<String, RetainedEntry> retained = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile long lastSnapshotMillis = -1;
+
+    /**
+     * A retained message.
+     */
+    public static class RetainedEntry {
+        public final String topic;
+        public final int qos;
+        public final byte[] payload;
+
+        public RetainedEntry(String topic, int qos, byte[] payload) {
+            this.topic = topic;
+            this.qos = qos;
+            this.payload = payload;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof RetainedEntry)) {
+                return false;
+            }
+            RetainedEntry other = (RetainedEntry) obj;
+            return topic.equals(other.topic) && qos == other.qos && Arrays.equals(payload, other.payload);
+        }
+
+        @Override
+        public int hashCode() {
+            return topic.hashCode() * 31 + Arrays.hashCode(payload);
+        }
+    }
+
+    /**
+     * Creates a store for the given snapshot file. Call {@link #load()} to read an existing snapshot.
+     *
+     * @param file The snapshot file
+     */
+    public RetainedSnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Stores or, if the payload is empty, removes the retained message of a topic.
+     *
+     * @param topic The topic
+     * @param qos The quality of service of the message
+     * @param payload The payload
+     */
+    public void update(String topic, int qos, byte[] payload) {
+        if (payload.length == 0) {
+            if (retained.remove(topic) != null) {
+                dirty.set(true);
+            }
+            return;
+        }
+        RetainedEntry entry = new RetainedEntry(topic, qos, payload);
+        if (!entry.equals(retained.put(topic, entry))) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * @return The retained messages
+     */
+    public Collection<RetainedEntry> getEntries() {
+        return Collections.unmodifiableCollection(retained.values());
+    }
+
+    /**
+     * @return The number of retained messages
+     */
+    public int size() {
+        return retained.size();
+    }
+
+    /**
+     * Reads the retained messages from the snapshot file. A missing file is not an error.
+     *
+     * @throws IOException If the file cannot be read or is corrupt
+     */
+    public void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a retained message snapshot: " + file);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String topic = in.readUTF();
+                int qos = in.readByte();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                retained.put(topic, new RetainedEntry(topic, qos, payload));
+            }
+        } catch (NoSuchFileException ignored) {
+            // nothing stored yet
+        }
+    }
+
+    /**
+     * Writes all retained messages to the snapshot file if they have changed since the last snapshot.
+     *
+     * @return Returns true if a snapshot was written
+     * @throws IOException If the file cannot be written. The next call tries again.
+     */
+    public synchronized boolean snapshot() throws IOException {
+        if (!dirty.getAndSet(false)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            RetainedEntry[] entries = retained.values().toArray(new RetainedEntry[0]);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.length);
+                for (RetainedEntry entry : entries) {
+                    out.writeUTF(entry.topic);
+                    out.writeByte(entry.qos);
+                    out.writeInt(entry.payload.length);
+                    out.write(entry.payload);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            throw e;
+        }
+        lastSnapshotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * @return The duration of the last snapshot in milliseconds or -1 if no snapshot has been written yet
+     */
+    public long getLastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+
+    /**
+     * @return The snapshot file
+     */
+    public Path getFile() {
+        return file;
+    }
+}
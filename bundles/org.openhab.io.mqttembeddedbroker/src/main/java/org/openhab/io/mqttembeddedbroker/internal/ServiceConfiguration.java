@@ -25,6 +25,8 @@ public class ServiceConfiguration {
     public @Nullable Integer port;
     public Boolean secure = false;
     public String persistenceFile = "mqttembedded.bin";
+    public Boolean inMemoryPersistence = false;
+    public Integer snapshotInterval = 60;
 
     public @Nullable String username;
     public @Nullable String password;
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.Protocol;
+import org.eclipse.smarthome.io.transport.mqtt.MqttService;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives the embedded broker with many local clients and logs the throughput and the time needed to persist the
+ * retained messages. This is a load test and not part of the unit tests, it only runs if the system property
+ * "mqtt.loadtest" is set:
+ *
+ * <pre>
+ * mvn test -Dtest=MqttEmbeddedBrokerLoadTest -Dmqtt.loadtest=true -Dmqtt.loadtest.clients=50
+ * </pre>
+ *
+ * The number of clients and messages per client are set with "mqtt.loadtest.clients" and "mqtt.loadtest.messages".
+ * The broker uses the h2-mvstore persistence, or the in-memory persistence with retained snapshots if
+ * "mqtt.loadtest.inMemory" is set.
+ *
+ * @author David Graeff - Initial contribution
+ */
+public class MqttEmbeddedBrokerLoadTest extends JavaTest {
+    private static final int PORT = 12347;
+    private static final byte[] PAYLOAD = "0123456789".getBytes();
+
+    private final Logger logger = LoggerFactory.getLogger(MqttEmbeddedBrokerLoadTest.class);
+
+    private final int clientCount = Integer.getInteger("mqtt.loadtest.clients", 10);
+    private final int messageCount = Integer.getInteger("mqtt.loadtest.messages", 1000);
+
+    private EmbeddedBrokerService subject;
+    private final List<MqttBrokerConnection> clients = new ArrayList<>();
+    private Path persistenceDir;
+    private @Mock MqttService service;
+
+    @Before
+    public void setUp() throws IOException {
+        assumeTrue(Boolean.getBoolean("mqtt.loadtest"));
+        MockitoAnnotations.initMocks(this);
+
+        persistenceDir = Files.createTempDirectory("mqttloadtest");
+        Map<String, Object> config = new HashMap<>();
+        config.put("port", PORT);
+        config.put("secure", false);
+        config.put("persistenceFile", persistenceDir.resolve("broker.db").toString());
+        config.put("inMemoryPersistence", Boolean.getBoolean("mqtt.loadtest.inMemory"));
+
+        subject = new EmbeddedBrokerService(service, config);
+    }
+
+    @After
+    public void cleanUp() throws InterruptedException, ExecutionException, TimeoutException, IOException {
+        for (MqttBrokerConnection client : clients) {
+            client.stop().get(5, TimeUnit.SECONDS);
+        }
+        if (subject != null) {
+            subject.deactivate();
+        }
+        if (persistenceDir != null) {
+            try (Stream<Path> files = Files.walk(persistenceDir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void manyClientsPublish() throws InterruptedException, ExecutionException, TimeoutException {
+        AtomicLong received = new AtomicLong();
+        for (int i = 0; i < clientCount; i++) {
+            MqttBrokerConnection client = new MqttBrokerConnection(Protocol.TCP, "127.0.0.1", PORT, false,
+                    "loadtest" + i);
+            clients.add(client);
+            assertTrue(client.start().get(10, TimeUnit.SECONDS));
+            client.subscribe("loadtest/" + i + "/#", (topic, payload) -> received.incrementAndGet()).get(10,
+                    TimeUnit.SECONDS);
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int m = 0; m < messageCount; m++) {
+            for (int i = 0; i < clientCount; i++) {
+                // every client keeps a retained value per 10 messages
+                futures.add(clients.get(i).publish("loadtest/" + i + "/" + (m % 10), PAYLOAD, 1, true));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.MINUTES);
+        final long expected = (long) clientCount * messageCount;
+        waitForAssert(() -> assertThat(received.get(), is(expected)), TimeUnit.MINUTES.toMillis(10), 100);
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        logger.info("{} clients published {} messages in {} ms: {} publishes/s, {} bytes/s", clientCount, expected,
+                millis, expected * 1000 / millis, subject.metrics.receivedBytes.get() * 1000 / millis);
+        logger.info("{} subscriptions, {} retained topics", subject.metrics.getSubscriptionCount(),
+                subject.metrics.getRetainedCount());
+
+        RetainedSnapshotStore store = subject.metrics.retainedStore;
+        if (store != null) {
+            try {
+                store.snapshot();
+                logger.info("Saved {} retained messages in {} ms", store.size(), store.getLastSnapshotMillis());
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+        }
+    }
+}
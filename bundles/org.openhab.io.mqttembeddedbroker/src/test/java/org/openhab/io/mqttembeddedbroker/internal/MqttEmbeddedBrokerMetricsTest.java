@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.Protocol;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.eclipse.smarthome.io.transport.mqtt.MqttService;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Connects a few local clients to the embedded broker and checks the broker metrics.
+ *
+ * @author David Graeff - Initial contribution
+ */
+public class MqttEmbeddedBrokerMetricsTest extends JavaTest {
+    private static final int CLIENTS = 3;
+    private static final int MESSAGES = 5;
+    private static final byte[] PAYLOAD = "0123456789".getBytes();
+
+    private EmbeddedBrokerService subject;
+    private final List<MqttBrokerConnection> clients = new ArrayList<>();
+    private @Mock MqttService service;
+
+    @Before
+    public void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("port", 12346);
+        config.put("secure", false);
+        config.put("persistenceFile", "");
+
+        subject = new EmbeddedBrokerService(service, config);
+    }
+
+    @After
+    public void cleanUp() throws InterruptedException, ExecutionException, TimeoutException {
+        for (MqttBrokerConnection client : clients) {
+            client.stop().get(5, TimeUnit.SECONDS);
+        }
+        subject.deactivate();
+    }
+
+    @Test
+    public void publishesAreCountedAndDelivered() throws InterruptedException, ExecutionException, TimeoutException {
+        List<AtomicInteger> received = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            received.add(counter);
+            connect(i).subscribe("metrics/" + i + "/#", (topic, payload) -> counter.incrementAndGet()).get(5,
+                    TimeUnit.SECONDS);
+        }
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int m = 0; m < MESSAGES; m++) {
+            for (int i = 0; i < CLIENTS; i++) {
+                // every client keeps one retained value
+                futures.add(clients.get(i).publish("metrics/" + i + "/value", PAYLOAD, 1, m == MESSAGES - 1));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        for (AtomicInteger counter : received) {
+            waitForAssert(() -> assertThat(counter.get(), is(MESSAGES)));
+        }
+        final long expected = (long) CLIENTS * MESSAGES;
+        waitForAssert(() -> assertThat(subject.metrics.receivedPublishes.get(), is(expected)));
+        assertThat(subject.metrics.receivedBytes.get(), is(expected * PAYLOAD.length));
+        assertThat(subject.metrics.getRetainedCount(), is(CLIENTS));
+        assertTrue(subject.metrics.getSubscriptionCount() >= CLIENTS);
+    }
+
+    @Test
+    public void clearedRetainedValuesAndSubscriptionsAreRemoved()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        MqttBrokerConnection client = connect(0);
+        MqttMessageSubscriber subscriber = (topic, payload) -> {
+        };
+        client.subscribe("metrics/retained", subscriber).get(5, TimeUnit.SECONDS);
+        waitForAssert(() -> assertThat(subject.metrics.getSubscriptionCount(), is(1)));
+
+        client.publish("metrics/retained", PAYLOAD, 1, true).get(5, TimeUnit.SECONDS);
+        waitForAssert(() -> assertThat(subject.metrics.getRetainedCount(), is(1)));
+
+        // an empty retained message clears the retained value
+        client.publish("metrics/retained", new byte[0], 1, true).get(5, TimeUnit.SECONDS);
+        waitForAssert(() -> assertThat(subject.metrics.getRetainedCount(), is(0)));
+
+        client.unsubscribe("metrics/retained", subscriber).get(5, TimeUnit.SECONDS);
+        waitForAssert(() -> assertThat(subject.metrics.getSubscriptionCount(), is(0)));
+    }
+
+    private MqttBrokerConnection connect(int i) throws InterruptedException, ExecutionException, TimeoutException {
+        MqttBrokerConnection client = new MqttBrokerConnection(Protocol.TCP, "127.0.0.1", 12346, false,
+                "metrics" + i);
+        clients.add(client);
+        assertTrue(client.start().get(5, TimeUnit.SECONDS));
+        return client;
+    }
+}
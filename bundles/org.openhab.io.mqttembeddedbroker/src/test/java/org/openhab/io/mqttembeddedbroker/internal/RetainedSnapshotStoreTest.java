@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.mqttembeddedbroker.internal.RetainedSnapshotStore.RetainedEntry;
+
+/**
+ * Tests the {@link RetainedSnapshotStore}.
+ *
+ * @author David Graeff - Initial contribution
+ */
+public class RetainedSnapshotStoreTest {
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("mqttsnapshot");
+        file = directory.resolve("mqttembedded.bin.retained");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void snapshotAndLoad() throws IOException {
+        RetainedSnapshotStore store = new RetainedSnapshotStore(file);
+        store.load();
+        assertThat(store.size(), is(0));
+
+        store.update("a/b", 1, "first".getBytes());
+        store.update("a/c", 0, "second".getBytes());
+        store.update("a/d", 0, "removed".getBytes());
+        store.update("a/d", 0, new byte[0]);
+        assertTrue(store.snapshot());
+        assertTrue(store.getLastSnapshotMillis() >= 0);
+
+        RetainedSnapshotStore loaded = new RetainedSnapshotStore(file);
+        loaded.load();
+        assertThat(loaded.size(), is(2));
+        for (RetainedEntry entry : loaded.getEntries()) {
+            if (entry.topic.equals("a/b")) {
+                assertThat(entry.qos, is(1));
+                assertThat(new String(entry.payload), is("first"));
+            } else {
+                assertThat(entry.topic, is("a/c"));
+                assertThat(new String(entry.payload), is("second"));
+            }
+        }
+    }
+
+    @Test
+    public void onlyChangesAreWritten() throws IOException {
+        RetainedSnapshotStore store = new RetainedSnapshotStore(file);
+        assertFalse(store.snapshot());
+
+        store.update("a/b", 0, "value".getBytes());
+        assertTrue(store.snapshot());
+        assertFalse(store.snapshot());
+
+        // the same value again does not change the store
+        store.update("a/b", 0, "value".getBytes());
+        assertFalse(store.snapshot());
+
+        store.update("a/b", 0, new byte[0]);
+        assertTrue(store.snapshot());
+        assertFalse(Files.exists(directory.resolve("mqttembedded.bin.retained.tmp")));
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptFileIsRejected() throws IOException {
+        Files.write(file, "no snapshot".getBytes());
+        new RetainedSnapshotStore(file).load();
+    }
+}